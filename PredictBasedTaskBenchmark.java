@@ -0,0 +1,517 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+package simu;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.ArmaRefitter;
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletMetricsCollector;
+import org.cloudbus.cloudsim.CloudletSchedulerPridict;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerSpaceShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.distributions.ExponentialDistr;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.BinaryTraceReader;
+import org.cloudbus.cloudsim.util.BinaryTraceWriter;
+import org.cloudbus.cloudsim.util.DiurnalProfile;
+import org.cloudbus.cloudsim.util.InputRowMapper;
+import org.cloudbus.cloudsim.util.InputTraceReader;
+import org.cloudbus.cloudsim.util.StreamingWorkloadModel;
+import org.cloudbus.cloudsim.util.SyntheticWorkload;
+import org.cloudbus.cloudsim.util.TraceChunks;
+import org.cloudbus.cloudsim.util.WorkloadSampler;
+import org.cloudbus.cloudsim.util.WorkloadFileReader;
+
+/**
+ * Reproducible macro benchmark for the predict-based scheduling scenario. It runs the same
+ * datacenter/broker setup as {@link PredictBasedTaskSchedle} with a configurable number of VMs and
+ * cloudlets, taken either from a synthetic trace or from a CSV export of the <tt>input</tt> table,
+ * and reports events processed per second, peak heap, GC time and simulated seconds per wall
+ * second.
+ * <p>
+ * Arguments are given as <tt>key=value</tt> pairs:
+ * <ul>
+ * <li><tt>vms</tt> number of VMs (and hosts), default 10
+ * <li><tt>cloudlets</tt> number of synthetic cloudlets, default 100000
+ * <li><tt>pes</tt> PEs per VM/host, default 1000
+ * <li><tt>trace</tt> CSV file with <tt>time,cpuReq,priority[,jobID]</tt> rows; when given, it
+ * replaces the synthetic trace and <tt>cloudlets</tt> limits the number of rows read
+ * <li><tt>loaderThreads</tt> threads reading the <tt>trace</tt> file, default the number of
+ * processors; with more than one, the file is parsed in chunks in parallel
+ * <li><tt>binTrace</tt> binary trace, see {@link BinaryTraceWriter}; when given, the slice selected
+ * by <tt>from</tt>, <tt>to</tt> and <tt>maxPriority</tt> replaces the other traces. If the file
+ * does not exist, it is first converted from the <tt>trace</tt> file
+ * <li><tt>from</tt>, <tt>to</tt> time window of the <tt>binTrace</tt> slice, default the whole trace
+ * <li><tt>maxPriority</tt> largest priority of the <tt>binTrace</tt> slice, default any
+ * <li><tt>swf</tt> workload file in the standard workload format (plain, gz or zip); when given, its
+ * jobs are streamed to the broker instead of the synthetic trace being submitted
+ * <li><tt>swfWindow</tt> how far ahead the <tt>swf</tt> workload is read, default 3600 seconds
+ * <li><tt>seed</tt> seed of the synthetic trace, default 1
+ * <li><tt>generator</tt> 1 to stream <tt>cloudlets</tt> jobs from a {@link SyntheticWorkload}
+ * instead of submitting the synthetic trace at once, default 0
+ * <li><tt>arrivalMean</tt> mean inter-arrival time of the <tt>generator</tt> jobs, default 0.5
+ * seconds; dividing it by <tt>n</tt> multiplies the load by <tt>n</tt>
+ * <li><tt>tasksPerJob</tt> tasks per <tt>generator</tt> job, default 1
+ * <li><tt>diurnal</tt> relative amplitude of the daily cycle of the <tt>generator</tt> arrival
+ * rate and of the <tt>productUsage</tt> series, in [0, 1), default 0
+ * <li><tt>lookAhead</tt> horizon over which the VMs look at the product usage when counting
+ * their available PEs, in seconds, default 300 (one slot)
+ * <li><tt>productUsage</tt> mean of a synthetic product usage series given to the VMs, default
+ * none; the <tt>product</tt> table is never read
+ * <li><tt>sample</tt> keep one in <tt>sample</tt> jobs of the trace, stratified by class type and
+ * keeping whole jobs, and scale the number of VMs down by the same factor, see
+ * {@link WorkloadSampler}; when given, the headline SLA metrics are added to the result
+ * <li><tt>sampleSeed</tt> seed of the sample, default 1
+ * <li><tt>calibrate</tt> the result file of a run with <tt>sample=1</tt> on the same trace, to
+ * report how far the headline metrics of this run deviate from it
+ * <li><tt>submitQuantum</tt> time window of the batched cloudlet submissions, default 0 (same
+ * timestamp only); a negative value submits the cloudlets one by one
+ * <li><tt>placement</tt> placement of batched cloudlets: 0 online (default), 1 first-fit
+ * decreasing, 2 best-fit decreasing
+ * <li><tt>refit</tt> period of the refits of the ARMA coefficients in seconds, default 0 (never)
+ * <li><tt>refitMode</tt> 0 one model per VM (default), 1 one model for all the VMs
+ * <li><tt>refitSamples</tt> slots of history a model is refitted from, default 288 (a day); until
+ * then the model of the <tt>refitCache</tt>, or the default one, is kept
+ * <li><tt>refitCache</tt> file the fitted models are loaded from and saved to
+ * <li><tt>out</tt> result file, default <tt>benchmark-result.properties</tt>
+ * <li><tt>baseline</tt> a previous result file to compare against
+ * <li><tt>tolerance</tt> allowed relative slowdown against the baseline, default 0.1
+ * </ul>
+ * The process exits with status 1 when a throughput metric regresses beyond the tolerance.
+ */
+public class PredictBasedTaskBenchmark {
+
+	/** Metrics where a higher value is better. */
+	private static final String[] HIGHER_IS_BETTER = { "eventsPerSecond", "simSecondsPerWallSecond" };
+
+	/** Metrics where a lower value is better. */
+	private static final String[] LOWER_IS_BETTER = { "wallSeconds", "peakHeapBytes", "gcMillis" };
+
+	public static void main(String[] args) {
+		Map<String, String> options = parseArguments(args);
+		int vms = Integer.parseInt(option(options, "vms", "10"));
+		int cloudlets = Integer.parseInt(option(options, "cloudlets", "100000"));
+		int pes = Integer.parseInt(option(options, "pes", "1000"));
+		long seed = Long.parseLong(option(options, "seed", "1"));
+		String trace = options.get("trace");
+		String swf = options.get("swf");
+		String binTrace = options.get("binTrace");
+		double from = Double.parseDouble(option(options, "from", "-Infinity"));
+		double to = Double.parseDouble(option(options, "to", "Infinity"));
+		int maxPriority = Integer.parseInt(option(options, "maxPriority", String.valueOf(Integer.MAX_VALUE)));
+		int loaderThreads = Integer.parseInt(option(options, "loaderThreads",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+		double swfWindow = Double.parseDouble(option(options, "swfWindow", "3600"));
+		String out = option(options, "out", "benchmark-result.properties");
+		String baseline = options.get("baseline");
+		double tolerance = Double.parseDouble(option(options, "tolerance", "0.1"));
+		double submitQuantum = Double.parseDouble(option(options, "submitQuantum", "0"));
+		int placement = Integer.parseInt(option(options, "placement", "0"));
+		double refit = Double.parseDouble(option(options, "refit", "0"));
+		int refitMode = Integer.parseInt(option(options, "refitMode", "0"));
+		int refitSamples = Integer.parseInt(option(options, "refitSamples",
+				String.valueOf(ArmaRefitter.DEFAULT_MIN_SAMPLES)));
+		String refitCache = options.get("refitCache");
+		int sample = Integer.parseInt(option(options, "sample", "1"));
+		long sampleSeed = Long.parseLong(option(options, "sampleSeed", "1"));
+		String calibrate = options.get("calibrate");
+		boolean generator = "1".equals(options.get("generator"));
+		double arrivalMean = Double.parseDouble(option(options, "arrivalMean", "0.5"));
+		int tasksPerJob = Integer.parseInt(option(options, "tasksPerJob", "1"));
+		double diurnal = Double.parseDouble(option(options, "diurnal", "0"));
+		if (!(diurnal >= 0 && diurnal < 1)) {
+			throw new IllegalArgumentException("diurnal must be in [0, 1), as the daily cycle cannot "
+					+ "reach a zero rate: " + diurnal);
+		}
+		String productUsage = options.get("productUsage");
+		int lookAhead = Integer.parseInt(option(options, "lookAhead", String.valueOf(Vm.SLOT)));
+		WorkloadSampler sampler = options.containsKey("sample") ? new WorkloadSampler(sample, sampleSeed) : null;
+		int fullVms = vms;
+		if (sampler != null) {
+			vms = sampler.scaleCapacity(vms);
+		}
+
+		Log.disable();
+		try {
+			CloudSim.init(1, Calendar.getInstance(), false);
+			Datacenter datacenter = createDatacenter("Datacenter", vms, pes);
+			datacenter.setBatchPlacement(placement);
+			CloudletMetricsCollector metrics = null;
+			if (sampler != null) {
+				metrics = new CloudletMetricsCollector();
+				datacenter.addCloudletLifecycleListener(metrics);
+			}
+			if (refit > 0) {
+				ArmaRefitter refitter = new ArmaRefitter(refit, refitMode);
+				refitter.setMinSamples(refitSamples);
+				if (refitCache != null) {
+					refitter.loadCache(refitCache);
+				}
+				datacenter.setArmaRefitter(refitter);
+			}
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			broker.setSubmitBatchQuantum(submitQuantum);
+
+			List<Vm> vmlist = new ArrayList<Vm>();
+			for (int vmId = 0; vmId < vms; vmId++) {
+				Vm vm = new Vm(vmId, broker.getId(), 2000, pes, 1000000, 1000, 10000, "Xen",
+						new CloudletSchedulerPridict());
+				vm.setLookAhead(lookAhead);
+				vmlist.add(vm);
+			}
+			Vm.setSharedProductUsage(new HashMap<Integer, Double>());
+			if (productUsage != null) {
+				double mean = Double.parseDouble(productUsage);
+				DiurnalProfile usage = new DiurnalProfile(mean, diurnal * mean, 14 * 3600);
+				int slots = (int) (cloudlets * arrivalMean / Vm.PRODUCT_USAGE_INTERVAL) + 288;
+				for (Vm vm : vmlist) {
+					vm.setProductUsage(usage.generateUsage(slots, Vm.PRODUCT_USAGE_INTERVAL, 0.02, seed + vm.getId()));
+				}
+			}
+			broker.submitVmList(vmlist);
+
+			// every trace maps its rows to cloudlets alike, with at least one PE each
+			InputRowMapper mapper = new InputRowMapper(pes);
+			mapper.setMinPes(1);
+			mapper.setUserId(broker.getId());
+			List<Cloudlet> cloudletList;
+			BinaryTraceReader binTraceReader = null;
+			if (binTrace != null) {
+				if (!new File(binTrace).exists()) {
+					convertTrace(trace, binTrace);
+				}
+				binTraceReader = new BinaryTraceReader(binTrace, pes);
+				binTraceReader.setRowMapper(mapper);
+				binTraceReader.setTimeWindow(from, to);
+				binTraceReader.setPriorityRange(Integer.MIN_VALUE, maxPriority);
+				cloudletList = binTraceReader.generateWorkload();
+			} else if (swf != null || generator) {
+				StreamingWorkloadModel workload;
+				if (swf != null) {
+					workload = new WorkloadFileReader(swf, 1);
+				} else {
+					SyntheticWorkload synthetic = new SyntheticWorkload(seed, cloudlets, arrivalMean, pes);
+					synthetic.setRowMapper(mapper);
+					synthetic.setTasksPerJob(tasksPerJob);
+					if (diurnal > 0) {
+						synthetic.setDiurnalProfile(new DiurnalProfile(1, diurnal, 14 * 3600));
+					}
+					workload = synthetic;
+				}
+				broker.setWorkload(sampler != null ? new WorkloadSampler(workload, sample, sampleSeed) : workload);
+				broker.setWorkloadWindow(swfWindow);
+				cloudletList = new ArrayList<Cloudlet>();
+			} else if (trace == null) {
+				cloudletList = createSyntheticCloudlets(mapper, cloudlets, seed);
+			} else if (loaderThreads > 1) {
+				ForkJoinPool pool = new ForkJoinPool(loaderThreads);
+				try {
+					cloudletList = new InputTraceReader(trace, mapper).readCloudlets(cloudlets, pool);
+				} finally {
+					pool.shutdown();
+				}
+			} else {
+				cloudletList = new InputTraceReader(trace, mapper).readCloudlets(cloudlets);
+			}
+			if (sampler != null && swf == null && !generator) {
+				cloudletList = sampler.sample(cloudletList);
+			}
+			broker.submitCloudletList(cloudletList);
+			cloudletList = null;
+
+			Properties result = measure(new Runnable() {
+
+				@Override
+				public void run() {
+					CloudSim.startSimulation();
+				}
+			});
+			result.setProperty("vms", String.valueOf(fullVms));
+			if (metrics != null) {
+				metrics.finish();
+				result.setProperty("sample", String.valueOf(sample));
+				result.setProperty("sampledVms", String.valueOf(vms));
+				for (Map.Entry<String, Double> metric : metrics.getHeadlineMetrics().entrySet()) {
+					result.setProperty("metric." + metric.getKey(), String.valueOf(metric.getValue()));
+				}
+			}
+			result.setProperty("cloudlets", String.valueOf(cloudlets));
+			result.setProperty("pes", String.valueOf(pes));
+			result.setProperty("submitQuantum", String.valueOf(submitQuantum));
+			result.setProperty("placement", String.valueOf(placement));
+			result.setProperty("refit", String.valueOf(refit));
+			if (refitCache != null && datacenter.getArmaRefitter() != null) {
+				datacenter.getArmaRefitter().saveCache(refitCache);
+			}
+			if (binTraceReader != null) {
+				result.setProperty("trace", binTrace + ":[" + from + "," + to + ")");
+				result.setProperty("traceBlocksRead", binTraceReader.getBlocksRead() + "/"
+						+ binTraceReader.getBlockCount());
+			} else {
+				result.setProperty("trace", swf != null ? swf : (generator ? "generator:" + seed
+						: (trace == null ? "synthetic:" + seed : trace)));
+			}
+
+			Log.enable();
+			writeResult(result, out);
+			for (String key : result.stringPropertyNames()) {
+				Log.printLine(key + "=" + result.getProperty(key));
+			}
+
+			if (calibrate != null) {
+				printCalibration(result, readResult(calibrate), sample);
+			}
+			if (baseline != null && !compareWithBaseline(result, readResult(baseline), tolerance)) {
+				System.exit(1);
+			}
+		} catch (Exception e) {
+			Log.enable();
+			e.printStackTrace();
+			Log.printLine("The benchmark has been terminated due to an unexpected error");
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Runs the simulation and collects the run metrics.
+	 *
+	 * @param simulation the simulation run
+	 * @return the collected metrics
+	 */
+	private static Properties measure(Runnable simulation) {
+		List<MemoryPoolMXBean> heapPools = new ArrayList<MemoryPoolMXBean>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+				heapPools.add(pool);
+			}
+		}
+		long gcStart = getTotalGcTime();
+
+		simulation.run();
+
+		long gcMillis = getTotalGcTime() - gcStart;
+		long peakHeap = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			peakHeap += pool.getPeakUsage().getUsed();
+		}
+
+		double wallSeconds = CloudSim.getRunWallClockTime() / 1000.0;
+		double simSeconds = CloudSim.getLastRunClock();
+
+		Properties result = new Properties();
+		result.setProperty("events", String.valueOf(CloudSim.getProcessedEvents()));
+		result.setProperty("wallSeconds", String.valueOf(wallSeconds));
+		result.setProperty("simSeconds", String.valueOf(simSeconds));
+		result.setProperty("eventsPerSecond", String.valueOf(CloudSim.getEventsPerSecond()));
+		result.setProperty("simSecondsPerWallSecond",
+				String.valueOf(wallSeconds > 0 ? simSeconds / wallSeconds : 0));
+		result.setProperty("peakHeapBytes", String.valueOf(peakHeap));
+		result.setProperty("gcMillis", String.valueOf(gcMillis));
+		return result;
+	}
+
+	/**
+	 * Gets the accumulated collection time of all garbage collectors.
+	 *
+	 * @return the GC time in milliseconds
+	 */
+	private static long getTotalGcTime() {
+		long total = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (gc.getCollectionTime() > 0) {
+				total += gc.getCollectionTime();
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Compares a result with a baseline and prints the relative change of each metric.
+	 *
+	 * @param result the current result
+	 * @param baseline the baseline result
+	 * @param tolerance the allowed relative slowdown
+	 * @return true if no throughput metric regressed beyond the tolerance
+	 */
+	private static boolean compareWithBaseline(Properties result, Properties baseline, double tolerance) {
+		boolean ok = true;
+		for (String key : HIGHER_IS_BETTER) {
+			double change = relativeChange(result, baseline, key);
+			Log.printLine("baseline " + key + ": " + String.format("%+.1f%%", change * 100));
+			if (change < -tolerance) {
+				Log.printLine("REGRESSION: " + key + " is below the baseline");
+				ok = false;
+			}
+		}
+		for (String key : LOWER_IS_BETTER) {
+			double change = relativeChange(result, baseline, key);
+			Log.printLine("baseline " + key + ": " + String.format("%+.1f%%", change * 100));
+		}
+		return ok;
+	}
+
+	/**
+	 * Prints how far the headline metrics of a sampled run deviate from those of a full run. The
+	 * counts of the sampled run are scaled up by the sampling factor.
+	 *
+	 * @param result the result of the sampled run
+	 * @param full the result of the full run
+	 * @param sample the sampling factor
+	 */
+	private static void printCalibration(Properties result, Properties full, int sample) {
+		Log.printLine("metric\tfull\tsampled\tdeviation");
+		for (String key : new TreeSet<String>(full.stringPropertyNames())) {
+			if (!key.startsWith("metric.")) {
+				continue;
+			}
+			double expected = Double.parseDouble(full.getProperty(key));
+			double actual = Double.parseDouble(result.getProperty(key, "0"));
+			if (key.startsWith("metric.submitted.") || key.startsWith("metric.finished.")) {
+				actual *= sample;
+			}
+			String deviation = expected == 0 ? (actual == 0 ? "+0.0%" : "n/a")
+					: String.format("%+.1f%%", (actual - expected) / expected * 100);
+			Log.printLine(String.format("%s\t%.3f\t%.3f\t%s", key.substring("metric.".length()), expected,
+					actual, deviation));
+		}
+	}
+
+	private static double relativeChange(Properties result, Properties baseline, String key) {
+		double before = Double.parseDouble(baseline.getProperty(key, "0"));
+		double now = Double.parseDouble(result.getProperty(key, "0"));
+		if (before == 0) {
+			return 0;
+		}
+		return (now - before) / before;
+	}
+
+	private static void writeResult(Properties result, String fileName) throws IOException {
+		BufferedWriter bw = new BufferedWriter(new FileWriter(fileName));
+		try {
+			result.store(bw, "PredictBasedTaskBenchmark result");
+		} finally {
+			bw.close();
+		}
+	}
+
+	private static Properties readResult(String fileName) throws IOException {
+		Properties result = new Properties();
+		FileReader reader = new FileReader(fileName);
+		try {
+			result.load(reader);
+		} finally {
+			reader.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Creates cloudlets with exponential inter-arrival times, uniformly distributed CPU requests
+	 * and a fixed priority mix (70% class 0, 20% class 1, 10% class 2).
+	 */
+	private static List<Cloudlet> createSyntheticCloudlets(InputRowMapper mapper, int count, long seed) {
+		List<Cloudlet> list = new ArrayList<Cloudlet>(count);
+		ExponentialDistr interArrival = new ExponentialDistr(seed, 0.5);
+		Random random = new Random(seed);
+		double time = 0;
+		for (int cloudletId = 0; cloudletId < count; cloudletId++) {
+			time += interArrival.sample();
+			double p = random.nextDouble();
+			int priority = p < 0.7 ? 0 : (p < 0.9 ? 1 : 2);
+			list.add(mapper.createCloudlet(cloudletId, time, random.nextDouble() * 0.05, priority,
+					String.valueOf(cloudletId / 10)));
+		}
+		return list;
+	}
+
+	/**
+	 * Converts a CSV trace with <tt>time,cpuReq,priority[,jobID]</tt> rows to a binary trace, in
+	 * submit time order. The CSV trace has no disk request, which is written as 0.
+	 */
+	private static void convertTrace(String csvFileName, String binFileName) throws IOException {
+		if (csvFileName == null) {
+			throw new IOException(binFileName + " does not exist and no trace to convert was given");
+		}
+		InputTraceReader.Rows rows = new InputTraceReader(csvFileName, null).readRows();
+		BinaryTraceWriter writer = new BinaryTraceWriter(binFileName, BinaryTraceWriter.DEFAULT_BLOCK_SIZE);
+		try {
+			for (int row : TraceChunks.sortedOrder(rows.getTimes(), rows.size())) {
+				writer.write(rows.getTime(row), rows.getCpuReq(row), 0, rows.getPriority(row), rows.getJobId(row));
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static Datacenter createDatacenter(String name, int hosts, int pes) throws Exception {
+		List<Pe> peList = new ArrayList<Pe>();
+		for (int peId = 0; peId < pes; peId++) {
+			peList.add(new Pe(peId, new PeProvisionerSimple(2000)));
+		}
+
+		List<Host> hostList = new ArrayList<Host>();
+		for (int hostId = 0; hostId < hosts; hostId++) {
+			hostList.add(new Host(hostId, new RamProvisionerSimple(1000000), new BwProvisionerSimple(10000),
+					1000000, peList, new VmSchedulerSpaceShared(peList)));
+		}
+
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics("x86", "Linux", "Xen",
+				hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		return new Datacenter(name, characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<Storage>(), 0);
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> options = new HashMap<String, String>();
+		for (String arg : args) {
+			int idx = arg.indexOf('=');
+			if (idx > 0) {
+				options.put(arg.substring(0, idx), arg.substring(idx + 1));
+			}
+		}
+		return options;
+	}
+
+	private static String option(Map<String, String> options, String key, String defaultValue) {
+		String value = options.get(key);
+		return value == null ? defaultValue : value;
+	}
+}
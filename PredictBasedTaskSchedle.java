@@ -16,8 +16,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletEventHistorySink;
 import org.cloudbus.cloudsim.CloudletSchedulerPridict;
+import org.cloudbus.cloudsim.CloudletMetricsCollector;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
@@ -25,8 +26,6 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
-import org.cloudbus.cloudsim.UtilizationModel;
-import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicySimple;
 import org.cloudbus.cloudsim.VmSchedulerSpaceShared;
@@ -34,13 +33,13 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.JdbcWorkload;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.sql.*;
 
 
 /**
@@ -53,9 +52,6 @@ public class PredictBasedTaskSchedle {
 	private static int peNormal=100000;
 	private static int memNormal=1000000;
 	private static int diskNormal=10000000;
-	/** The cloudlet list. */
-	private static List<Cloudlet> cloudletList;
-	
 	/** The vmlist. */
 	private static List<Vm> vmlist;
 
@@ -78,11 +74,19 @@ public class PredictBasedTaskSchedle {
 			// Second step: Create Datacenters
 			//Datacenters are the resource providers in CloudSim. We need at list one of them to run a CloudSim simulation
 			Datacenter datacenter = createDatacenter("Datacenter");
+			CloudletMetricsCollector metrics = new CloudletMetricsCollector();
+			datacenter.addCloudletLifecycleListener(metrics);
 			//Datacenter datacenter1 = createDatacenter("Datacenter_1");
 
 			//Third step: Create Broker
 			DatacenterBroker broker = createBroker();
 			int brokerId = broker.getId();
+			// the broker keeps no finished cloudlet: their events go to the file as they return.
+			// With the workload read one window at a time (below), the heap holds the cloudlets of
+			// the window and those running, not the whole trace.
+			broker.setRetentionMode(DatacenterBroker.RETAIN_NONE);
+			broker.setCloudletSink(new CloudletEventHistorySink(
+					"/Users/oupeng/Documents/workspace/data/taskEvent-a.csv"));
 
 			//Fourth step: Create one virtual machine
 			vmlist = new ArrayList<Vm>();
@@ -105,63 +109,12 @@ public class PredictBasedTaskSchedle {
 			broker.submitVmList(vmlist);
 			
 			//Fifth step: Create two Cloudlets
-			cloudletList = new ArrayList<Cloudlet>();
-			//Cloudlet properties
-			long fileSize = 100;
-			long outputSize = 100;
-			UtilizationModel utilizationModel = new UtilizationModelFull();
-			Cloudlet cloudlet;
-			try {
-				Class.forName("com.mysql.jdbc.Driver");// 加载驱动程序
-				Connection conn = DriverManager.getConnection("jdbc:mysql://127.0.0.1:3306/predict", "root","");// 连续数据库
-				Statement statement = conn.createStatement();// statement用来执行SQL语句
-				//String select_sql = "select * from workflow";
-				//一天的数据量
-				//String select_sql="select * from input<87400"; // 
-				String select_sql="select * from input where priority<2";//>80000 and time<174800"; // 
-				 
-				ResultSet result=null;
-				int cloudletID=0;
-				try {  
-		            statement = conn.prepareStatement(select_sql);  
-		            result = statement.executeQuery(select_sql);
-		            
-		            while(result.next()){
-		            	
-		            	//int cloudletID=Integer.parseInt(result.getString("taskNum"));
-		            	double cpu=Double.valueOf(result.getString("cpuReq"));
-		            	int cpuReq=(int)(cpu*peNormal );
-		            	double disk=Double.valueOf(result.getString("diskReq"));
-		            	String jobid=result.getString("jobID");		            	
-		            	
-		            	//int length=(int)(result.getDouble("setTime")*2000*300*10);
-		            	int length=(int)(cpuReq*100);
-		            	//int length=(int)(disk*diskNormal*500);
-		            	cloudlet = new Cloudlet(cloudletID, length, cpuReq, fileSize, outputSize, utilizationModel, utilizationModel, utilizationModel);
-		            	//Log.printLine(cloudletID);
-		            	
-		             	cloudlet.setUserId(brokerId);
-		            	cloudlet.setSubmitTime(Double.valueOf(result.getString("time")));
-		            	cloudlet.setClassType((int)(result.getShort("priority")));
-		            	cloudlet.setJobId(jobid);
-		            	cloudletList.add(cloudlet);
-		            	cloudletID++;
-		            	}
-				} catch (SQLException e) {  
-		            e.printStackTrace();  
-		        }				 
-		        conn.close();   
-			} catch(ClassNotFoundException e) {   
-			System.out.println("Sorry,can`t find the Driver!");   
-			e.printStackTrace();   
-			} catch(SQLException e) {   
-			e.printStackTrace();   
-			} catch(Exception e) {   
-			e.printStackTrace();   
-			}   
-			//submit cloudlet list to the broker
-			
-			broker.submitCloudletList(cloudletList);
+			//一天的数据量
+			//String select_sql="select * from input<87400"; // 
+			// the broker reads the rows one window ahead of the clock, so they must be ordered by time
+			String select_sql="select * from input where priority<2 order by time";//>80000 and time<174800"; // 
+			broker.setWorkload(new JdbcWorkload(select_sql, peNormal));
+			broker.setWorkloadWindow(3600);
 			
 			//bind the cloudlets to the vms. This way, the broker
 			// will submit the bound cloudlets only to the specific VM
@@ -175,7 +128,8 @@ public class PredictBasedTaskSchedle {
 			// Final step: Print results when simulation is over
 		
 			CloudSim.stopSimulation();
-			saveTaskevent(cloudletList);
+			metrics.finish();
+			metrics.printSummary();
 			saveVMUtilization(vmlist);
 				
         	Log.printLine("Predict schecule finished!");
@@ -292,32 +246,5 @@ public class PredictBasedTaskSchedle {
 				e.printStackTrace();
 				}
 	}
-	private static void saveTaskevent(List<Cloudlet> clist){
-	//	Map<Double, String> event=new HashMap<Double, String>();
-	
-		try
-		{
-			File csvRec = new File("/Users/oupeng/Documents/workspace/data/taskEvent-a.csv");
-			BufferedWriter bw = new BufferedWriter(new FileWriter(csvRec, true)); 
-		
-			for(Cloudlet cl:clist){
-				/*event=cl.getEventHistory();
-				for (Double key:event.keySet()){
-					bw.newLine();
-					bw.write(key+","+event.get(key));*/
-				for(String record:cl.getEventHistory() ){
-					bw.newLine();
-					bw.write(record);
-				}
-        }
-			bw.close(); 			
-		}catch (FileNotFoundException e) {
-			// 捕获File对象生成时的异常             
-			e.printStackTrace();
-			} catch (IOException e) {
-				// 捕获BufferedWriter对象关闭时的异常
-				e.printStackTrace();
-				}
-	}
 }
 
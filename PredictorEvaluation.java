@@ -0,0 +1,208 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+package simu;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.util.PredictorEvaluator;
+import org.cloudbus.cloudsim.util.PredictorEvaluator.Predictor;
+import org.cloudbus.cloudsim.util.PredictorEvaluator.Result;
+
+/**
+ * Evaluates the VM utilization predictors offline, on the utilization series recorded by a
+ * previous run of {@link PredictBasedTaskSchedle} (its <tt>vmHistory</tt> export of
+ * <tt>Vm.vm300</tt>) and the product usage series, instead of running a full simulation per
+ * parameter set. All VMs and parameter sets are evaluated in parallel.
+ * <p>
+ * Arguments are given as <tt>key=value</tt> pairs:
+ * <ul>
+ * <li><tt>vm300</tt> CSV file with <tt>slot,vmId,utilization</tt> rows (required)
+ * <li><tt>product</tt> CSV export of the <tt>product</tt> table with <tt>time,cpuUsage</tt> rows
+ * <li><tt>pes</tt> PEs per VM, default 100000
+ * <li><tt>arma</tt> ARMA coefficient pairs, e.g. <tt>0.667:0.318,0.6:0.35</tt>, default
+ * <tt>0.667:0.318</tt>
+ * <li><tt>ar2</tt> fixed AR(2) coefficient pairs <tt>Fi1:Fi2</tt>, default <tt>-0.509:-0.21</tt>
+ * <li><tt>ar2fit</tt> also evaluate the refitted AR(2) predictor, default true
+ * <li><tt>lookahead</tt> product usage look-aheads in seconds, default <tt>300,900,3600</tt>
+ * <li><tt>threads</tt> number of threads, default the number of processors
+ * </ul>
+ * Lines that cannot be parsed (e.g. a header) are skipped.
+ */
+public class PredictorEvaluation {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parseArguments(args);
+		String vm300 = options.get("vm300");
+		if (vm300 == null) {
+			Log.printLine("Usage: PredictorEvaluation vm300=<file> [product=<file>] [pes=100000] "
+					+ "[arma=c1:c2,...] [ar2=fi1:fi2,...] [ar2fit=true] [lookahead=300,...] [threads=n]");
+			System.exit(2);
+		}
+		int pes = Integer.parseInt(option(options, "pes", "100000"));
+		int threads = Integer.parseInt(option(options, "threads",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+		List<Predictor> predictors = new ArrayList<Predictor>();
+		for (double[] pair : parsePairs(option(options, "arma", "0.667:0.318"))) {
+			predictors.add(Predictor.arma(pair[0], pair[1]));
+		}
+		for (double[] pair : parsePairs(option(options, "ar2", "-0.509:-0.21"))) {
+			predictors.add(Predictor.ar2(pair[0], pair[1]));
+		}
+		if (Boolean.parseBoolean(option(options, "ar2fit", "true"))) {
+			predictors.add(Predictor.ar2Fit());
+		}
+		for (String lookAhead : option(options, "lookahead", "300,900,3600").split(",")) {
+			if (lookAhead.trim().length() > 0) {
+				predictors.add(Predictor.batch(Integer.parseInt(lookAhead.trim())));
+			}
+		}
+
+		long start = System.currentTimeMillis();
+		List<double[]> utilizations = readUtilizations(vm300);
+		String product = options.get("product");
+		double[] productUsage = product == null ? null : toSeries(readSeries(product, 0, 1), false);
+		PredictorEvaluator evaluator = new PredictorEvaluator(pes, productUsage);
+		Map<Predictor, Result> results = evaluator.evaluateAll(predictors, utilizations, threads);
+
+		Log.printLine("predictor\tforecasts\tMAE\tRMSE\tovercommitRate\tovercommitPes");
+		for (Map.Entry<Predictor, Result> entry : results.entrySet()) {
+			Result result = entry.getValue();
+			Log.formatLine("%s\t%d\t%.5f\t%.5f\t%.5f\t%.1f", entry.getKey(), result.getCount(),
+					result.getMeanAbsoluteError(), result.getRootMeanSquaredError(),
+					result.getOverCommitRate(), result.getMeanOverCommittedPes());
+		}
+		Log.formatLine("%d VMs, %d predictors in %.3f s", utilizations.size(), predictors.size(),
+				(System.currentTimeMillis() - start) / 1000.0);
+	}
+
+	/**
+	 * Reads the utilization series of the VMs, one per VM id in increasing order. Slots missing in
+	 * a series take the value of the previous slot, as Vm.addUtilization fills them.
+	 */
+	private static List<double[]> readUtilizations(String fileName) throws IOException {
+		Map<Integer, Map<Integer, Double>> byVm = new TreeMap<Integer, Map<Integer, Double>>();
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(",");
+				if (fields.length < 3) {
+					continue;
+				}
+				try {
+					int slot = Integer.parseInt(fields[0].trim());
+					int vmId = Integer.parseInt(fields[1].trim());
+					double utilization = Double.parseDouble(fields[2].trim());
+					Map<Integer, Double> series = byVm.get(vmId);
+					if (series == null) {
+						series = new HashMap<Integer, Double>();
+						byVm.put(vmId, series);
+					}
+					series.put(slot, utilization);
+				} catch (NumberFormatException e) {
+					// header or malformed line
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		List<double[]> utilizations = new ArrayList<double[]>(byVm.size());
+		for (Map<Integer, Double> series : byVm.values()) {
+			utilizations.add(toSeries(series, true));
+		}
+		return utilizations;
+	}
+
+	/**
+	 * Reads a two-column series of slot and value.
+	 */
+	private static Map<Integer, Double> readSeries(String fileName, int keyColumn, int valueColumn)
+			throws IOException {
+		Map<Integer, Double> series = new HashMap<Integer, Double>();
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(",");
+				if (fields.length <= Math.max(keyColumn, valueColumn)) {
+					continue;
+				}
+				try {
+					series.put(Integer.parseInt(fields[keyColumn].trim()),
+							Double.parseDouble(fields[valueColumn].trim()));
+				} catch (NumberFormatException e) {
+					// header or malformed line
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return series;
+	}
+
+	/**
+	 * Converts a series keyed by slot to an array indexed by slot, from slot 0 to the last slot.
+	 */
+	private static double[] toSeries(Map<Integer, Double> series, boolean carryForward) {
+		int last = -1;
+		for (Integer slot : series.keySet()) {
+			last = Math.max(last, slot);
+		}
+		double[] values = new double[last + 1];
+		double previous = 0;
+		for (int slot = 0; slot <= last; slot++) {
+			Double value = series.get(slot);
+			if (value != null) {
+				previous = value;
+				values[slot] = value;
+			} else if (carryForward) {
+				values[slot] = previous;
+			}
+		}
+		return values;
+	}
+
+	private static List<double[]> parsePairs(String value) {
+		List<double[]> pairs = new ArrayList<double[]>();
+		for (String pair : value.split(",")) {
+			String[] parts = pair.split(":");
+			if (parts.length == 2) {
+				pairs.add(new double[] { Double.parseDouble(parts[0].trim()),
+						Double.parseDouble(parts[1].trim()) });
+			}
+		}
+		return pairs;
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> options = new HashMap<String, String>();
+		for (String arg : args) {
+			int idx = arg.indexOf('=');
+			if (idx > 0) {
+				options.put(arg.substring(0, idx), arg.substring(idx + 1));
+			}
+		}
+		return options;
+	}
+
+	private static String option(Map<String, String> options, String key, String defaultValue) {
+		String value = options.get(key);
+		return value == null ? defaultValue : value;
+	}
+}
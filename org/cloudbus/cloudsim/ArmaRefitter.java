@@ -0,0 +1,266 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.cloudbus.cloudsim.util.ArmaFitter;
+
+/**
+ * ArmaRefitter periodically refits the ARMA coefficients of the VMs of a datacenter on their
+ * utilization history, see {@link Datacenter#setArmaRefitter(ArmaRefitter)}. The normal equations of
+ * the fit are kept per VM and each refit only adds the slots completed since the previous one, so
+ * a refit costs O(new slots) per VM and the 2x2 system is solved on the event thread without
+ * copying the history. The fit sees the history up to the slot before the one it is run in, since
+ * the current slot is still being recorded.
+ * <p>
+ * A model is only refitted once its equations hold {@link #getMinSamples()} samples and are not
+ * singular; until then the model in use is kept. The fitted models can be saved to a file and
+ * loaded by a later run, which then uses them instead of the defaults until it has seen enough
+ * history of its own.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class ArmaRefitter {
+
+	/** One model fitted per VM, keyed by VM id. */
+	public static final int PER_VM = 0;
+
+	/** One model fitted on the history of all the VMs, keyed by {@link #POOLED_KEY}. */
+	public static final int POOLED = 1;
+
+	/** The key of the pooled model. */
+	public static final int POOLED_KEY = -1;
+
+	/** The default number of samples a model is refitted from, a day of slots. */
+	public static final int DEFAULT_MIN_SAMPLES = 288;
+
+	/** The time between two refits, in seconds. */
+	private final double period;
+
+	/** {@link #PER_VM} or {@link #POOLED}. */
+	private final int mode;
+
+	/** The number of samples a model is refitted from. */
+	private int minSamples = DEFAULT_MIN_SAMPLES;
+
+	/** The time of the next refit. */
+	private double nextRefitTime;
+
+	/** The history added to the fit so far, by VM id. */
+	private final Map<Integer, FitState> states = new HashMap<Integer, FitState>();
+
+	/** The models to apply at the next update, e.g. loaded from a file. */
+	private Map<Integer, double[]> modelsToApply;
+
+	/** The models in use. */
+	private final Map<Integer, double[]> models = new TreeMap<Integer, double[]>();
+
+	/**
+	 * Creates a refitter.
+	 *
+	 * @param period the time between two refits, in seconds
+	 * @param mode {@link #PER_VM} or {@link #POOLED}
+	 */
+	public ArmaRefitter(double period, int mode) {
+		this.period = period;
+		this.mode = mode;
+		nextRefitTime = period;
+	}
+
+	/**
+	 * Applies the models due and, at refit times, refits them. Called by the datacenter before it
+	 * uses the predictions.
+	 *
+	 * @param time the current simulation time
+	 * @param vmList the VMs
+	 */
+	public void update(double time, List<? extends Vm> vmList) {
+		if (modelsToApply != null) {
+			apply(modelsToApply, vmList);
+			modelsToApply = null;
+		}
+		if (time < nextRefitTime) {
+			return;
+		}
+		while (nextRefitTime <= time) {
+			nextRefitTime += period;
+		}
+		apply(fit((int) (time / Vm.SLOT), vmList), vmList);
+	}
+
+	/**
+	 * Adds the slots completed since the last refit to the normal equations of the VMs and solves
+	 * those that hold enough samples.
+	 *
+	 * @param slots the number of completed slots
+	 * @param vmList the VMs
+	 * @return the models refitted, by VM id or by {@link #POOLED_KEY}
+	 */
+	private Map<Integer, double[]> fit(int slots, List<? extends Vm> vmList) {
+		Map<Integer, double[]> fitted = new TreeMap<Integer, double[]>();
+		ArmaFitter.NormalEquations pooled = new ArmaFitter.NormalEquations();
+		for (Vm vm : vmList) {
+			FitState state = states.get(vm.getId());
+			if (state == null) {
+				state = new FitState();
+				states.put(vm.getId(), state);
+			}
+			state.addSlots(vm.getUtilizationHistory(), slots);
+			if (mode == POOLED) {
+				pooled.add(state.equations);
+			} else if (isFittable(state.equations)) {
+				fitted.put(vm.getId(), state.equations.solve());
+			}
+		}
+		if (mode == POOLED && isFittable(pooled)) {
+			fitted.put(POOLED_KEY, pooled.solve());
+		}
+		return fitted;
+	}
+
+	/**
+	 * Tells whether equations hold enough samples to replace the model in use.
+	 *
+	 * @param equations the equations
+	 * @return <tt>true</tt> if they can be solved from at least {@link #getMinSamples()} samples
+	 */
+	private boolean isFittable(ArmaFitter.NormalEquations equations) {
+		return equations.getSamples() >= minSamples && equations.isSolvable();
+	}
+
+	/**
+	 * Sets the coefficients of the VMs that have a model.
+	 *
+	 * @param fitted the models
+	 * @param vmList the VMs
+	 */
+	private void apply(Map<Integer, double[]> fitted, List<? extends Vm> vmList) {
+		models.putAll(fitted);
+		for (Vm vm : vmList) {
+			double[] model = models.get(mode == POOLED ? POOLED_KEY : vm.getId());
+			if (model != null) {
+				vm.setArmaCoefficients(model[0], model[1]);
+			}
+		}
+	}
+
+	/**
+	 * Loads models saved by a previous run, to be applied at the next update. Nothing is loaded if
+	 * the file does not exist.
+	 *
+	 * @param fileName the file name
+	 * @throws IOException if the file cannot be read
+	 */
+	public void loadCache(String fileName) throws IOException {
+		if (new File(fileName).exists()) {
+			modelsToApply = ArmaFitter.load(fileName);
+		}
+	}
+
+	/**
+	 * Saves the models in use.
+	 *
+	 * @param fileName the file name
+	 * @throws IOException if the file cannot be written
+	 */
+	public void saveCache(String fileName) throws IOException {
+		ArmaFitter.save(getModels(), fileName);
+	}
+
+	/**
+	 * Gets the models in use.
+	 *
+	 * @return the coefficients <tt>{c1, c2}</tt> by VM id, or by {@link #POOLED_KEY}
+	 */
+	public Map<Integer, double[]> getModels() {
+		return new TreeMap<Integer, double[]>(models);
+	}
+
+	/**
+	 * Gets the time between two refits.
+	 *
+	 * @return the period, in seconds
+	 */
+	public double getPeriod() {
+		return period;
+	}
+
+	/**
+	 * Sets the number of samples, i.e. slots, a model is refitted from. Before that, a VM keeps the
+	 * model loaded by {@link #loadCache(String)}, or the defaults.
+	 *
+	 * @param minSamples the number of samples, at least 1
+	 */
+	public void setMinSamples(int minSamples) {
+		this.minSamples = Math.max(1, minSamples);
+	}
+
+	/**
+	 * Gets the number of samples a model is refitted from.
+	 *
+	 * @return the number of samples
+	 */
+	public int getMinSamples() {
+		return minSamples;
+	}
+
+	/**
+	 * Gets the fitting mode.
+	 *
+	 * @return {@link #PER_VM} or {@link #POOLED}
+	 */
+	public int getMode() {
+		return mode;
+	}
+
+	/**
+	 * The normal equations of the fit of a VM and the slots already added to them.
+	 */
+	private static class FitState {
+
+		/** The normal equations of the samples added so far. */
+		private final ArmaFitter.NormalEquations equations = new ArmaFitter.NormalEquations();
+
+		/** The number of slots added so far. */
+		private int slots;
+
+		/** The utilization of the last slot added. */
+		private double last;
+
+		/** The utilization of the slot before the last one added. */
+		private double beforeLast;
+
+		/**
+		 * Adds the slots of the history up to a slot. A slot with no utilization recorded keeps the
+		 * utilization of the slot before.
+		 *
+		 * @param history the utilization by slot
+		 * @param toSlot the slot after the last one to add
+		 */
+		private void addSlots(Map<Integer, Double> history, int toSlot) {
+			for (; slots < toSlot; slots++) {
+				Double value = history.get(slots);
+				double y = value == null ? last : value;
+				if (slots >= 2) {
+					equations.add(last, beforeLast, y);
+				}
+				beforeLast = last;
+				last = y;
+			}
+		}
+
+	}
+
+}
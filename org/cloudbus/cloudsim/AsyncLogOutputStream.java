@@ -0,0 +1,226 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An output stream that buffers the written bytes and hands full buffers to a background thread,
+ * which writes them to the underlying stream. It is meant to be set as the {@link Log} output so
+ * that the simulation thread does not block on console or file I/O:
+ *
+ * <pre>
+ * Log.setOutput(new AsyncLogOutputStream(new FileOutputStream(&quot;sim.log&quot;)));
+ * ...
+ * Log.getOutput().close();
+ * </pre>
+ *
+ * If the background thread falls behind by more than the queue capacity, writers block until a
+ * buffer has been written. {@link #flush()} hands the pending bytes to the background thread
+ * without waiting for them to be written; {@link #close()} waits until everything has been written
+ * and then closes the underlying stream.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class AsyncLogOutputStream extends OutputStream {
+
+	/** The default size of a buffer, in bytes. */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/** The default number of buffers waiting to be written. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+	/** The marker asking the writer thread to flush the underlying stream. */
+	private static final byte[] FLUSH = new byte[0];
+
+	/** The marker asking the writer thread to stop. */
+	private static final byte[] CLOSE = new byte[0];
+
+	/** The underlying stream. */
+	private final OutputStream out;
+
+	/** The buffers waiting to be written. */
+	private final BlockingQueue<byte[]> queue;
+
+	/** The size of a buffer. */
+	private final int bufferSize;
+
+	/** The buffer being filled. */
+	private byte[] buffer;
+
+	/** The number of bytes in the buffer being filled. */
+	private int count;
+
+	/** The writer thread. */
+	private final Thread writer;
+
+	/** The closed flag. */
+	private boolean closed;
+
+	/**
+	 * Creates a new asynchronous stream with the default buffer size and queue capacity.
+	 *
+	 * @param out the underlying stream
+	 */
+	public AsyncLogOutputStream(OutputStream out) {
+		this(out, DEFAULT_BUFFER_SIZE, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a new asynchronous stream.
+	 *
+	 * @param out the underlying stream
+	 * @param bufferSize the size of a buffer, in bytes
+	 * @param queueCapacity the number of buffers that can wait to be written
+	 */
+	public AsyncLogOutputStream(OutputStream out, int bufferSize, int queueCapacity) {
+		if (bufferSize <= 0 || queueCapacity <= 0) {
+			throw new IllegalArgumentException("Buffer size and queue capacity must be positive");
+		}
+		this.out = out;
+		this.bufferSize = bufferSize;
+		queue = new ArrayBlockingQueue<byte[]>(queueCapacity);
+		buffer = new byte[bufferSize];
+		writer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "AsyncLogOutputStream");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public synchronized void write(int b) throws IOException {
+		ensureOpen();
+		if (count == bufferSize) {
+			handOff();
+		}
+		buffer[count++] = (byte) b;
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			if (count == bufferSize) {
+				handOff();
+			}
+			int n = Math.min(len, bufferSize - count);
+			System.arraycopy(b, off, buffer, count, n);
+			count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		ensureOpen();
+		handOff();
+		put(FLUSH);
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			handOff();
+			put(CLOSE);
+			closed = true;
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		out.close();
+	}
+
+	/**
+	 * Hands the buffer being filled to the writer thread.
+	 *
+	 * @throws IOException if interrupted while waiting for queue space
+	 */
+	private void handOff() throws IOException {
+		if (count == 0) {
+			return;
+		}
+		byte[] full = buffer;
+		if (count < bufferSize) {
+			byte[] part = new byte[count];
+			System.arraycopy(full, 0, part, 0, count);
+			full = part;
+		} else {
+			buffer = new byte[bufferSize];
+		}
+		count = 0;
+		put(full);
+	}
+
+	/**
+	 * Puts a buffer or a marker in the queue, waiting for space if needed.
+	 *
+	 * @param bytes the buffer or marker
+	 * @throws IOException if interrupted while waiting
+	 */
+	private void put(byte[] bytes) throws IOException {
+		try {
+			queue.put(bytes);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while queueing log output");
+		}
+	}
+
+	/**
+	 * Checks that the stream has not been closed.
+	 *
+	 * @throws IOException if the stream is closed
+	 */
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	/**
+	 * Writes the queued buffers to the underlying stream until the close marker is taken.
+	 */
+	private void drain() {
+		while (true) {
+			byte[] bytes;
+			try {
+				bytes = queue.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			try {
+				if (bytes == CLOSE) {
+					out.flush();
+					return;
+				} else if (bytes == FLUSH) {
+					out.flush();
+				} else {
+					out.write(bytes);
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+}
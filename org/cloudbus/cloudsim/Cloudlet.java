@@ -163,6 +163,12 @@ public class Cloudlet {
 	/** The required files. */
 	private List<String> requiredFiles = null;   // list of required filenames
 
+	/** The time to transfer the required files, as last predicted by a datacenter. */
+	private double predictedTransferTime;
+
+	/** The key of the datacenter catalog the prediction was made from, or -1 if there is none. */
+	private long predictedTransferKey = -1;
+
 	/**
 	 * Allocates a new Cloudlet object. The Cloudlet length, input and output file sizes should be
 	 * greater than or equal to 1. By default this constructor sets the history of this object.
@@ -1328,6 +1334,7 @@ public class Cloudlet {
 	 */
 	protected void setRequiredFiles(final List<String> requiredFiles) {
 		this.requiredFiles = requiredFiles;
+		predictedTransferKey = -1;
 	}
 
 	/**
@@ -1354,6 +1361,7 @@ public class Cloudlet {
 
 		if (!result) {
 			getRequiredFiles().add(fileName);
+			predictedTransferKey = -1;
 		}
 
 		return result;
@@ -1376,6 +1384,7 @@ public class Cloudlet {
 
 			if (temp.equals(filename)) {
 				getRequiredFiles().remove(i);
+				predictedTransferKey = -1;
 				result = true;
 
 				break;
@@ -1385,6 +1394,28 @@ public class Cloudlet {
 		return result;
 	}
 
+	/**
+	 * Gets the time to transfer the required files, as predicted from a file catalog. The
+	 * prediction is dropped when the required files are changed through this class.
+	 * 
+	 * @param key the key of the catalog, identifying the datacenter and the version of its catalog
+	 * @return the predicted time, or -1 if it was not predicted from that catalog
+	 */
+	public double getPredictedTransferTime(final long key) {
+		return key == predictedTransferKey ? predictedTransferTime : -1;
+	}
+
+	/**
+	 * Sets the time to transfer the required files, as predicted from a file catalog.
+	 * 
+	 * @param key the key of the catalog, identifying the datacenter and the version of its catalog
+	 * @param time the predicted time
+	 */
+	public void setPredictedTransferTime(final long key, final double time) {
+		predictedTransferKey = key;
+		predictedTransferTime = time;
+	}
+
 	/**
 	 * Checks whether this cloudlet requires any files or not.
 	 * 
@@ -0,0 +1,59 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * A cloudlet sink that appends the event history of each returned cloudlet to a CSV file, in the
+ * same <tt>time,cloudletId,vmId,classType,status</tt> format as {@link Cloudlet#saveEventHistory()}.
+ * The file is opened once and kept open until the broker shuts down. The history is left on the
+ * cloudlet; a broker in {@link DatacenterBroker#RETAIN_NONE} mode clears it once written.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class CloudletEventHistorySink implements CloudletSink {
+
+	/** The writer. */
+	private final BufferedWriter writer;
+
+	/**
+	 * Creates a new sink appending to the given file.
+	 *
+	 * @param fileName the file name
+	 * @throws IOException if the file cannot be opened
+	 */
+	public CloudletEventHistorySink(String fileName) throws IOException {
+		writer = new BufferedWriter(new FileWriter(fileName, true));
+	}
+
+	@Override
+	public void cloudletReceived(Cloudlet cloudlet) {
+		try {
+			for (String record : cloudlet.getEventHistory()) {
+				writer.newLine();
+				writer.write(record);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			writer.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * A listener of the cloudlet lifecycle in a {@link Datacenter}. It is notified at the same points
+ * where the datacenter records the cloudlet event history, so that results can be aggregated while
+ * the simulation runs instead of being reconstructed from the histories afterwards.
+ *
+ * @since CloudSim Toolkit 3.0
+ * @see Datacenter#addCloudletLifecycleListener(CloudletLifecycleListener)
+ */
+public interface CloudletLifecycleListener {
+
+	/** The cloudlet has been submitted (or resubmitted) to the datacenter. */
+	int SUBMIT = 0;
+
+	/** The cloudlet has been scheduled on a VM. */
+	int SCHEDULE = 1;
+
+	/** The cloudlet has been evicted to make room for a higher-priority cloudlet. */
+	int EVICT = 2;
+
+	/** The cloudlet has been killed because its VM got overloaded. */
+	int KILL = 3;
+
+	/** The cloudlet has finished. */
+	int FINISH = 4;
+
+	/**
+	 * Called on a cloudlet lifecycle event.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @param time the simulation time of the event
+	 * @param event one of {@link #SUBMIT}, {@link #SCHEDULE}, {@link #EVICT}, {@link #KILL} or
+	 *            {@link #FINISH}
+	 */
+	void cloudletEvent(Cloudlet cloudlet, double time, int event);
+
+	/**
+	 * Called each time the datacenter has updated the utilization of its VMs.
+	 *
+	 * @param time the simulation time
+	 * @param usedPes the number of PEs used by cloudlets and the predicted production load
+	 * @param totalPes the number of PEs of all VMs
+	 */
+	void utilizationUpdated(double time, long usedPes, long totalPes);
+
+}
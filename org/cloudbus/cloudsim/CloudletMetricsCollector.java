@@ -0,0 +1,349 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.cloudbus.cloudsim.util.LogHistogram;
+
+/**
+ * Aggregates SLA and latency metrics per priority class while the simulation runs. For each
+ * cloudlet class type it keeps fixed-memory histograms of the wait time (submission to first
+ * schedule), the turnaround time (submission to finish) and the number of evictions and kills a
+ * cloudlet suffered. It also averages the cluster utilization over slots of {@link Vm#SLOT}
+ * seconds and keeps a histogram of the slot averages. Only the cloudlets that have not finished
+ * yet are tracked individually; nothing is retained once a cloudlet finishes.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class CloudletMetricsCollector implements CloudletLifecycleListener {
+
+	/** The number of histogram units per simulated second. */
+	private static final double UNITS_PER_SECOND = 1000.0;
+
+	/** The metrics per class type. */
+	private final Map<Integer, ClassMetrics> classMetrics;
+
+	/**
+	 * The state of the unfinished cloudlets by id: whether the cloudlet has been scheduled and how
+	 * many times it has been evicted or killed.
+	 */
+	private final Map<Integer, int[]> inFlight;
+
+	/** The length of a utilization slot, in seconds. */
+	private final double slotLength;
+
+	/** The histogram of the per-slot utilization, in permille. */
+	private final LogHistogram slotUtilization;
+
+	/** The slot being accumulated. */
+	private int currentSlot = -1;
+
+	/** The utilization integral over the covered part of the current slot. */
+	private double slotIntegral;
+
+	/** The covered part of the current slot, in seconds. */
+	private double slotCovered;
+
+	/** The time of the last utilization update. */
+	private double lastUpdateTime = -1;
+
+	/** The utilization reported by the last update. */
+	private double lastUtilization;
+
+	/** The highest per-slot utilization. */
+	private double peakSlotUtilization;
+
+	/**
+	 * Creates a new collector with slots of {@link Vm#SLOT} seconds.
+	 */
+	public CloudletMetricsCollector() {
+		this(Vm.SLOT);
+	}
+
+	/**
+	 * Creates a new collector.
+	 *
+	 * @param slotLength the length of a utilization slot, in seconds
+	 */
+	public CloudletMetricsCollector(double slotLength) {
+		this.slotLength = slotLength;
+		classMetrics = new TreeMap<Integer, ClassMetrics>();
+		inFlight = new HashMap<Integer, int[]>();
+		slotUtilization = new LogHistogram();
+	}
+
+	@Override
+	public void cloudletEvent(Cloudlet cloudlet, double time, int event) {
+		ClassMetrics metrics = getClassMetrics(cloudlet.getClassType());
+		int[] state = inFlight.get(cloudlet.getCloudletId());
+		if (state == null) {
+			state = new int[2];
+			inFlight.put(cloudlet.getCloudletId(), state);
+		}
+		switch (event) {
+			case SUBMIT:
+				if (state[0] == 0 && state[1] == 0) {
+					metrics.submitted++;
+				}
+				break;
+			case SCHEDULE:
+				if (state[0] == 0) {
+					state[0] = 1;
+					metrics.wait.recordValue(toUnits(time - cloudlet.getSubmitTime()));
+				}
+				break;
+			case EVICT:
+				metrics.evicted++;
+				state[1]++;
+				break;
+			case KILL:
+				metrics.killed++;
+				state[1]++;
+				break;
+			case FINISH:
+				metrics.turnaround.recordValue(toUnits(time - cloudlet.getSubmitTime()));
+				metrics.evictions.recordValue(state[1]);
+				inFlight.remove(cloudlet.getCloudletId());
+				break;
+			default:
+				break;
+		}
+	}
+
+	@Override
+	public void utilizationUpdated(double time, long usedPes, long totalPes) {
+		if (totalPes <= 0) {
+			return;
+		}
+		if (lastUpdateTime >= 0) {
+			double t = lastUpdateTime;
+			while (t < time) {
+				int slot = (int) (t / slotLength);
+				double end = Math.min(time, (slot + 1) * slotLength);
+				if (slot != currentSlot) {
+					closeSlot();
+					currentSlot = slot;
+				}
+				slotIntegral += lastUtilization * (end - t);
+				slotCovered += end - t;
+				t = end;
+			}
+		}
+		lastUpdateTime = time;
+		lastUtilization = Math.min(1.0, Math.max(0.0, (double) usedPes / totalPes));
+	}
+
+	/**
+	 * Records the average utilization of the current slot and starts a new one.
+	 */
+	private void closeSlot() {
+		if (slotCovered > 0) {
+			double utilization = slotIntegral / slotCovered;
+			slotUtilization.recordValue(Math.round(utilization * 1000));
+			if (utilization > peakSlotUtilization) {
+				peakSlotUtilization = utilization;
+			}
+		}
+		slotIntegral = 0;
+		slotCovered = 0;
+	}
+
+	/**
+	 * Gets the metrics of a class type, creating them if needed.
+	 *
+	 * @param classType the class type
+	 * @return the metrics
+	 */
+	private ClassMetrics getClassMetrics(int classType) {
+		ClassMetrics metrics = classMetrics.get(classType);
+		if (metrics == null) {
+			metrics = new ClassMetrics();
+			classMetrics.put(classType, metrics);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Converts a duration to histogram units.
+	 *
+	 * @param seconds the duration in seconds
+	 * @return the duration in units
+	 */
+	private static long toUnits(double seconds) {
+		return Math.round(seconds * UNITS_PER_SECOND);
+	}
+
+	/**
+	 * Gets the wait time histogram of a class type, in milliseconds.
+	 *
+	 * @param classType the class type
+	 * @return the histogram
+	 */
+	public LogHistogram getWaitTime(int classType) {
+		return getClassMetrics(classType).wait;
+	}
+
+	/**
+	 * Gets the turnaround time histogram of a class type, in milliseconds.
+	 *
+	 * @param classType the class type
+	 * @return the histogram
+	 */
+	public LogHistogram getTurnaroundTime(int classType) {
+		return getClassMetrics(classType).turnaround;
+	}
+
+	/**
+	 * Gets the histogram of evictions and kills per finished cloudlet of a class type.
+	 *
+	 * @param classType the class type
+	 * @return the histogram
+	 */
+	public LogHistogram getEvictions(int classType) {
+		return getClassMetrics(classType).evictions;
+	}
+
+	/**
+	 * Gets the histogram of the per-slot cluster utilization, in permille.
+	 *
+	 * @return the histogram
+	 */
+	public LogHistogram getSlotUtilization() {
+		return slotUtilization;
+	}
+
+	/**
+	 * Gets the number of cloudlets submitted but not finished yet.
+	 *
+	 * @return the number of unfinished cloudlets
+	 */
+	public int getUnfinishedCount() {
+		return inFlight.size();
+	}
+
+	/**
+	 * Closes the current utilization slot. It should be called once the simulation is over.
+	 */
+	public void finish() {
+		closeSlot();
+		currentSlot = -1;
+	}
+
+	/**
+	 * Gets a compact summary of the collected metrics, with times in seconds.
+	 *
+	 * @return the summary
+	 */
+	public String getSummary() {
+		String newLine = System.getProperty("line.separator");
+		StringBuilder sb = new StringBuilder();
+		sb.append("class\tsubmitted\tfinished\tevicted\tkilled\twait(mean/p50/p99/max)"
+				+ "\tturnaround(mean/p50/p99/max)\tevictions(mean/max)").append(newLine);
+		for (Map.Entry<Integer, ClassMetrics> entry : classMetrics.entrySet()) {
+			ClassMetrics metrics = entry.getValue();
+			sb.append(entry.getKey()).append('\t');
+			sb.append(metrics.submitted).append('\t');
+			sb.append(metrics.turnaround.getTotalCount()).append('\t');
+			sb.append(metrics.evicted).append('\t');
+			sb.append(metrics.killed).append('\t');
+			appendTimes(sb, metrics.wait);
+			sb.append('\t');
+			appendTimes(sb, metrics.turnaround);
+			sb.append('\t');
+			sb.append(String.format("%.3f/%d", metrics.evictions.getMean(), metrics.evictions.getMax()));
+			sb.append(newLine);
+		}
+		sb.append(String.format(
+				"utilization per %.0fs slot: slots=%d mean=%.3f p50=%.3f p99=%.3f peak=%.3f",
+				slotLength,
+				slotUtilization.getTotalCount(),
+				slotUtilization.getMean() / 1000,
+				slotUtilization.getValueAtPercentile(50) / 1000.0,
+				slotUtilization.getValueAtPercentile(99) / 1000.0,
+				peakSlotUtilization));
+		sb.append(newLine).append("unfinished=").append(inFlight.size());
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the headline metrics by name, e.g. to compare a run on a sample of a trace with a run on
+	 * the whole trace: the number of submitted and finished cloudlets, the mean and 99th percentile
+	 * of the wait time in seconds and the mean number of evictions per class type (with the class
+	 * type as suffix, e.g. <tt>wait.mean.0</tt>), and the mean and 99th percentile of the slot
+	 * utilization.
+	 *
+	 * @return the metrics
+	 */
+	public Map<String, Double> getHeadlineMetrics() {
+		Map<String, Double> headline = new TreeMap<String, Double>();
+		for (Map.Entry<Integer, ClassMetrics> entry : classMetrics.entrySet()) {
+			ClassMetrics metrics = entry.getValue();
+			String suffix = "." + entry.getKey();
+			headline.put("submitted" + suffix, (double) metrics.submitted);
+			headline.put("finished" + suffix, (double) metrics.turnaround.getTotalCount());
+			headline.put("wait.mean" + suffix, metrics.wait.getMean() / UNITS_PER_SECOND);
+			headline.put("wait.p99" + suffix, metrics.wait.getValueAtPercentile(99) / UNITS_PER_SECOND);
+			headline.put("evictions.mean" + suffix, metrics.evictions.getMean());
+		}
+		headline.put("utilization.mean", slotUtilization.getMean() / 1000);
+		headline.put("utilization.p99", slotUtilization.getValueAtPercentile(99) / 1000.0);
+		return headline;
+	}
+
+	/**
+	 * Appends the mean, median, 99th percentile and maximum of a time histogram, in seconds.
+	 *
+	 * @param sb the builder
+	 * @param histogram the histogram
+	 */
+	private static void appendTimes(StringBuilder sb, LogHistogram histogram) {
+		sb.append(String.format(
+				"%.3f/%.3f/%.3f/%.3f",
+				histogram.getMean() / UNITS_PER_SECOND,
+				histogram.getValueAtPercentile(50) / UNITS_PER_SECOND,
+				histogram.getValueAtPercentile(99) / UNITS_PER_SECOND,
+				histogram.getMax() / UNITS_PER_SECOND));
+	}
+
+	/**
+	 * Prints the summary to the log.
+	 */
+	public void printSummary() {
+		Log.printLine(getSummary());
+	}
+
+	/**
+	 * The metrics of a class type.
+	 */
+	private static class ClassMetrics {
+
+		/** The wait time histogram. */
+		private final LogHistogram wait = new LogHistogram();
+
+		/** The turnaround time histogram. */
+		private final LogHistogram turnaround = new LogHistogram();
+
+		/** The histogram of evictions and kills per finished cloudlet. */
+		private final LogHistogram evictions = new LogHistogram();
+
+		/** The number of submitted cloudlets. */
+		private long submitted;
+
+		/** The number of evictions. */
+		private long evicted;
+
+		/** The number of kills. */
+		private long killed;
+
+	}
+
+}
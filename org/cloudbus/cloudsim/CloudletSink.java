@@ -0,0 +1,35 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * A sink receiving the cloudlets returned to a {@link DatacenterBroker}. When the broker does not
+ * retain finished cloudlets, the sink is the last component that sees them, so it should extract
+ * whatever it needs (metrics, event history) and not keep a reference to the cloudlet. A sink
+ * should not modify the cloudlet, which the broker may still retain.
+ *
+ * @since CloudSim Toolkit 3.0
+ * @see DatacenterBroker#setRetentionMode(int)
+ */
+public interface CloudletSink {
+
+	/**
+	 * Called when a finished cloudlet has been returned to the broker.
+	 *
+	 * @param cloudlet the cloudlet
+	 */
+	void cloudletReceived(Cloudlet cloudlet);
+
+	/**
+	 * Called when the broker shuts down. Pending output should be flushed here. It may be called
+	 * more than once.
+	 */
+	void close();
+
+}
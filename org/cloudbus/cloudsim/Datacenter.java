@@ -7,6 +7,8 @@ package org.cloudbus.cloudsim;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -33,6 +35,15 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class Datacenter extends SimEntity {
 
+	/** Cloudlets of a submitted list are scheduled one by one, as if submitted separately. */
+	public static final int PLACEMENT_ONLINE = 0;
+
+	/** Cloudlets of a submitted list are packed on the first VM that fits, largest first. */
+	public static final int PLACEMENT_FIRST_FIT_DECREASING = 1;
+
+	/** Cloudlets of a submitted list are packed on the tightest VM that fits, largest first. */
+	public static final int PLACEMENT_BEST_FIT_DECREASING = 2;
+
 	/** The characteristics. */
 	private DatacenterCharacteristics characteristics;
 
@@ -51,6 +62,18 @@ public class Datacenter extends SimEntity {
 	/** The storage list. */
 	private List<Storage> storageList;
 
+	/**
+	 * The storage holding each file, by file name: the first storage of the list holding it. It is
+	 * built when first needed, and built again once a storage has been changed directly.
+	 */
+	private Map<String, Storage> fileCatalog;
+
+	/** The version of the file catalog, incremented on each change. */
+	private int catalogVersion;
+
+	/** The total modification count of the storages, as of the last change of the catalog. */
+	private long storageModifications;
+
 	/** The vm list. */
 	private List<? extends Vm> vmList;
 
@@ -59,6 +82,18 @@ public class Datacenter extends SimEntity {
 	
 	/** The scheduling interval. */
 	private double schedulingInterval;
+
+	/** The VMs created in this datacenter, for lookups by id and user id. */
+	private final VmTable<Vm> vmTable = new VmTable<Vm>();
+
+	/** The cloudlet lifecycle listeners. */
+	private final List<CloudletLifecycleListener> cloudletLifecycleListeners = new ArrayList<CloudletLifecycleListener>();
+
+	/** The placement of the cloudlets of a submitted list. */
+	private int batchPlacement = PLACEMENT_ONLINE;
+
+	/** The refitter of the ARMA coefficients of the VMs, if any. */
+	private ArmaRefitter armaRefitter;
 	
 	/**
 	 * Allocates a new PowerDatacenter object.
@@ -166,6 +201,11 @@ public class Datacenter extends SimEntity {
 				processCloudletSubmit(ev, true);
 				break;
 
+			// New Cloudlets arrive together
+			case CloudSimTags.CLOUDLET_LIST_SUBMIT:
+				processCloudletListSubmit(ev);
+				break;
+
 			// Cancels a previously submitted Cloudlet
 			case CloudSimTags.CLOUDLET_CANCEL:
 				processCloudlet(ev, CloudSimTags.CLOUDLET_CANCEL);
@@ -221,6 +261,14 @@ public class Datacenter extends SimEntity {
 				processVmCreate(ev, true);
 				break;
 
+			case CloudSimTags.VM_LIST_CREATE:
+				processVmListCreate(ev, false);
+				break;
+
+			case CloudSimTags.VM_LIST_CREATE_ACK:
+				processVmListCreate(ev, true);
+				break;
+
 			case CloudSimTags.VM_DESTROY:
 				processVmDestroy(ev, false);
 				break;
@@ -389,7 +437,7 @@ public class Datacenter extends SimEntity {
 			userId = data[1];
 			vmId = data[2];
 
-			status = getVmAllocationPolicy().getHost(vmId, userId).getVm(userId, vmId).getCloudletScheduler()
+			status = getVm(vmId, userId).getCloudletScheduler()
 					.getCloudletStatus(cloudletId);
 		}
 
@@ -400,7 +448,7 @@ public class Datacenter extends SimEntity {
 				cloudletId = cl.getCloudletId();
 				userId = cl.getUserId();
 
-				status = getVmAllocationPolicy().getHost(vmId, userId).getVm(userId, vmId)
+				status = getVm(vmId, userId)
 						.getCloudletScheduler().getCloudletStatus(cloudletId);
 			} catch (Exception e) {
 				Log.printLine(getName() + ": Error in processing CloudSimTags.CLOUDLET_STATUS");
@@ -464,25 +512,70 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (result) {
-			double amount = 0.0;
-			if (getDebts().containsKey(vm.getUserId())) {
-				amount = getDebts().get(vm.getUserId());
+			vmCreated(vm);
+		}
+
+	}
+
+	/**
+	 * Process the event for an User/Broker who wants to create a list of VMs in this
+	 * PowerDatacenter. The hosts are allocated for the whole list at once and, upon request, a single
+	 * status event is sent back for the list: an <tt>int[]</tt> holding the id of this datacenter
+	 * followed by a (vm id, {@link CloudSimTags#TRUE} or {@link CloudSimTags#FALSE}) pair per VM.
+	 * 
+	 * @param ev a Sim_event object whose data is the list of VMs
+	 * @param ack the ack
+	 * @pre ev != null
+	 * @post $none
+	 */
+	@SuppressWarnings("unchecked")
+	protected void processVmListCreate(SimEvent ev, boolean ack) {
+		List<Vm> vmList = (List<Vm>) ev.getData();
+
+		getVmAllocationPolicy().allocateHostsForVms(vmList);
+
+		int[] data = new int[1 + 2 * vmList.size()];
+		data[0] = getId();
+		int i = 1;
+		for (Vm vm : vmList) {
+			boolean result = getVmAllocationPolicy().getHost(vm) != null;
+			data[i++] = vm.getId();
+			data[i++] = result ? CloudSimTags.TRUE : CloudSimTags.FALSE;
+			if (result) {
+				vmCreated(vm);
 			}
-			amount += getCharacteristics().getCostPerMem() * vm.getRam();
-			amount += getCharacteristics().getCostPerStorage() * vm.getSize();
+		}
 
-			getDebts().put(vm.getUserId(), amount);
+		if (ack) {
+			send(ev.getSource(), 0.1, CloudSimTags.VM_LIST_CREATE_ACK, data);
+		}
+	}
 
-			getVmList().add(vm);
+	/**
+	 * Charges the user of a VM that has just been allocated a host and registers the VM in this
+	 * datacenter.
+	 * 
+	 * @param vm the vm
+	 */
+	protected void vmCreated(Vm vm) {
+		double amount = 0.0;
+		if (getDebts().containsKey(vm.getUserId())) {
+			amount = getDebts().get(vm.getUserId());
+		}
+		amount += getCharacteristics().getCostPerMem() * vm.getRam();
+		amount += getCharacteristics().getCostPerStorage() * vm.getSize();
 
-			if (vm.isBeingInstantiated()) {
-				vm.setBeingInstantiated(false);
-			}
+		getDebts().put(vm.getUserId(), amount);
 
-			vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
-					.getAllocatedMipsForVm(vm));
+		getVmList().add(vm);
+		vmTable.put(vm, vm);
+
+		if (vm.isBeingInstantiated()) {
+			vm.setBeingInstantiated(false);
 		}
 
+		vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
+				.getAllocatedMipsForVm(vm));
 	}
 
 	/**
@@ -509,6 +602,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		getVmList().remove(vm);
+		vmTable.remove(vm);
 	}
 
 	/**
@@ -562,11 +656,14 @@ public class Datacenter extends SimEntity {
 
 		debts.put(vm.getUserId(), amount);
 
-		Log.formatLine(
-				"%.2f: Migration of VM #%d to Host #%d is completed",
-				CloudSim.clock(),
-				vm.getId(),
-				host.getId());
+		if (Log.isEnabled(Log.DEBUG)) {
+			Log.formatLine(
+					Log.DEBUG,
+					"%.2f: Migration of VM #%d to Host #%d is completed",
+					CloudSim.clock(),
+					vm.getId(),
+					host.getId());
+		}
 		vm.setInMigration(false);
 	}
 
@@ -658,7 +755,7 @@ public class Datacenter extends SimEntity {
 		int destId = array[4];
 
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId, userId)
+		Cloudlet cl = getVm(vmId, userId)
 				.getCloudletScheduler().cloudletCancel(cloudletId);
 
 		boolean failed = false;
@@ -680,12 +777,12 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				Vm vm = getVmAllocationPolicy().getHost(vmDestId, userId).getVm(vmDestId, userId);
+				Vm vm = getVm(vmDestId, userId);
 				if (vm == null) {
 					failed = true;
 				} else {
 					// time to transfer the files
-					double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+					double fileTransferTime = predictFileTransferTime(cl);
 					vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
 				}
 			} else {// the cloudlet will migrate from one resource to another
@@ -722,63 +819,224 @@ public class Datacenter extends SimEntity {
 		try {
 			// gets the Cloudlet object
 			Cloudlet cl = (Cloudlet) ev.getData();
-			cl.addEventHistory(CloudSim.clock(),"submit");
+			submitCloudlet(cl, ack);
+		} catch (ClassCastException c) {
+			Log.printLine(getName() + ".processCloudletSubmit(): " + "ClassCastException error.");
+			c.printStackTrace();
+		} catch (Exception e) {
+			Log.printLine(getName() + ".processCloudletSubmit(): " + "Exception error.");
+			e.printStackTrace();
+		}
 		
-			// checks whether this Cloudlet has finished or not
-			if (cl.isFinished()) {
-				String name = CloudSim.getEntityName(cl.getUserId());
-				Log.printLine(getName() + ": Warning - Cloudlet #" + cl.getCloudletId() + " owned by " + name
-						+ " is already completed/finished.");
-				Log.printLine("Therefore, it is not being executed again");
-				Log.printLine();
-
-				// NOTE: If a Cloudlet has finished, then it won't be processed.
-				// So, if ack is required, this method sends back a result.
-				// If ack is not required, this method don't send back a result.
-				// Hence, this might cause CloudSim to be hanged since waiting
-				// for this Cloudlet back.
-				if (ack) {
-					int[] data = new int[3];
-					data[0] = getId();
-					data[1] = cl.getCloudletId();
-					data[2] = CloudSimTags.FALSE;
-
-					// unique tag = operation tag
-					int tag = CloudSimTags.CLOUDLET_SUBMIT_ACK;
-					sendNow(cl.getUserId(), tag, data);
+		checkCloudletCompletion();
+	}
+
+	/**
+	 * Processes the submission of a list of Cloudlets arriving at the same time. The VMs are updated
+	 * and the finished Cloudlets collected once for the whole list instead of once per Cloudlet;
+	 * the Cloudlets are then scheduled in list order. No ack is sent.
+	 * 
+	 * @param ev a SimEvent object whose data is the list of Cloudlets
+	 * @pre ev != null
+	 * @post $none
+	 */
+	@SuppressWarnings("unchecked")
+	protected void processCloudletListSubmit(SimEvent ev) {
+		updateVMUtilization();
+		updateCloudletProcessing();
+		List<Cloudlet> cloudletList = (List<Cloudlet>) ev.getData();
+		if (getBatchPlacement() == PLACEMENT_ONLINE) {
+			for (Cloudlet cl : cloudletList) {
+				try {
+					submitCloudlet(cl, false);
+				} catch (Exception e) {
+					Log.printLine(getName() + ".processCloudletListSubmit(): " + "Exception error.");
+					e.printStackTrace();
 				}
+			}
+		} else {
+			try {
+				placeCloudlets(cloudletList);
+			} catch (Exception e) {
+				Log.printLine(getName() + ".processCloudletListSubmit(): " + "Exception error.");
+				e.printStackTrace();
+			}
+		}
+		checkCloudletCompletion();
+	}
 
-				sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+	/**
+	 * Places a list of submitted Cloudlets in one bin-packing pass. The predicted free PEs of each VM
+	 * ({@link Vm#getAvaliablePEsARMA(double)}) are computed once for the list and then decreased by
+	 * the PEs of each Cloudlet placed on the VM. The Cloudlets not bound to a VM are placed largest
+	 * first on the first VM that fits or on the VM left with the fewest free PEs, according to the
+	 * batch placement. A Cloudlet that fits no VM goes through {@link #scheduleARMA(Cloudlet)},
+	 * which may evict lower-priority Cloudlets, after which the predictions are computed again.
+	 * Bound and finished Cloudlets are submitted as usual.
+	 * 
+	 * @param cloudletList the cloudlets
+	 * @pre cloudletList != null
+	 * @post $none
+	 */
+	protected void placeCloudlets(List<Cloudlet> cloudletList) {
+		List<Cloudlet> unbound = new ArrayList<Cloudlet>(cloudletList.size());
+		for (Cloudlet cl : cloudletList) {
+			if (cl.isFinished() || cl.getVmId() != -1 || getVmList().isEmpty()) {
+				submitCloudlet(cl, false);
+				continue;
+			}
+			cl.addEventHistory(CloudSim.clock(),"submit");
+			notifyCloudletEvent(cl, CloudletLifecycleListener.SUBMIT);
+			unbound.add(cl);
+		}
+		if (unbound.isEmpty()) {
+			return;
+		}
+		Collections.sort(unbound, new Comparator<Cloudlet>() {
 
-				return;
+			@Override
+			public int compare(Cloudlet cl1, Cloudlet cl2) {
+				return cl2.getNumberOfPes() - cl1.getNumberOfPes();
 			}
-			//scheduleNormal(cl);
-			//scheduleFOAR(cl);
-			scheduleARMA(cl);
-			//scheduleHybrid(cl);
-			// process this Cloudlet to this CloudResource
-			//int needVmId=cl.getVmId();
-			
-			// if this cloudlet is in the exec queue
+		});
+
+		List<? extends Vm> vms = getVmList();
+		int[] freePes = predictFreePes(vms);
+		for (Cloudlet cl : unbound) {
+			int requiredPes = cl.getNumberOfPes();
+			int chosen = -1;
+			for (int i = 0; i < freePes.length; i++) {
+				if (freePes[i] >= requiredPes && (chosen < 0 || getBatchPlacement() == PLACEMENT_BEST_FIT_DECREASING
+						&& freePes[i] < freePes[chosen])) {
+					chosen = i;
+					if (getBatchPlacement() == PLACEMENT_FIRST_FIT_DECREASING) {
+						break;
+					}
+				}
+			}
+			if (chosen >= 0) {
+				addCloudlet(cl.getUserId(), vms.get(chosen).getId(), cl);
+				freePes[chosen] -= requiredPes;
+			} else {
+				scheduleARMA(cl);
+				freePes = predictFreePes(vms);
+			}
+		}
+	}
+
+	/**
+	 * Gets the predicted free PEs of VMs at the current time.
+	 * 
+	 * @param vms the vms
+	 * @return the predicted free PEs, in the order of the list
+	 */
+	private int[] predictFreePes(List<? extends Vm> vms) {
+		int[] freePes = new int[vms.size()];
+		for (int i = 0; i < freePes.length; i++) {
+			freePes[i] = vms.get(i).getAvaliablePEsARMA(CloudSim.clock());
+		}
+		return freePes;
+	}
+
+	/**
+	 * Sets the placement of the cloudlets submitted together in a
+	 * {@link CloudSimTags#CLOUDLET_LIST_SUBMIT} event.
+	 * 
+	 * @param batchPlacement {@link #PLACEMENT_ONLINE}, {@link #PLACEMENT_FIRST_FIT_DECREASING} or
+	 *            {@link #PLACEMENT_BEST_FIT_DECREASING}
+	 */
+	public void setBatchPlacement(int batchPlacement) {
+		this.batchPlacement = batchPlacement;
+	}
+
+	/**
+	 * Gets the placement of the cloudlets submitted together.
+	 * 
+	 * @return the batch placement
+	 */
+	public int getBatchPlacement() {
+		return batchPlacement;
+	}
+
+	/**
+	 * Sets the refitter of the ARMA coefficients of the VMs. It is updated each time the utilization
+	 * of the VMs is updated.
+	 * 
+	 * @param armaRefitter the refitter, or <tt>null</tt> to keep the coefficients unchanged
+	 */
+	public void setArmaRefitter(ArmaRefitter armaRefitter) {
+		this.armaRefitter = armaRefitter;
+	}
+
+	/**
+	 * Gets the refitter of the ARMA coefficients of the VMs.
+	 * 
+	 * @return the refitter, or <tt>null</tt> if none
+	 */
+	public ArmaRefitter getArmaRefitter() {
+		return armaRefitter;
+	}
+
+	/**
+	 * Schedules a submitted Cloudlet on a VM. The VMs are expected to be up to date.
+	 * 
+	 * @param cl the cloudlet
+	 * @param ack an acknowledgement
+	 * @pre cl != null
+	 * @post $none
+	 */
+	protected void submitCloudlet(Cloudlet cl, boolean ack) {
+		cl.addEventHistory(CloudSim.clock(),"submit");
+		notifyCloudletEvent(cl, CloudletLifecycleListener.SUBMIT);
+	
+		// checks whether this Cloudlet has finished or not
+		if (cl.isFinished()) {
+			if (Log.isEnabled(Log.WARNING)) {
+				String name = CloudSim.getEntityName(cl.getUserId());
+				Log.printLine(Log.WARNING, getName() + ": Warning - Cloudlet #" + cl.getCloudletId()
+						+ " owned by " + name + " is already completed/finished.");
+				Log.printLine(Log.WARNING, "Therefore, it is not being executed again");
+				Log.printLine(Log.WARNING, "");
+			}
+
+			// NOTE: If a Cloudlet has finished, then it won't be processed.
+			// So, if ack is required, this method sends back a result.
+			// If ack is not required, this method don't send back a result.
+			// Hence, this might cause CloudSim to be hanged since waiting
+			// for this Cloudlet back.
 			if (ack) {
 				int[] data = new int[3];
 				data[0] = getId();
 				data[1] = cl.getCloudletId();
-				data[2] = CloudSimTags.TRUE;
+				data[2] = CloudSimTags.FALSE;
 
 				// unique tag = operation tag
 				int tag = CloudSimTags.CLOUDLET_SUBMIT_ACK;
 				sendNow(cl.getUserId(), tag, data);
 			}
-		} catch (ClassCastException c) {
-			Log.printLine(getName() + ".processCloudletSubmit(): " + "ClassCastException error.");
-			c.printStackTrace();
-		} catch (Exception e) {
-			Log.printLine(getName() + ".processCloudletSubmit(): " + "Exception error.");
-			e.printStackTrace();
+
+			sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
+
+			return;
 		}
+		//scheduleNormal(cl);
+		//scheduleFOAR(cl);
+		scheduleARMA(cl);
+		//scheduleHybrid(cl);
+		// process this Cloudlet to this CloudResource
+		//int needVmId=cl.getVmId();
 		
-		checkCloudletCompletion();
+		// if this cloudlet is in the exec queue
+		if (ack) {
+			int[] data = new int[3];
+			data[0] = getId();
+			data[1] = cl.getCloudletId();
+			data[2] = CloudSimTags.TRUE;
+
+			// unique tag = operation tag
+			int tag = CloudSimTags.CLOUDLET_SUBMIT_ACK;
+			sendNow(cl.getUserId(), tag, data);
+		}
 	}
 
 	
@@ -794,20 +1052,111 @@ public class Datacenter extends SimEntity {
 		Iterator<String> iter = requiredFiles.iterator();
 		while (iter.hasNext()) {
 			String fileName = iter.next();
-			for (int i = 0; i < getStorageList().size(); i++) {
-				Storage tempStorage = getStorageList().get(i);
+			Storage tempStorage = findStorage(fileName);
+			if (tempStorage != null) {
 				File tempFile = tempStorage.getFile(fileName);
-				if (tempFile != null) {
-					time += tempFile.getSize() / tempStorage.getMaxTransferRate();
-					break;
-				}
+				time += tempFile.getSize() / tempStorage.getMaxTransferRate();
 			}
 		}
-		if(time!=0)
-			Log.printLine("文件传输时间："+time);
+		if (time != 0 && Log.isEnabled(Log.DEBUG)) {
+			Log.printLine(Log.DEBUG, "文件传输时间：" + time);
+		}
 		return time;
 	}
 
+	/**
+	 * Predicts the time to transfer the files required by a cloudlet. The prediction is kept in the
+	 * cloudlet, and reused as long as the file catalog of this datacenter does not change, so that a
+	 * cloudlet placed again, e.g. after an eviction, does not look its files up again.
+	 * 
+	 * @param cl the cloudlet
+	 * @return the transfer time
+	 */
+	protected double predictFileTransferTime(Cloudlet cl) {
+		if (!cl.requiresFiles()) {
+			return 0.0;
+		}
+		checkStorages();
+		long key = ((long) getId() << 32) | (catalogVersion & 0xFFFFFFFFL);
+		double time = cl.getPredictedTransferTime(key);
+		if (time < 0) {
+			time = predictFileTransferTime(cl.getRequiredFiles());
+			// the lookups may have corrected the catalog
+			key = ((long) getId() << 32) | (catalogVersion & 0xFFFFFFFFL);
+			cl.setPredictedTransferTime(key, time);
+		}
+		return time;
+	}
+
+	/**
+	 * Finds the storage holding a file, through the file catalog.
+	 * 
+	 * @param fileName the name of the file
+	 * @return the first storage of the list holding the file, or <tt>null</tt> if there is none
+	 */
+	protected Storage findStorage(String fileName) {
+		checkStorages();
+		if (fileCatalog == null) {
+			fileCatalog = new HashMap<String, Storage>();
+			// from the last storage, so that the first one holding a file is kept
+			for (int i = getStorageList().size() - 1; i >= 0; i--) {
+				Storage storage = getStorageList().get(i);
+				for (String name : storage.getFileNameList()) {
+					fileCatalog.put(name, storage);
+				}
+			}
+		}
+		Storage storage = fileCatalog.get(fileName);
+		if (storage != null && storage.contains(fileName)) {
+			return storage;
+		}
+
+		// the file is not in the catalog or was removed from its storage: look for it
+		Storage found = null;
+		for (int i = 0; i < getStorageList().size(); i++) {
+			if (getStorageList().get(i).contains(fileName)) {
+				found = getStorageList().get(i);
+				break;
+			}
+		}
+		if (found != null) {
+			fileCatalog.put(fileName, found);
+			catalogVersion++;
+		} else if (storage != null) {
+			fileCatalog.remove(fileName);
+			catalogVersion++;
+		}
+		return found;
+	}
+
+	/**
+	 * Drops the file catalog, and so the transfer times predicted from it, if a storage has been
+	 * changed other than through this datacenter, e.g. a file added to or renamed on a storage.
+	 */
+	private void checkStorages() {
+		long modifications = getStorageModifications();
+		if (modifications != storageModifications) {
+			storageModifications = modifications;
+			fileCatalog = null;
+			catalogVersion++;
+		}
+	}
+
+	/**
+	 * Gets the total modification count of the storages.
+	 * 
+	 * @return the sum of the modification counts of the storages
+	 */
+	private long getStorageModifications() {
+		long modifications = 0;
+		if (getStorageList() != null) {
+			for (Storage storage : getStorageList()) {
+				modifications += storage.getModificationCount();
+			}
+		}
+		return modifications;
+	}
+
 	/**
 	 * Processes a Cloudlet resume request.
 	 * 
@@ -819,7 +1168,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
-		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getVm(userId, vmId)
+		double eventTime = getVm(vmId, userId)
 				.getCloudletScheduler().cloudletResume(cloudletId);
 
 		boolean status = false;
@@ -854,7 +1203,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
-		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getVm(userId, vmId)
+		boolean status = getVm(vmId, userId)
 				.getCloudletScheduler().cloudletPause(cloudletId);
 
 		if (ack) {
@@ -880,8 +1229,7 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId)
-				.getVm(vmId,userId)
+		Cloudlet cl = getVm(vmId, userId)
 				.getCloudletScheduler()
 				.cloudletCancel(cloudletId);
 		cl.setVmId(-1);
@@ -955,6 +1303,7 @@ public class Datacenter extends SimEntity {
 					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
 					if (cl != null) {
 						cl.addEventHistory(CloudSim.clock(),"finish");
+						notifyCloudletEvent(cl, CloudletLifecycleListener.FINISH);
 						sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
 						submitCancleList(vm,cl.getNumberOfPes());
 					}	
@@ -1010,7 +1359,13 @@ public class Datacenter extends SimEntity {
 		for (int i = 0; i < getStorageList().size(); i++) {
 			tempStorage = getStorageList().get(i);
 			if (tempStorage.getAvailableSpace() >= file.getSize()) {
+				int modifications = tempStorage.getModificationCount();
 				tempStorage.addFile(file);
+				storageModifications += tempStorage.getModificationCount() - modifications;
+				if (fileCatalog != null) {
+					fileCatalog.put(file.getName(), tempStorage);
+				}
+				catalogVersion++;
 				msg = DataCloudTags.FILE_ADD_SUCCESSFUL;
 				break;
 			}
@@ -1043,19 +1398,7 @@ public class Datacenter extends SimEntity {
 			return false;
 		}
 
-		Iterator<Storage> it = getStorageList().iterator();
-		Storage storage = null;
-		boolean result = false;
-
-		while (it.hasNext()) {
-			storage = it.next();
-			if (storage.contains(fileName)) {
-				result = true;
-				break;
-			}
-		}
-
-		return result;
+		return findStorage(fileName) != null;
 	}
 
 	/**
@@ -1073,10 +1416,16 @@ public class Datacenter extends SimEntity {
 		for (int i = 0; i < getStorageList().size(); i++) {
 			tempStorage = getStorageList().get(i);
 			tempFile = tempStorage.getFile(fileName);
+			int modifications = tempStorage.getModificationCount();
 			tempStorage.deleteFile(fileName, tempFile);
+			storageModifications += tempStorage.getModificationCount() - modifications;
 			msg = DataCloudTags.FILE_DELETE_SUCCESSFUL;
 		} // end for
 
+		if (fileCatalog != null) {
+			fileCatalog.remove(fileName);
+		}
+		catalogVersion++;
 		return msg;
 	}
 
@@ -1244,6 +1593,9 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void setStorageList(List<Storage> storageList) {
 		this.storageList = storageList;
+		fileCatalog = null;
+		catalogVersion++;
+		storageModifications = getStorageModifications();
 	}
 
 	/**
@@ -1312,7 +1664,7 @@ public class Datacenter extends SimEntity {
 			return;
 			}
 		
-		Vm vm=getVmAllocationPolicy().getHost(vmId, cl.getUserId()).getVm(vmId, cl.getUserId());
+		Vm vm=getVm(vmId, cl.getUserId());
 		int avaliablePe=vm.getAvaliablePEs(CloudSim.clock());
 		
 		if(avaliablePe>=cl.getNumberOfPes())
@@ -1353,7 +1705,7 @@ public class Datacenter extends SimEntity {
 			return;
 			}
 		
-		Vm vm=getVmAllocationPolicy().getHost(vmId, cl.getUserId()).getVm(vmId, cl.getUserId());
+		Vm vm=getVm(vmId, cl.getUserId());
 		int avaliablePe=vm.getAvaliablePEsPridictGratis(CloudSim.clock());
 		
 		if(avaliablePe>=cl.getNumberOfPes())
@@ -1394,7 +1746,7 @@ public class Datacenter extends SimEntity {
 			return;
 			}
 		
-		Vm vm=getVmAllocationPolicy().getHost(vmId, cl.getUserId()).getVm(vmId, cl.getUserId());
+		Vm vm=getVm(vmId, cl.getUserId());
 		int avaliablePe=vm.getAvaliablePEsARMA(CloudSim.clock());
 		
 		if(avaliablePe>=cl.getNumberOfPes())
@@ -1407,7 +1759,7 @@ public class Datacenter extends SimEntity {
 			}
 	}
 	protected boolean evictNormal(Cloudlet cl, int vmId){
-		Vm vm=getVmAllocationPolicy().getHost(vmId, cl.getUserId()).getVm(vmId, cl.getUserId());
+		Vm vm=getVm(vmId, cl.getUserId());
 		List<Cloudlet> lowList=new ArrayList<Cloudlet>();
 		int classtype=0;
 		Cloudlet victim;
@@ -1431,6 +1783,7 @@ public class Datacenter extends SimEntity {
 			if(needPe<=0){
 				for(Cloudlet remove:victimList){
 					remove.addEventHistory(CloudSim.clock(), "evicted");
+					notifyCloudletEvent(remove, CloudletLifecycleListener.EVICT);
 					processCloudletCancel(remove.getCloudletId(), remove.getUserId(), remove.getVmId());
 				}
 				lowList.clear();			
@@ -1461,7 +1814,7 @@ public class Datacenter extends SimEntity {
 					cancleCloudlet(cl);
 				}
 			else{
-				Vm vm=getVmAllocationPolicy().getHost(vmId, cl.getUserId()).getVm(vmId, cl.getUserId());
+				Vm vm=getVm(vmId, cl.getUserId());
 				int avaliablePe=vm.getAvaliablePEsPridictGratis(CloudSim.clock());
 			
 				if(avaliablePe>=cl.getNumberOfPes())
@@ -1499,7 +1852,7 @@ public class Datacenter extends SimEntity {
 					return;
 					}
 				
-				Vm vm=getVmAllocationPolicy().getHost(vmId, cl.getUserId()).getVm(vmId, cl.getUserId());
+				Vm vm=getVm(vmId, cl.getUserId());
 				int avaliablePe=vm.getAvaliablePEsPridictBatch(CloudSim.clock());
 				
 				if(avaliablePe>=cl.getNumberOfPes())
@@ -1519,13 +1872,14 @@ public class Datacenter extends SimEntity {
 				.getCostPerBw());
 		cl.setVmId(vmId);
 	
-		double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
-		Vm vm = getVmAllocationPolicy().getHost(vmId, cl.getUserId()).getVm(vmId, cl.getUserId());
+		double fileTransferTime = predictFileTransferTime(cl);
+		Vm vm = getVm(vmId, cl.getUserId());
 		CloudletScheduler scheduler = vm.getCloudletScheduler();				
 		double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);				
 		if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
 			cl.setScheduleTime(CloudSim.clock());			
 			cl.addEventHistory(CloudSim.clock(),"schedule");
+			notifyCloudletEvent(cl, CloudletLifecycleListener.SCHEDULE);
 			estimatedFinishTime += fileTransferTime;
 			send(getId(), estimatedFinishTime, CloudSimTags.VM_DATACENTER_EVENT);
 		}
@@ -1540,10 +1894,16 @@ public class Datacenter extends SimEntity {
 	}
 //检查overload情况
 	protected void updateVMUtilization(){
+		if (getArmaRefitter() != null) {
+			getArmaRefitter().update(CloudSim.clock(), getVmList());
+		}
+		long usedPes = 0;
+		long totalPes = 0;
 		for(Vm vm:getVmList()){
 			vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
 					.getAllocatedMipsForVm(vm));
 			int avaPE=vm.getAvaliablePEs(CloudSim.clock());
+			totalPes += vm.getNumberOfPes();
 			if(avaPE<0){//Log.printLine("kill:"+vm.getId()+"at:"+vm.getBatchCpu(CloudSim.clock())+" total:"+vm.getAvaliablePEs(CloudSim.clock()));
 				List<Cloudlet> lowList=new ArrayList<Cloudlet>();
 				Cloudlet victim;	
@@ -1558,6 +1918,7 @@ public class Datacenter extends SimEntity {
 						victim=lowList.get(new Random().nextInt(lowList.size()));
 						lowList.remove(victim);
 						victim.addEventHistory(CloudSim.clock(), "kill");
+						notifyCloudletEvent(victim, CloudletLifecycleListener.KILL);
 						processCloudletCancel(victim.getCloudletId(),victim.getUserId(),victim.getVmId());
 						avaPE=vm.getAvaliablePEs(CloudSim.clock());
 						}
@@ -1567,7 +1928,53 @@ public class Datacenter extends SimEntity {
 						classType++;				
 				}
 			}
-		}	
+			usedPes += vm.getNumberOfPes() - Math.max(avaPE, 0);
+		}
+		for (CloudletLifecycleListener listener : cloudletLifecycleListeners) {
+			listener.utilizationUpdated(CloudSim.clock(), usedPes, totalPes);
+		}
+	}
+
+	/**
+	 * Gets a VM created in this datacenter.
+	 * 
+	 * @param vmId the vm id
+	 * @param userId the user id
+	 * @return the VM, or <tt>null</tt> if there is no such VM
+	 */
+	protected Vm getVm(int vmId, int userId) {
+		return vmTable.getKey(vmId, userId);
+	}
+
+	/**
+	 * Notifies the cloudlet lifecycle listeners of an event.
+	 * 
+	 * @param cl the cloudlet
+	 * @param event the event, one of the {@link CloudletLifecycleListener} constants
+	 */
+	protected void notifyCloudletEvent(Cloudlet cl, int event) {
+		for (CloudletLifecycleListener listener : cloudletLifecycleListeners) {
+			listener.cloudletEvent(cl, CloudSim.clock(), event);
+		}
+	}
+
+	/**
+	 * Adds a cloudlet lifecycle listener, notified on each cloudlet submission, schedule, eviction,
+	 * kill and completion, and on each VM utilization update.
+	 * 
+	 * @param listener the listener
+	 */
+	public void addCloudletLifecycleListener(CloudletLifecycleListener listener) {
+		cloudletLifecycleListeners.add(listener);
+	}
+
+	/**
+	 * Removes a cloudlet lifecycle listener.
+	 * 
+	 * @param listener the listener
+	 */
+	public void removeCloudletLifecycleListener(CloudletLifecycleListener listener) {
+		cloudletLifecycleListeners.remove(listener);
 	}
 	
 }
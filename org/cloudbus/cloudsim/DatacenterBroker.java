@@ -15,6 +15,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,8 @@ import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.lists.CloudletList;
 import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.util.StreamingWorkloadModel;
+import org.cloudbus.cloudsim.util.WorkloadIterator;
 
 /**
  * DatacentreBroker represents a broker acting on behalf of a user. It hides VM management, as vm
@@ -36,6 +39,16 @@ import org.cloudbus.cloudsim.lists.VmList;
  */
 public class DatacenterBroker extends SimEntity {
 
+	/** The retention mode keeping every submitted and returned cloudlet (the default). */
+	public static final int RETAIN_ALL = 0;
+
+	/**
+	 * The retention mode releasing cloudlets once they return: they are not added to the submitted
+	 * and received lists, and are only handed to the cloudlet sink, if any. The event history of a
+	 * cloudlet is cleared once the sink has received it.
+	 */
+	public static final int RETAIN_NONE = 1;
+
 	/** The vm list. */
 	protected List<? extends Vm> vmList;
 
@@ -78,6 +91,40 @@ public class DatacenterBroker extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** The retention mode of finished cloudlets. */
+	private int retentionMode = RETAIN_ALL;
+
+	/** The sink of the returned cloudlets. */
+	private CloudletSink cloudletSink;
+
+	/** The number of returned cloudlets. */
+	private long cloudletsReceived;
+
+	/**
+	 * The length of the time windows whose cloudlets are submitted together; 0 groups only the
+	 * cloudlets with the same submit time and a negative value disables grouping.
+	 */
+	private double submitBatchQuantum;
+
+	/** The workload whose cloudlets are read incrementally, if any. */
+	private StreamingWorkloadModel workload;
+
+	/** The pass over the workload; <code>null</code> before it starts and once it is done. */
+	private WorkloadIterator workloadIterator;
+
+	/** The first cloudlet read from the workload but not submitted yet. */
+	private Cloudlet nextWorkloadCloudlet;
+
+	/**
+	 * The simulation time at which the workload started being submitted; the submit times of the
+	 * workload cloudlets are relative to it, as those of a submitted cloudlet list are; -1 before
+	 * it starts.
+	 */
+	private double workloadStartTime = -1;
+
+	/** How far ahead of the simulation time the cloudlets of the workload are read, in seconds. */
+	private double workloadWindow = 3600;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -131,6 +178,47 @@ public class DatacenterBroker extends SimEntity {
 		getCloudletList().addAll(list);
 	}
 
+	/**
+	 * Sets a workload whose cloudlets are submitted like those of
+	 * {@link #submitCloudletList(List)}, but read from the workload only one window ahead of the
+	 * simulation time (see {@link #setWorkloadWindow(double)}), so that only the cloudlets of the
+	 * window are in memory. The cloudlets must come in increasing order of submit time, as in a
+	 * trace; they get this broker as their user.
+	 * 
+	 * @param workload the workload, or <code>null</code> for none
+	 */
+	public void setWorkload(StreamingWorkloadModel workload) {
+		this.workload = workload;
+	}
+
+	/**
+	 * Gets the workload whose cloudlets are read incrementally.
+	 * 
+	 * @return the workload, or <code>null</code> if none
+	 */
+	public StreamingWorkloadModel getWorkload() {
+		return workload;
+	}
+
+	/**
+	 * Sets how far ahead of the simulation time the cloudlets of the workload are read. A longer
+	 * window means fewer reads but more cloudlets in memory.
+	 * 
+	 * @param workloadWindow the window, in seconds
+	 */
+	public void setWorkloadWindow(double workloadWindow) {
+		this.workloadWindow = workloadWindow;
+	}
+
+	/**
+	 * Gets how far ahead of the simulation time the cloudlets of the workload are read.
+	 * 
+	 * @return the window, in seconds
+	 */
+	public double getWorkloadWindow() {
+		return workloadWindow;
+	}
+
 	/**
 	 * Specifies that a given cloudlet must run in a specific virtual machine.
 	 * 
@@ -166,6 +254,10 @@ public class DatacenterBroker extends SimEntity {
 			case CloudSimTags.VM_CREATE_ACK:
 				processVmCreate(ev);
 				break;
+			// Answer to the creation of a list of VMs
+			case CloudSimTags.VM_LIST_CREATE_ACK:
+				processVmListCreate(ev);
+				break;
 			// A finished cloudlet returned
 			case CloudSimTags.CLOUDLET_RETURN:
 				processCloudletReturn(ev);
@@ -173,6 +265,10 @@ public class DatacenterBroker extends SimEntity {
 			case CloudSimTags.CLOUDLET_CANCEL:
 				processCloudletCancle(ev);
 				break;
+			// Time to read the next window of the workload
+			case CloudSimTags.VM_BROKER_EVENT:
+				submitWorkloadCloudlets();
+				break;
 			// if the simulation finishes
 			case CloudSimTags.END_OF_SIMULATION:
 				shutdownEntity();
@@ -234,20 +330,85 @@ public class DatacenterBroker extends SimEntity {
 		int result = data[2];
 
 		if (result == CloudSimTags.TRUE) {
-			getVmsToDatacentersMap().put(vmId, datacenterId);
-			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-					+ " has been created in Datacenter #" + datacenterId + ", Host #"
-					+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			vmCreated(datacenterId, VmList.getById(getVmList(), vmId));
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-					+ " failed in Datacenter #" + datacenterId);
+			vmNotCreated(datacenterId, vmId);
 		}
 
 		incrementVmsAcks();
+		processVmCreateAcks();
+	}
 
+	/**
+	 * Process the ack received due to a request for the creation of a list of VMs. The ack carries
+	 * the result for every VM of the list, so it counts as one ack per VM.
+	 * 
+	 * @param ev a SimEvent object whose data is the id of the datacenter followed by a (vm id,
+	 *            result) pair per VM
+	 * @pre ev != null
+	 * @post $none
+	 * @see Datacenter#processVmListCreate(SimEvent, boolean)
+	 */
+	protected void processVmListCreate(SimEvent ev) {
+		int[] data = (int[]) ev.getData();
+		int datacenterId = data[0];
+
+		Map<Integer, Vm> vms = new HashMap<Integer, Vm>();
+		for (Vm vm : getVmList()) {
+			vms.put(vm.getId(), vm);
+		}
+		for (int i = 1; i + 1 < data.length; i += 2) {
+			if (data[i + 1] == CloudSimTags.TRUE) {
+				vmCreated(datacenterId, vms.get(data[i]));
+			} else {
+				vmNotCreated(datacenterId, data[i]);
+			}
+		}
+
+		setVmsAcks(getVmsAcks() + (data.length - 1) / 2);
+		processVmCreateAcks();
+	}
+
+	/**
+	 * Records a VM the datacenter has created.
+	 * 
+	 * @param datacenterId the datacenter id
+	 * @param vm the vm
+	 */
+	protected void vmCreated(int datacenterId, Vm vm) {
+		getVmsToDatacentersMap().put(vm.getId(), datacenterId);
+		getVmsCreatedList().add(vm);
+		if (Log.isEnabled(Log.DEBUG)) {
+			Log.printLine(Log.DEBUG, CloudSim.clock() + ": " + getName() + ": VM #" + vm.getId()
+					+ " has been created in Datacenter #" + datacenterId + ", Host #"
+					+ vm.getHost().getId());
+		}
+	}
+
+	/**
+	 * Records a VM the datacenter could not create.
+	 * 
+	 * @param datacenterId the datacenter id
+	 * @param vmId the vm id
+	 */
+	protected void vmNotCreated(int datacenterId, int vmId) {
+		if (Log.isEnabled(Log.DEBUG)) {
+			Log.printLine(Log.DEBUG, CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
+					+ " failed in Datacenter #" + datacenterId);
+		}
+	}
+
+	/**
+	 * Submits the cloudlets once all the requested VMs have been created, or tries the next
+	 * datacenter once all the requested VMs have been acknowledged but some were not created.
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void processVmCreateAcks() {
 		// all the requested VMs have been created
 		if (getVmsCreatedList().size() == getVmList().size() - getVmsDestroyed()) {
+			startWorkload();
 			submitCloudlets();
 		} else {
 			// all the acks received, but some VMs were not created
@@ -262,6 +423,7 @@ public class DatacenterBroker extends SimEntity {
 
 				// all datacenters already queried
 				if (getVmsCreatedList().size() > 0) { // if some vm were created
+					startWorkload();
 					submitCloudlets();
 				} else { // no vms created. abort
 					Log.printLine(CloudSim.clock() + ": " + getName()
@@ -281,12 +443,23 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
-		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
-				+ " received now "+cloudletsSubmitted+" have recieved");
+		cloudletsReceived++;
+		if (getCloudletSink() != null) {
+			getCloudletSink().cloudletReceived(cloudlet);
+			if (getRetentionMode() == RETAIN_NONE) {
+				cloudlet.getEventHistory().clear();
+			}
+		}
+		if (getRetentionMode() == RETAIN_ALL) {
+			getCloudletReceivedList().add(cloudlet);
+		}
+		if (Log.isEnabled(Log.DEBUG)) {
+			Log.printLine(Log.DEBUG, CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
+					+ " received now "+cloudletsSubmitted+" have recieved");
+		}
 		cloudletsSubmitted--;
 		
-			if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
+			if (getCloudletList().size() == 0 && cloudletsSubmitted == 0 && !isWorkloadPending()) { // all cloudlets executed
 				Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
 				clearDatacenters();
 				finishExecution();
@@ -336,22 +509,21 @@ protected void processCloudletCancle(SimEvent ev){
 	 * @post $none
 	 */
 	protected void createVmsInDatacenter(int datacenterId) {
-		// send as much vms as possible for this datacenter before trying the next one
-		int requestedVms = 0;
-		//String datacenterName = CloudSim.getEntityName(datacenterId);
+		// send as much vms as possible for this datacenter before trying the next one, all of them
+		// in a single request
+		List<Vm> requestedVms = new ArrayList<Vm>();
 		for (Vm vm : getVmList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
-				
-				//Log.printLine(CloudSim.clock() + ": " + getName() + ": Trying to Create VM #" + vm.getId()
-				//		+ " in " + datacenterName);
-				sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
-				requestedVms++;
+				requestedVms.add(vm);
 			}
 		}
+		if (!requestedVms.isEmpty()) {
+			sendNow(datacenterId, CloudSimTags.VM_LIST_CREATE_ACK, requestedVms);
+		}
 
 		getDatacenterRequestedIdsList().add(datacenterId);
 
-		setVmsRequested(requestedVms);
+		setVmsRequested(requestedVms.size());
 		setVmsAcks(0);
 	}
 
@@ -362,31 +534,182 @@ protected void processCloudletCancle(SimEvent ev){
 	 * @post $none
 	 */
 	protected void submitCloudlets() {
-		int vmIndex = 0;
+		Map<Integer, Vm> createdVms = new HashMap<Integer, Vm>();
+		for (Vm vm : getVmsCreatedList()) {
+			createdVms.put(vm.getId(), vm);
+		}
+		// cloudlets bound to a VM that is not available stay in the submission list; the list is
+		// rebuilt from them in one pass instead of removing each sent cloudlet from it
+		List<Cloudlet> postponedList = new ArrayList<Cloudlet>();
+		// cloudlets arriving in the same time window are sent to the datacenter as one event
+		Map<Double, List<Cloudlet>> batches = new LinkedHashMap<Double, List<Cloudlet>>();
 		for (Cloudlet cloudlet : getCloudletList()) {
-			Vm vm;
-			if (cloudlet.getVmId() == -1) {
-				//vm = getVmsCreatedList().get(vmIndex);
-			} else { // submit to the specific vm
-				vm = VmList.getById(getVmsCreatedList(), cloudlet.getVmId());
-				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
-					continue;
+			if (cloudlet.getVmId() != -1 && !createdVms.containsKey(cloudlet.getVmId())) {
+				// vm was not created
+				if (Log.isEnabled(Log.DEBUG)) {
+					Log.printLine(Log.DEBUG, CloudSim.clock() + ": " + getName()
+							+ ": Postponing execution of cloudlet " + cloudlet.getCloudletId()
+							+ ": bount VM not available");
 				}
+				postponedList.add(cloudlet);
+				continue;
+			}
+			if (Log.isEnabled(Log.DEBUG)) {
+				Log.printLine(Log.DEBUG, cloudlet.getSubmitTime() + ": " + getName() + ": Sending cloudlet "
+						+ cloudlet.getCloudletId() + " to VM #" +"now "+cloudletsSubmitted+" have recieved");
+			}
+			if (getSubmitBatchQuantum() < 0) {
+				send(getDatacenterIdsList().get(0),getSubmitDelay(cloudlet.getSubmitTime()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			} else {
+				double window = cloudlet.getSubmitTime();
+				if (getSubmitBatchQuantum() > 0) {
+					window = Math.floor(window / getSubmitBatchQuantum());
+				}
+				List<Cloudlet> batch = batches.get(window);
+				if (batch == null) {
+					batch = new ArrayList<Cloudlet>();
+					batches.put(window, batch);
+				}
+				batch.add(cloudlet);
 			}
-			//cloudlet.setSubmitTime(cloudlet.getSubmitTime());
-			Log.printLine(cloudlet.getSubmitTime() + ": " + getName() + ": Sending cloudlet "
-					+ cloudlet.getCloudletId() + " to VM #" +"now "+cloudletsSubmitted+" have recieved");
-			send(getDatacenterIdsList().get(0),cloudlet.getSubmitTime(), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
 			cloudletsSubmitted++;
-			getCloudletSubmittedList().add(cloudlet);	
+			if (getRetentionMode() == RETAIN_ALL) {
+				getCloudletSubmittedList().add(cloudlet);
+			}
+		}
+		for (List<Cloudlet> batch : batches.values()) {
+			submitCloudletBatch(batch);
 		}
 
-		// remove submitted cloudlets from submition list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
+		getCloudletList().clear();
+		getCloudletList().addAll(postponedList);
+	}
+
+	/**
+	 * Sends a group of cloudlets to the datacenter as a single event, at the latest submit time of
+	 * the group. A group of one cloudlet is sent as a plain {@link CloudSimTags#CLOUDLET_SUBMIT}.
+	 * 
+	 * @param batch the cloudlets
+	 * @pre batch != null && batch.size() > 0
+	 * @post $none
+	 */
+	protected void submitCloudletBatch(List<Cloudlet> batch) {
+		if (batch.size() == 1) {
+			Cloudlet cloudlet = batch.get(0);
+			send(getDatacenterIdsList().get(0),getSubmitDelay(cloudlet.getSubmitTime()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			return;
+		}
+		double submitTime = 0;
+		for (Cloudlet cloudlet : batch) {
+			submitTime = Math.max(submitTime, cloudlet.getSubmitTime());
+		}
+		send(getDatacenterIdsList().get(0), getSubmitDelay(submitTime), CloudSimTags.CLOUDLET_LIST_SUBMIT, batch);
+	}
+
+	/**
+	 * Gets the delay after which a cloudlet with a given submit time is sent. The submit times of
+	 * the cloudlets read from the workload are relative to the time the workload started, those of
+	 * the other cloudlets to the time they are sent.
+	 * 
+	 * @param submitTime the submit time
+	 * @return the delay
+	 */
+	protected double getSubmitDelay(double submitTime) {
+		if (workloadStartTime < 0) {
+			return submitTime;
+		}
+		return Math.max(0, workloadStartTime + submitTime - CloudSim.clock());
+	}
+
+	/**
+	 * Starts reading the workload, if any, and submits its first window of cloudlets along with
+	 * those of the cloudlet list.
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void startWorkload() {
+		if (getWorkload() == null || workloadStartTime >= 0) {
+			return;
+		}
+		try {
+			workloadIterator = getWorkload().openWorkload();
+		} catch (IOException e) {
+			Log.printLine(getName() + ": cannot read the workload: " + e.getMessage());
+			return;
+		}
+		workloadStartTime = CloudSim.clock();
+		readWorkloadWindow();
+	}
+
+	/**
+	 * Submits the cloudlets of the next window of the workload. Called through
+	 * {@link CloudSimTags#VM_BROKER_EVENT} events scheduled by {@link #readWorkloadWindow()}.
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void submitWorkloadCloudlets() {
+		if (!isWorkloadPending()) {
+			return;
+		}
+		readWorkloadWindow();
+		submitCloudlets();
+		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0 && !isWorkloadPending()) {
+			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
+			clearDatacenters();
+			finishExecution();
+		}
+	}
+
+	/**
+	 * Moves the cloudlets of the workload submitted up to one window ahead of the simulation time
+	 * to the cloudlet list, and schedules the next read at least half a window later, one window
+	 * before the next cloudlet is due.
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	private void readWorkloadWindow() {
+		double now = CloudSim.clock() - workloadStartTime;
+		double horizon = now + getWorkloadWindow();
+		while (nextWorkloadCloudlet != null || (workloadIterator != null && workloadIterator.hasNext())) {
+			Cloudlet cloudlet = nextWorkloadCloudlet != null ? nextWorkloadCloudlet : workloadIterator.next();
+			if (cloudlet.getSubmitTime() > horizon) {
+				nextWorkloadCloudlet = cloudlet;
+				double delay = Math.max(cloudlet.getSubmitTime() - horizon, getWorkloadWindow() / 2);
+				schedule(getId(), delay, CloudSimTags.VM_BROKER_EVENT);
+				return;
+			}
+			nextWorkloadCloudlet = null;
+			cloudlet.setUserId(getId());
+			getCloudletList().add(cloudlet);
+		}
+		closeWorkload();
+	}
+
+	/**
+	 * Tells whether some cloudlets of the workload have not been submitted yet.
+	 * 
+	 * @return <code>true</code> if the workload is still being read
+	 */
+	protected boolean isWorkloadPending() {
+		return nextWorkloadCloudlet != null;
+	}
+
+	/**
+	 * Closes the pass over the workload.
+	 */
+	private void closeWorkload() {
+		if (workloadIterator != null) {
+			try {
+				workloadIterator.close();
+			} catch (IOException e) {
+				Log.printLine(getName() + ": cannot close the workload: " + e.getMessage());
+			}
 		}
+		workloadIterator = null;
+		nextWorkloadCloudlet = null;
 	}
 
 	/*protected void cancledCloudletSubmit() {
@@ -417,7 +740,9 @@ protected void processCloudletCancle(SimEvent ev){
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			if (Log.isEnabled(Log.DEBUG)) {
+				Log.printLine(Log.DEBUG, CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			}
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
@@ -441,6 +766,10 @@ protected void processCloudletCancle(SimEvent ev){
 	@Override
 	public void shutdownEntity() {
 		Log.printLine(getName() + " is shutting down...");
+		closeWorkload();
+		if (getCloudletSink() != null) {
+			getCloudletSink().close();
+		}
 	}
 
 	/*
@@ -453,6 +782,79 @@ protected void processCloudletCancle(SimEvent ev){
 		schedule(getId(), 0, CloudSimTags.RESOURCE_CHARACTERISTICS_REQUEST);
 	}
 
+	/**
+	 * Sets the retention mode of finished cloudlets. With {@link #RETAIN_NONE}, the submitted and
+	 * received lists stay empty and the broker holds no reference to a cloudlet once it has been
+	 * sent. The cloudlets still waiting for their submit time are held by their pending events, so
+	 * memory scales with the cloudlets in flight instead of the trace length only when they are read
+	 * with {@link #setWorkload(StreamingWorkloadModel)} rather than submitted as a list.
+	 * 
+	 * @param retentionMode {@link #RETAIN_ALL} or {@link #RETAIN_NONE}
+	 */
+	public void setRetentionMode(int retentionMode) {
+		this.retentionMode = retentionMode;
+	}
+
+	/**
+	 * Gets the retention mode of finished cloudlets.
+	 * 
+	 * @return the retention mode
+	 */
+	public int getRetentionMode() {
+		return retentionMode;
+	}
+
+	/**
+	 * Sets the sink receiving each returned cloudlet. The sink is closed when the broker shuts
+	 * down.
+	 * 
+	 * @param cloudletSink the sink, or <tt>null</tt> for none
+	 */
+	public void setCloudletSink(CloudletSink cloudletSink) {
+		this.cloudletSink = cloudletSink;
+	}
+
+	/**
+	 * Gets the sink receiving each returned cloudlet.
+	 * 
+	 * @return the sink, or <tt>null</tt> if none
+	 */
+	public CloudletSink getCloudletSink() {
+		return cloudletSink;
+	}
+
+	/**
+	 * Sets the length of the time windows whose cloudlets are submitted to the datacenter as a
+	 * single {@link CloudSimTags#CLOUDLET_LIST_SUBMIT} event, so that the datacenter updates its VMs
+	 * once per window instead of once per cloudlet. With 0 (the default) only cloudlets with the
+	 * same submit time are grouped, which does not delay any of them. With a positive quantum the
+	 * cloudlets of a window arrive at the latest submit time of the window, so their wait times
+	 * include up to one quantum of delay. A negative value sends one event per cloudlet.
+	 * 
+	 * @param submitBatchQuantum the quantum, in seconds
+	 */
+	public void setSubmitBatchQuantum(double submitBatchQuantum) {
+		this.submitBatchQuantum = submitBatchQuantum;
+	}
+
+	/**
+	 * Gets the length of the time windows whose cloudlets are submitted together.
+	 * 
+	 * @return the quantum, in seconds
+	 */
+	public double getSubmitBatchQuantum() {
+		return submitBatchQuantum;
+	}
+
+	/**
+	 * Gets the number of cloudlets returned to this broker, whatever the retention mode.
+	 * 
+	 * @return the number of received cloudlets
+	 */
+	public long getCloudletsReceivedCount() {
+		return cloudletsReceived;
+	}
+
 	/**
 	 * Gets the vm list.
 	 * 
@@ -9,8 +9,10 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
 
@@ -23,6 +25,7 @@ import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
  * <li>avg seek time = 9 ms
  * <li>max transfer rate = 133 MB/sec
  * </ul>
+ * The files are also indexed by name, so that finding a file does not scan the file list.
  * 
  * @author Uros Cibej
  * @author Anthony Sulistio
@@ -36,6 +39,18 @@ public class HarddriveStorage implements Storage {
 	/** a list storing all the files stored on the harddrive. */
 	private List<File> fileList;
 
+	/** the files stored on the harddrive, by name. */
+	private Map<String, File> fileMap;
+
+	/**
+	 * the total size of the files from the start of the file list up to each file, by name, or
+	 * <tt>null</tt> if a file was removed since it was computed.
+	 */
+	private Map<String, Integer> offsetMap;
+
+	/** the total size of the files in the file list, in MB. */
+	private int storedSize;
+
 	/** the name of the harddrive. */
 	private final String name;
 
@@ -57,6 +72,9 @@ public class HarddriveStorage implements Storage {
 	/** the average seek time in seconds. */
 	private double avgSeekTime;
 
+	/** the number of changes made to the files and to the transfer rate. */
+	private int modificationCount;
+
 	/**
 	 * Creates a new harddrive storage with a given name and capacity.
 	 * 
@@ -103,6 +121,9 @@ public class HarddriveStorage implements Storage {
 	private void init() {
 		fileList = new ArrayList<File>();
 		nameList = new ArrayList<String>();
+		fileMap = new HashMap<String, File>();
+		offsetMap = new HashMap<String, Integer>();
+		storedSize = 0;
 		gen = null;
 		currentSize = 0;
 
@@ -294,6 +315,7 @@ public class HarddriveStorage implements Storage {
 		}
 
 		maxTransferRate = rate;
+		modificationCount++;
 		return true;
 	}
 
@@ -360,29 +382,16 @@ public class HarddriveStorage implements Storage {
 			return obj;
 		}
 
-		Iterator<File> it = fileList.iterator();
-		int size = 0;
-		int index = 0;
-		boolean found = false;
-		File tempFile = null;
-
 		// find the file in the disk
-		while (it.hasNext()) {
-			tempFile = it.next();
-			size += tempFile.getSize();
-			if (tempFile.getName().equals(fileName)) {
-				found = true;
-				obj = tempFile;
-				break;
-			}
+		obj = fileMap.get(fileName);
 
-			index++;
-		}
-
-		// if the file is found, then determine the time taken to get it
-		if (found) {
-			obj = fileList.get(index);
-			double seekTime = getSeekTime(size);
+		// if the file is found, then determine the time taken to get it, the seek time depending on
+		// the size of the files up to it
+		if (obj != null) {
+			if (offsetMap == null) {
+				computeOffsets();
+			}
+			double seekTime = getSeekTime(offsetMap.get(fileName));
 			double transferTime = getTransferTime(obj.getSize());
 
 			// total time for this operation
@@ -392,6 +401,18 @@ public class HarddriveStorage implements Storage {
 		return obj;
 	}
 
+	/**
+	 * Computes the total size of the files from the start of the file list up to each file.
+	 */
+	private void computeOffsets() {
+		offsetMap = new HashMap<String, Integer>();
+		int size = 0;
+		for (File file : fileList) {
+			size += file.getSize();
+			offsetMap.put(file.getName(), size);
+		}
+	}
+
 	/**
 	 * Gets the list of file names located on this storage.
 	 * 
@@ -493,7 +514,13 @@ public class HarddriveStorage implements Storage {
 
 			fileList.add(file);               // add the file into the HD
 			nameList.add(file.getName());     // add the name to the name list
+			fileMap.put(file.getName(), file);
+			storedSize += file.getSize();
+			if (offsetMap != null) {
+				offsetMap.put(file.getName(), storedSize);
+			}
 			currentSize += file.getSize();    // increment the current HD size
+			modificationCount++;
 			result = seekTime + transferTime;  // add total time
 		}
 		file.setTransactionTime(result);
@@ -538,20 +565,11 @@ public class HarddriveStorage implements Storage {
 			return null;
 		}
 
-		Iterator<File> it = fileList.iterator();
-		File file = null;
-		while (it.hasNext()) {
-			file = it.next();
-			String name = file.getName();
-
-			// if a file is found then delete
-			if (fileName.equals(name)) {
-				double result = deleteFile(file);
-				file.setTransactionTime(result);
-				break;
-			} else {
-				file = null;
-			}
+		// if a file is found then delete
+		File file = fileMap.get(fileName);
+		if (file != null) {
+			double result = deleteFile(file);
+			file.setTransactionTime(result);
 		}
 		return file;
 	}
@@ -588,9 +606,12 @@ public class HarddriveStorage implements Storage {
 
 		// check if the file is in the storage
 		if (contains(file)) {
-			fileList.remove(file);            // remove the file HD
+			fileList.remove(fileMap.remove(file.getName())); // remove the file HD
 			nameList.remove(file.getName());  // remove the name from name list
+			storedSize -= file.getSize();
+			offsetMap = null;                 // the offsets of the following files changed
 			currentSize -= file.getSize();    // decrement the current HD space
+			modificationCount++;
 			result = seekTime + transferTime;  // total time
 			file.setTransactionTime(result);
 		}
@@ -605,21 +626,11 @@ public class HarddriveStorage implements Storage {
 	 */
 	@Override
 	public boolean contains(String fileName) {
-		boolean result = false;
 		if (fileName == null || fileName.length() == 0) {
 			Log.printLine(name + ".contains(): Warning - invalid file name");
-			return result;
-		}
-		// check each file in the list
-		Iterator<String> it = nameList.iterator();
-		while (it.hasNext()) {
-			String name = it.next();
-			if (name.equals(fileName)) {
-				result = true;
-				break;
-			}
+			return false;
 		}
-		return result;
+		return fileMap.containsKey(fileName);
 	}
 
 	/**
@@ -656,28 +667,40 @@ public class HarddriveStorage implements Storage {
 			return result;
 		}
 
-		// replace the file name in the file (physical) list
-		File obj = getFile(file.getName());
+		// replace the file name in the file (physical) list, keeping the old name, which is also
+		// the name of the given file when it is the stored one
+		String oldName = file.getName();
+		File obj = getFile(oldName);
 		if (obj == null) {
 			return result;
 		} else {
 			obj.setName(newName);
 		}
 
-		// replace the file name in the name list
-		Iterator<String> it = nameList.iterator();
-		while (it.hasNext()) {
-			String name = it.next();
-			if (name.equals(file.getName())) {
-				file.setTransactionTime(0);
-				nameList.remove(name);
-				nameList.add(newName);
-				result = true;
-				break;
-			}
+		// replace the file name in the name list and in the indexes
+		modificationCount++;
+		fileMap.put(newName, fileMap.remove(oldName));
+		if (offsetMap != null) {
+			offsetMap.put(newName, offsetMap.remove(oldName));
+		}
+		if (nameList.remove(oldName)) {
+			file.setTransactionTime(0);
+			nameList.add(newName);
+			result = true;
 		}
 
 		return result;
 	}
 
+	/**
+	 * Gets the number of changes made to the storage: files added, deleted or renamed, and changes
+	 * of the transfer rate.
+	 * 
+	 * @return the number of changes
+	 */
+	@Override
+	public int getModificationCount() {
+		return modificationCount;
+	}
+
 }
@@ -518,6 +518,7 @@ public class Host {
 	 */
 	protected <T extends Pe> void setPeList(List<T> peList) {
 		this.peList = peList;
+		PeStatusIndex.of(peList);
 	}
 
 	/**
@@ -10,19 +10,49 @@ package org.cloudbus.cloudsim;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.Supplier;
 
 /**
  * The Log class used for performing loggin of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p>
+ * Messages can be given a level; a message is written only if the output is enabled and its level
+ * is not below the current level (see {@link #isEnabled(int)}). The level-aware overloads taking a
+ * {@link Supplier} or a format with arguments build the message only when it is written, so hot
+ * paths can log without paying for string building when logging is off. Callers that log per
+ * cloudlet should additionally guard the call with {@link #isEnabled(int)} to avoid allocating the
+ * supplier or the argument array. To keep the simulation thread from blocking on I/O, the output
+ * can be replaced by an {@link AsyncLogOutputStream}.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
 public class Log {
 
+	/** The debug level, used for per-event and per-cloudlet messages. */
+	public static final int DEBUG = 0;
+
+	/** The info level, used by the non level-aware methods. */
+	public static final int INFO = 1;
+
+	/** The warning level. */
+	public static final int WARNING = 2;
+
+	/** The error level. */
+	public static final int ERROR = 3;
+
+	/** The level above all others, which turns every level-aware message off. */
+	public static final int OFF = 4;
+
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
+	/** The Constant LINE_SEPARATOR_BYTES. */
+	private static final byte[] LINE_SEPARATOR_BYTES = LINE_SEPARATOR.getBytes();
+
+	/** The minimum level of the messages written. */
+	private static int level = DEBUG;
+
 	/** The output. */
 	private static OutputStream output;
 
@@ -35,12 +65,8 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void print(String message) {
-		if (!isDisabled()) {
-			try {
-				getOutput().write(message.getBytes());
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+		if (isEnabled(INFO)) {
+			write(message);
 		}
 	}
 
@@ -50,7 +76,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void print(Object message) {
-		if (!isDisabled()) {
+		if (isEnabled(INFO)) {
 			print(String.valueOf(message));
 		}
 	}
@@ -61,8 +87,8 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(String message) {
-		if (!isDisabled()) {
-			print(message + LINE_SEPARATOR);
+		if (isEnabled(INFO)) {
+			writeLine(message);
 		}
 	}
 
@@ -70,7 +96,7 @@ public class Log {
 	 * Prints the empty line.
 	 */
 	public static void printLine() {
-		if (!isDisabled()) {
+		if (isEnabled(INFO)) {
 			print(LINE_SEPARATOR);
 		}
 	}
@@ -81,7 +107,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(Object message) {
-		if (!isDisabled()) {
+		if (isEnabled(INFO)) {
 			printLine(String.valueOf(message));
 		}
 	}
@@ -93,7 +119,7 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void format(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isEnabled(INFO)) {
 			print(String.format(format, args));
 		}
 	}
@@ -105,11 +131,119 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void formatLine(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isEnabled(INFO)) {
 			printLine(String.format(format, args));
 		}
 	}
 
+	/**
+	 * Prints the line if the given level is enabled.
+	 * 
+	 * @param level the level of the message
+	 * @param message the message
+	 */
+	public static void printLine(int level, String message) {
+		if (isEnabled(level)) {
+			writeLine(message);
+		}
+	}
+
+	/**
+	 * Prints the line supplied by the given supplier. The supplier is called only if the given
+	 * level is enabled.
+	 * 
+	 * @param level the level of the message
+	 * @param message the message supplier
+	 */
+	public static void printLine(int level, Supplier<String> message) {
+		if (isEnabled(level)) {
+			writeLine(message.get());
+		}
+	}
+
+	/**
+	 * Prints a line formated as in String.format() if the given level is enabled. The line is
+	 * formatted only if it is written.
+	 * 
+	 * @param level the level of the message
+	 * @param format the format
+	 * @param args the args
+	 */
+	public static void formatLine(int level, String format, Object... args) {
+		if (isEnabled(level)) {
+			writeLine(String.format(format, args));
+		}
+	}
+
+	/**
+	 * Writes the message to the output.
+	 * 
+	 * @param message the message
+	 */
+	private static void write(String message) {
+		try {
+			getOutput().write(message.getBytes());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes the message followed by the line separator to the output.
+	 * 
+	 * @param message the message
+	 */
+	private static void writeLine(String message) {
+		try {
+			OutputStream out = getOutput();
+			out.write(message.getBytes());
+			out.write(LINE_SEPARATOR_BYTES);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Checks if messages of the given level are written, i.e. the output is not disabled and the
+	 * level is not below the current level.
+	 * 
+	 * @param level the level
+	 * @return true, if enabled
+	 */
+	public static boolean isEnabled(int level) {
+		return !disabled && level >= Log.level;
+	}
+
+	/**
+	 * Sets the minimum level of the messages written.
+	 * 
+	 * @param _level the new level, one of {@link #DEBUG}, {@link #INFO}, {@link #WARNING},
+	 *            {@link #ERROR} or {@link #OFF}
+	 */
+	public static void setLevel(int _level) {
+		level = _level;
+	}
+
+	/**
+	 * Gets the minimum level of the messages written.
+	 * 
+	 * @return the level
+	 */
+	public static int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Flushes the output.
+	 */
+	public static void flush() {
+		try {
+			getOutput().flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 	/**
 	 * Sets the output.
 	 * 
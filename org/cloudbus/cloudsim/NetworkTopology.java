@@ -9,9 +9,8 @@
 package org.cloudbus.cloudsim;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
@@ -29,6 +28,12 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * Nevertheless, each CloudSim entity must be mapped to one (and only one) BRITE node to allow
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
+ * <p>
+ * The delay matrix is computed once, when the first delay is asked for after the topology changed,
+ * or when {@link #seal()} is called, so that building a topology link by link does not recompute
+ * the delays of all the pairs of nodes after each link. The mappings between entities and nodes
+ * are kept in arrays indexed by entity id and by node id, so that the delay of a message is read
+ * without any lookup in a map.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -46,7 +51,14 @@ public class NetworkTopology {
 
 	protected static TopologicalGraph graph = null;
 
-	protected static Map<Integer, Integer> map = null;
+	/** The node of each entity, by entity id, or -1 if the entity is not mapped. */
+	protected static int[] entityToNode = new int[0];
+
+	/** The entity of each node, by node id, or -1 if the node is not mapped. */
+	protected static int[] nodeToEntity = new int[0];
+
+	/** Whether the topology changed since the matrices were generated. */
+	private static boolean dirty = false;
 
 	/**
 	 * Creates the network topology if file exists and if file can be succesfully parsed. File is
@@ -64,7 +76,9 @@ public class NetworkTopology {
 
 		try {
 			graph = reader.readGraphFile(fileName);
-			map = new HashMap<Integer, Integer>();
+			entityToNode = new int[0];
+			nodeToEntity = new int[0];
+			nextIdx = 0;
 			generateMatrices();
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
@@ -84,9 +98,61 @@ public class NetworkTopology {
 		// creates the bw matrix
 		bwMatrix = createBwMatrix(graph, false);
 
+		dirty = false;
 		networkEnabled = true;
 	}
 
+	/**
+	 * Generates the delay and bandwidth matrices if the topology changed since they were last
+	 * generated. It is called by {@link #getDelay(int, int)} when needed; calling it once the
+	 * topology is complete moves the computation of the delays before the simulation starts.
+	 */
+	public static void seal() {
+		if (dirty) {
+			generateMatrices();
+		}
+	}
+
+	/**
+	 * Maps an entity to a node, growing the arrays as needed.
+	 * 
+	 * @param entityId the id of the entity
+	 * @param nodeId the id of the node
+	 */
+	private static void setMapping(int entityId, int nodeId) {
+		if (entityId >= entityToNode.length) {
+			entityToNode = grow(entityToNode, entityId + 1);
+		}
+		if (nodeId >= nodeToEntity.length) {
+			nodeToEntity = grow(nodeToEntity, nodeId + 1);
+		}
+		entityToNode[entityId] = nodeId;
+		nodeToEntity[nodeId] = entityId;
+	}
+
+	/**
+	 * Gets the node of an entity.
+	 * 
+	 * @param entityId the id of the entity
+	 * @return the id of the node, or -1 if the entity is not mapped
+	 */
+	private static int getNode(int entityId) {
+		return entityId >= 0 && entityId < entityToNode.length ? entityToNode[entityId] : -1;
+	}
+
+	/**
+	 * Copies a mapping array into a larger one, the new entries being -1.
+	 * 
+	 * @param array the array
+	 * @param minLength the minimum length of the new array
+	 * @return the new array
+	 */
+	private static int[] grow(int[] array, int minLength) {
+		int[] grown = Arrays.copyOf(array, Math.max(minLength, array.length * 2));
+		Arrays.fill(grown, array.length, grown.length, -1);
+		return grown;
+	}
+
 	/**
 	 * Adds a new link in the network topology
 	 * 
@@ -104,27 +170,24 @@ public class NetworkTopology {
 			graph = new TopologicalGraph();
 		}
 
-		if (map == null) {
-			map = new HashMap<Integer, Integer>();
-		}
-
 		// maybe add the nodes
-		if (!map.containsKey(srcId)) {
+		if (getNode(srcId) < 0) {
 			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
+			setMapping(srcId, nextIdx);
 			nextIdx++;
 		}
 
-		if (!map.containsKey(destId)) {
+		if (getNode(destId) < 0) {
 			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
+			setMapping(destId, nextIdx);
 			nextIdx++;
 		}
 
-		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		// generate a new link; the matrices are generated when a delay is next needed
+		graph.addLink(new TopologicalLink(getNode(srcId), getNode(destId), (float) lat, (float) bw));
 
-		generateMatrices();
+		dirty = true;
+		networkEnabled = true;
 
 	}
 
@@ -174,9 +237,10 @@ public class NetworkTopology {
 		if (networkEnabled) {
 			try {
 				// this CloudSim entity was already mapped?
-				if (!map.containsKey(cloudSimEntityID)) {
-					if (!map.containsValue(briteID)) { // this BRITE node was already mapped?
-						map.put(cloudSimEntityID, briteID);
+				if (getNode(cloudSimEntityID) < 0) {
+					// this BRITE node was already mapped?
+					if (briteID >= nodeToEntity.length || nodeToEntity[briteID] < 0) {
+						setMapping(cloudSimEntityID, briteID);
 					} else {
 						Log.printLine("Error in network mapping. BRITE node " + briteID + " already in use.");
 					}
@@ -201,7 +265,11 @@ public class NetworkTopology {
 	public static void unmapNode(int cloudSimEntityID) {
 		if (networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				int node = getNode(cloudSimEntityID);
+				if (node >= 0) {
+					entityToNode[cloudSimEntityID] = -1;
+					nodeToEntity[node] = -1;
+				}
 			} catch (Exception e) {
 				Log.printLine("Error in network unmapping. CloudSim node: " + cloudSimEntityID);
 			}
@@ -220,13 +288,13 @@ public class NetworkTopology {
 	 */
 	public static double getDelay(int srcID, int destID) {
 		if (networkEnabled) {
-			try {
-				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
-
-				return delay;
-			} catch (Exception e) {
-				// in case of error, just keep running and return 0.0
+			seal();
+			int src = getNode(srcID);
+			int dest = getNode(destID);
+			int nodes = delayMatrix.getTotalNodeNum();
+			// unmapped entities, as well as nodes outside the matrix, have no latency
+			if (src >= 0 && dest >= 0 && src < nodes && dest < nodes) {
+				return delayMatrix.getDelay(src, dest);
 			}
 		}
 		return 0.0;
@@ -43,6 +43,12 @@ public class Pe {
 	/** The pe provisioner. */
 	private PeProvisioner peProvisioner;
 
+	/** The index of the status of the pe list this Pe belongs to, if any. */
+	private PeStatusIndex statusIndex;
+
+	/** The position of this Pe in the indexed pe list. */
+	private int statusPosition;
+
 	/**
 	 * Allocates a new Pe object.
 	 * 
@@ -151,7 +157,31 @@ public class Pe {
 	 * @post $none
 	 */
 	public void setStatus(int status) {
+		int oldStatus = this.status;
 		this.status = status;
+		if (statusIndex != null && oldStatus != status) {
+			statusIndex.statusChanged(statusPosition, oldStatus, status);
+		}
+	}
+
+	/**
+	 * Gets the index of the status of the pe list this Pe belongs to.
+	 * 
+	 * @return the status index, or <tt>null</tt> if the Pe is not indexed
+	 */
+	public PeStatusIndex getStatusIndex() {
+		return statusIndex;
+	}
+
+	/**
+	 * Attaches this Pe to the index of the status of its pe list.
+	 * 
+	 * @param statusIndex the status index
+	 * @param statusPosition the position of this Pe in the indexed pe list
+	 */
+	void setStatusIndex(PeStatusIndex statusIndex, int statusPosition) {
+		this.statusIndex = statusIndex;
+		this.statusPosition = statusPosition;
 	}
 
 	/**
@@ -0,0 +1,148 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An index of the status of the PEs of a list. It keeps a bit per PE telling whether the PE is
+ * {@link Pe#FREE}, plus the number of free and busy PEs, and is updated by the PEs themselves when
+ * their status changes. Counting the free or busy PEs is then O(1) and finding a free PE is
+ * O(words) instead of a walk over the whole list. A PE belongs to at most one index; a list whose
+ * PEs are already indexed through another list is not indexed, and {@link #get(List)} returns
+ * <tt>null</tt> for it.
+ *
+ * @since CloudSim Toolkit 3.0
+ * @see org.cloudbus.cloudsim.lists.PeList
+ */
+public class PeStatusIndex {
+
+	/** The indexed pe list. */
+	private final List<? extends Pe> peList;
+
+	/** The number of PEs when the list was indexed. */
+	private final int size;
+
+	/** The positions of the free PEs in the list. */
+	private final BitSet freePes;
+
+	/** The number of free PEs. */
+	private int numberOfFreePes;
+
+	/** The number of busy PEs. */
+	private int numberOfBusyPes;
+
+	/**
+	 * Creates an index of a pe list and attaches it to the PEs.
+	 *
+	 * @param peList the pe list
+	 */
+	private PeStatusIndex(List<? extends Pe> peList) {
+		this.peList = peList;
+		size = peList.size();
+		freePes = new BitSet(size);
+		int position = 0;
+		for (Pe pe : peList) {
+			pe.setStatusIndex(this, position);
+			statusChanged(position, 0, pe.getStatus());
+			position++;
+		}
+	}
+
+	/**
+	 * Gets the index of a pe list, indexing the list if none of its PEs is indexed yet.
+	 *
+	 * @param peList the pe list
+	 * @return the index, or <tt>null</tt> if the PEs are indexed through another list
+	 */
+	public static PeStatusIndex of(List<? extends Pe> peList) {
+		if (peList == null) {
+			return null;
+		}
+		PeStatusIndex index = get(peList);
+		if (index != null) {
+			return index;
+		}
+		for (Pe pe : peList) {
+			if (pe.getStatusIndex() != null) {
+				return null;
+			}
+		}
+		return new PeStatusIndex(peList);
+	}
+
+	/**
+	 * Gets the index of a pe list.
+	 *
+	 * @param peList the pe list
+	 * @return the index, or <tt>null</tt> if the list is not indexed
+	 */
+	public static PeStatusIndex get(List<? extends Pe> peList) {
+		if (peList == null || peList.isEmpty()) {
+			return null;
+		}
+		PeStatusIndex index = peList.get(0).getStatusIndex();
+		if (index == null || index.peList != peList || index.size != peList.size()) {
+			return null;
+		}
+		return index;
+	}
+
+	/**
+	 * Called by a PE of the list when its status changes.
+	 *
+	 * @param position the position of the PE in the list
+	 * @param oldStatus the previous status
+	 * @param newStatus the new status
+	 */
+	void statusChanged(int position, int oldStatus, int newStatus) {
+		if (oldStatus == Pe.FREE) {
+			freePes.clear(position);
+			numberOfFreePes--;
+		} else if (oldStatus == Pe.BUSY) {
+			numberOfBusyPes--;
+		}
+		if (newStatus == Pe.FREE) {
+			freePes.set(position);
+			numberOfFreePes++;
+		} else if (newStatus == Pe.BUSY) {
+			numberOfBusyPes++;
+		}
+	}
+
+	/**
+	 * Gets the number of free PEs.
+	 *
+	 * @return the number of free PEs
+	 */
+	public int getNumberOfFreePes() {
+		return numberOfFreePes;
+	}
+
+	/**
+	 * Gets the number of busy PEs.
+	 *
+	 * @return the number of busy PEs
+	 */
+	public int getNumberOfBusyPes() {
+		return numberOfBusyPes;
+	}
+
+	/**
+	 * Gets the first free PE of the list.
+	 *
+	 * @return the PE, or <tt>null</tt> if no PE is free
+	 */
+	public Pe getFreePe() {
+		int position = freePes.nextSetBit(0);
+		return position < 0 ? null : peList.get(position);
+	}
+
+}
@@ -194,4 +194,12 @@ public interface Storage {
 	 */
 	boolean renameFile(File file, String newName);
 
+	/**
+	 * Gets the number of changes made to the storage: files added, deleted or renamed, and changes
+	 * of the transfer rate. It only grows, so that a change made since a given count can be told.
+	 * 
+	 * @return the number of changes
+	 */
+	int getModificationCount();
+
 }
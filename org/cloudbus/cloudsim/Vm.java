@@ -13,11 +13,6 @@ import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -28,8 +23,12 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.ArmaFitter;
+import org.cloudbus.cloudsim.util.JdbcTraceSource;
+import org.cloudbus.cloudsim.util.RangeMaxTable;
 
 
 /**
@@ -96,14 +95,66 @@ public class Vm {
 
 	/** The mips allocation history. */
 	private final List<VmStateHistoryEntry> stateHistory = new LinkedList<VmStateHistoryEntry>();
-	private static final int SLOT=300;
+
+	/** The length of a utilization and prediction slot, in seconds. */
+	public static final int SLOT=300;
 	private Map<Integer, Double> utilizationHistory=new TreeMap<Integer, Double>();
-	private Map<Integer, Double> productUsage=new HashMap<Integer, Double>();
+
+	/** The length of a product usage record, in seconds. */
+	public static final int PRODUCT_USAGE_INTERVAL = 300;
+
+	/** The window maxima of the product usage of this VM, or null to use the shared product usage. */
+	private RangeMaxTable productUsageMax;
+
+	/** The window maxima of the product usage shared by the VMs, loaded on first use. */
+	private static RangeMaxTable sharedProductUsageMax;
+
+	/** How far ahead the product usage is looked at when computing the available PEs, in seconds. */
+	private int lookAhead = SLOT;
 	public Map<Integer, Double> vm300=new HashMap<Integer, Double>();
 	private static BigDecimal Fi1=new BigDecimal(-0.509);
 	private static BigDecimal Fi2=new BigDecimal(-0.21);
 	private static int previousTime=0;
 	private static double previousUsage=0.0;
+
+	/** The next free handle. */
+	private static final AtomicInteger nextHandle = new AtomicInteger();
+
+	/** The dense integer handle of the VM, see {@link #getHandle()}. */
+	private final int handle;
+
+	/**
+	 * The version of the utilization history, increased each time {@link #addUtilization(double)}
+	 * changes it. The cached predictions are valid only for the version they were computed from.
+	 */
+	private long historyVersion;
+
+	/** The slot of the cached ARMA prediction. */
+	private int armaCacheSlot = -1;
+
+	/** The history version of the cached ARMA prediction. */
+	private long armaCacheVersion = -1;
+
+	/** The cached ARMA prediction of the available PEs. */
+	private int armaCacheValue;
+
+	/** The AR(2) prediction of a VM predicted to be fully used, whatever its current load. */
+	private static final int SATURATED = Integer.MIN_VALUE;
+
+	/** The slot of the cached AR(2) prediction. */
+	private int gratisCacheSlot = -1;
+
+	/** The history version of the cached AR(2) prediction. */
+	private long gratisCacheVersion = -1;
+
+	/** The cached AR(2) prediction of the available PEs, before the cap by the current ones. */
+	private int gratisCacheValue;
+
+	/** The ARMA coefficient of the utilization of the current slot. */
+	private double armaCoefficient1 = ArmaFitter.DEFAULT_C1;
+
+	/** The ARMA coefficient of the utilization of the previous slot. */
+	private double armaCoefficient2 = ArmaFitter.DEFAULT_C2;
 	/**
 	 * Creates a new VMCharacteristics object.
 	 * n 
@@ -136,6 +187,7 @@ public class Vm {
 			long size,
 			String vmm,
 			CloudletScheduler cloudletScheduler) {
+		handle = nextHandle.getAndIncrement();
 		setId(id);
 		setUserId(userId);
 		setUid(getUid(userId, id));
@@ -156,7 +208,6 @@ public class Vm {
 		setCurrentAllocatedSize(0);
 		utilizationHistory.put(0,0.0);
 		vm300.put(0,0.0);
-		initProductUsage();
 	}
 
 	/**
@@ -269,6 +320,17 @@ public class Vm {
 		return userId + "-" + vmId;
 	}
 
+	/**
+	 * Gets the handle of the VM. Handles are small non-negative integers, unique among all the VMs
+	 * created in this JVM and assigned in creation order. They key the {@link VmTable}s used
+	 * instead of maps keyed by the string uid.
+	 * 
+	 * @return the handle
+	 */
+	public int getHandle() {
+		return handle;
+	}
+
 	/**
 	 * Gets the id.
 	 * 
@@ -625,6 +687,7 @@ public class Vm {
 
 	public void setUtilizationHistory(Map<Integer, Double> utilizationHistory) {
 		this.utilizationHistory = utilizationHistory;
+		historyVersion++;
 	}
 
 	/**
@@ -637,51 +700,158 @@ public class Vm {
 	public int getAvaliablePEs(double time){
 		int avaliablePe=getCloudletScheduler().getAvaliablePEs();
 		
-		int key=(int)(time/300);
-		double maxusage=0;
-		if(productUsage.containsKey(key))
-			maxusage=productUsage.get(key);
-		
-		for (int i=1;i<SLOT/300;i++){
-			if(productUsage.containsKey(key+i))
-				if(maxusage<productUsage.get(key+i))
-					maxusage=productUsage.get(key+i);
-				}
+		double maxusage=getProductUsageMax(time, getLookAhead());
 		avaliablePe-=(int)Math.ceil(maxusage*getNumberOfPes());
 		
 		return avaliablePe;
 	}
-	
-	private void initProductUsage(){
+
+	/**
+	 * Gets the maximum product usage over a look-ahead horizon, as used by
+	 * {@link #getAvaliablePEs(double)} with the horizon {@link #getLookAhead()}.
+	 * 
+	 * @param time the start of the horizon
+	 * @param horizon the length of the horizon, in seconds; a horizon shorter than
+	 *            {@link #PRODUCT_USAGE_INTERVAL} covers the record of <tt>time</tt>
+	 * @return the maximum usage of the product usage records in the horizon
+	 */
+	public double getProductUsageMax(double time, int horizon) {
+		int key = (int) (time / PRODUCT_USAGE_INTERVAL);
+		return getProductUsageTable().getMax(key, key + getRecords(horizon) - 1);
+	}
+
+	/**
+	 * Sets how far ahead the product usage is looked at by {@link #getAvaliablePEs(double)} and
+	 * {@link #getAvaliablePEsPridictBatch(double)}, e.g. 900 or 3600 seconds. It defaults to
+	 * {@link #SLOT}.
+	 * 
+	 * @param lookAhead the look-ahead, in seconds
+	 */
+	public void setLookAhead(int lookAhead) {
+		this.lookAhead = lookAhead;
+	}
+
+	/**
+	 * Gets how far ahead the product usage is looked at.
+	 * 
+	 * @return the look-ahead, in seconds
+	 */
+	public int getLookAhead() {
+		return lookAhead;
+	}
+
+	/**
+	 * Sets the coefficients of the ARMA prediction of {@link #getAvaliablePEsARMA(double)}, e.g.
+	 * fitted on the utilization history by {@link ArmaFitter}. They default to
+	 * {@link ArmaFitter#DEFAULT_C1} and {@link ArmaFitter#DEFAULT_C2}.
+	 * 
+	 * @param coefficient1 the coefficient of the utilization of the current slot
+	 * @param coefficient2 the coefficient of the utilization of the previous slot
+	 */
+	public void setArmaCoefficients(double coefficient1, double coefficient2) {
+		if (coefficient1 != armaCoefficient1 || coefficient2 != armaCoefficient2) {
+			armaCoefficient1 = coefficient1;
+			armaCoefficient2 = coefficient2;
+			armaCacheSlot = -1;
+		}
+	}
+
+	/**
+	 * Gets the ARMA coefficient of the utilization of the current slot.
+	 * 
+	 * @return the coefficient
+	 */
+	public double getArmaCoefficient1() {
+		return armaCoefficient1;
+	}
+
+	/**
+	 * Gets the ARMA coefficient of the utilization of the previous slot.
+	 * 
+	 * @return the coefficient
+	 */
+	public double getArmaCoefficient2() {
+		return armaCoefficient2;
+	}
+
+	/**
+	 * Gets the number of product usage records covered by a horizon.
+	 * 
+	 * @param horizon the horizon, in seconds
+	 * @return the number of records, at least one
+	 */
+	private static int getRecords(int horizon) {
+		return Math.max(1, horizon / PRODUCT_USAGE_INTERVAL);
+	}
+
+	/**
+	 * Replaces the product usage of this VM, e.g. with a synthetic series. The shared product
+	 * usage is then never loaded on behalf of this VM.
+	 *
+	 * @param usage the usage, as a fraction of the VM, by record index of
+	 *            {@link #PRODUCT_USAGE_INTERVAL} seconds
+	 */
+	public void setProductUsage(Map<Integer, Double> usage) {
+		productUsageMax = new RangeMaxTable(usage);
+	}
+
+	/**
+	 * Replaces the product usage shared by the VMs that have no product usage of their own,
+	 * which is otherwise loaded from the <tt>product</tt> table the first time a VM uses it.
+	 * Setting it before the simulation starts, e.g. to an empty series, runs without the database.
+	 *
+	 * @param usage the usage, as a fraction of a VM, by record index of
+	 *            {@link #PRODUCT_USAGE_INTERVAL} seconds
+	 */
+	public static synchronized void setSharedProductUsage(Map<Integer, Double> usage) {
+		sharedProductUsageMax = new RangeMaxTable(usage);
+	}
+
+	/**
+	 * Gets the window maxima of the product usage of this VM.
+	 *
+	 * @return the table of this VM, or the shared table
+	 */
+	private RangeMaxTable getProductUsageTable() {
+		if (productUsageMax == null) {
+			productUsageMax = getSharedProductUsageTable();
+		}
+		return productUsageMax;
+	}
+
+	/**
+	 * Gets the window maxima of the shared product usage, reading the <tt>product</tt> table once
+	 * for all the VMs.
+	 *
+	 * @return the table, empty if the table cannot be read
+	 */
+	private static synchronized RangeMaxTable getSharedProductUsageTable() {
+		if (sharedProductUsageMax == null) {
+			sharedProductUsageMax = new RangeMaxTable(readProductUsage());
+		}
+		return sharedProductUsageMax;
+	}
+
+	private static Map<Integer, Double> readProductUsage(){
+		//String select_sql = "select * from product_usage";
+		String select_sql="select time, cpuUsage from product";
+		Map<Integer, Double> productUsage=new HashMap<Integer, Double>();
 		try {
-			Class.forName("com.mysql.jdbc.Driver");// 加载驱动程序
-			Connection conn = DriverManager.getConnection("jdbc:mysql://127.0.0.1:3306/predict", "root","");// 连续数据库
-			Statement statement = conn.createStatement();// statement用来执行SQL语句
-			//String select_sql = "select * from product_usage";
-			
-			String select_sql="select * from product";
-			ResultSet result=null;
-			try {  
-	            statement = conn.prepareStatement(select_sql);  
-	            result = statement.executeQuery(select_sql);
-	            
-	            while(result.next()){
-	            	int time=Integer.parseInt(result.getString("time"));
-	            	double cpu=Double.valueOf(result.getString("cpuUsage"));
-	            	productUsage.put(time,cpu);
-	            	}
-			} catch (SQLException e) {  
-	            e.printStackTrace();  
-	        }				 
-	        conn.close();   
-		} catch(ClassNotFoundException e) {   
-		System.out.println("Sorry,can`t find the Driver!");   
-		e.printStackTrace();   
-		} catch(SQLException e) {   
-		e.printStackTrace();   
-		} catch(Exception e) {   
-		e.printStackTrace();   
+			// the rows are streamed from the database, one fetch at a time
+			JdbcTraceSource result = JdbcTraceSource.open(select_sql, JdbcTraceSource.DEFAULT_FETCH_SIZE);
+			try {
+				int timeColumn = result.getColumn("time");
+				int cpuColumn = result.getColumn("cpuUsage");
+				while(result.next()){
+					productUsage.put(result.getInt(timeColumn), result.getDouble(cpuColumn));
+				}
+			} finally {
+				result.close();
+			}
+		} catch(IOException e) {
+			e.printStackTrace();
 		}
+		return productUsage;
 	}
 
 	private void addUtilization(double time){
@@ -719,10 +889,13 @@ public class Vm {
 			if(getUtilizationHistory().get(key)<utilization){
 				getUtilizationHistory().remove(key);
 				getUtilizationHistory().put(key, utilization);
+				historyVersion++;
 			}
 		}
-		else
+		else {
 			getUtilizationHistory().put(key, utilization);
+			historyVersion++;
+		}
 			
 		if(key>1){
 			int old=key-1;
@@ -732,6 +905,7 @@ public class Vm {
 			old++;
 			while(old<key){
 				getUtilizationHistory().put(old, utilization);
+				historyVersion++;
 				old++;
 			}
 		}
@@ -812,6 +986,26 @@ public class Vm {
 		//if (key<3*num)
 		if(key<3)
 			return nowPE;
+		// the prediction depends only on the history; refit and predict again only when it changed
+		if (key != gratisCacheSlot || historyVersion != gratisCacheVersion) {
+			gratisCacheValue = predictPEsGratis(key);
+			gratisCacheSlot = key;
+			gratisCacheVersion = historyVersion;
+		}
+		if (gratisCacheValue == SATURATED)
+			return 0;
+		return Math.min(gratisCacheValue, nowPE);
+	}
+
+	/**
+	 * Predicts the available PEs of a slot with an AR(2) model fitted on the whole utilization
+	 * history, ignoring the PEs currently used by cloudlets.
+	 * 
+	 * @param key the slot
+	 * @return the predicted available PEs, or {@link #SATURATED} if the VM is predicted to be fully
+	 *         used
+	 */
+	private int predictPEsGratis(int key){
 		updateFi(key);
 		BigDecimal a=new BigDecimal(getUtilizationHistory().get(key));
 		//b=new BigDecimal(getUtilizationHistory().get(key-num));
@@ -827,25 +1021,13 @@ public class Vm {
 			predict=new BigDecimal(1);
 			
 		if(predict.doubleValue()>=1)
-			return 0;
+			return SATURATED;
 		BigDecimal pe=predict.multiply(new BigDecimal(getNumberOfPes()));
-		int avaPE=getNumberOfPes()-(int)Math.ceil(pe.doubleValue());
-		if(avaPE>nowPE)
-			return nowPE;
-		else
-			return avaPE;
+		return getNumberOfPes()-(int)Math.ceil(pe.doubleValue());
 	}
 	public int getAvaliablePEsPridictBatch(double time){
-		int key=(int)(time/300);
-		double max=0.0;
-		if(productUsage.containsKey(key))
-			max=productUsage.get(key);
-		for(int i=0;i<SLOT/300;i++){
-			if(productUsage.containsKey(key+i+1)){
-				if(max<productUsage.get(key+i+1))
-					max=productUsage.get(key+i+1);
-			}
-		}
+		int key=(int)(time/PRODUCT_USAGE_INTERVAL);
+		double max=getProductUsageTable().getMax(key, key + getRecords(getLookAhead()));
 					
 		int avaPE=getCloudletScheduler().getAvaliablePEs()-(int)Math.ceil(max*getNumberOfPes());
 		if(avaPE>0)
@@ -855,6 +1037,24 @@ public class Vm {
 	}
 	public int getAvaliablePEsARMA(double time){
 		int key=(int)(time/300);
+		// the prediction depends only on the history of this slot and the previous one
+		if (key == armaCacheSlot && historyVersion == armaCacheVersion) {
+			return armaCacheValue;
+		}
+		armaCacheValue = predictPEsARMA(key);
+		armaCacheSlot = key;
+		armaCacheVersion = historyVersion;
+		return armaCacheValue;
+	}
+
+	/**
+	 * Predicts the available PEs of a slot with the ARMA model from the utilization of the slot and
+	 * of the previous one.
+	 * 
+	 * @param key the slot
+	 * @return the predicted available PEs
+	 */
+	private int predictPEsARMA(int key){
 		//int nowPE=getAvaliablePEs(time);
 		//if (key<3)
 		//	return nowPE;
@@ -867,7 +1067,7 @@ public class Vm {
 		//xn=(ar-ma)*x(n-1)+ma*x(n-2)
 				//ar=0.995 ma=0.318
 		//batch=a.multiply(new BigDecimal(0.413)).add(b.multiply(new BigDecimal(0.586)));
-		BigDecimal predict=a.multiply(new BigDecimal(0.667)).add(b.multiply(new BigDecimal(0.318)));
+		BigDecimal predict=a.multiply(new BigDecimal(armaCoefficient1)).add(b.multiply(new BigDecimal(armaCoefficient2)));
 		
 		if(predict.compareTo(new BigDecimal(0))<0)
 			predict=new BigDecimal(0);
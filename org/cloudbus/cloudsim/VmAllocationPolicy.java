@@ -11,6 +11,8 @@ package org.cloudbus.cloudsim;
 import java.util.List;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.CloudSimTags;
+
 
 /**
  * VmAllocationPolicy is an abstract class that represents the provisioning policy of hosts to
@@ -59,6 +61,27 @@ public abstract class VmAllocationPolicy {
 	
 	public abstract boolean allocateHostForVm(Vm vm, Host host);
 
+	/**
+	 * Allocates hosts for a list of VMs, as done for the VMs of a {@link CloudSimTags#VM_LIST_CREATE}
+	 * request. The default implementation allocates the VMs one by one, in list order; policies may
+	 * reorder the list to pack the VMs better. Whether a VM got a host can be checked with
+	 * {@link #getHost(Vm)}.
+	 * 
+	 * @param vmList the vm list
+	 * @return the number of VMs that got a host
+	 * @pre vmList != null
+	 * @post $result >= 0
+	 */
+	public int allocateHostsForVms(List<? extends Vm> vmList) {
+		int allocated = 0;
+		for (Vm vm : vmList) {
+			if (allocateHostForVm(vm)) {
+				allocated++;
+			}
+		}
+		return allocated;
+	}
+
 
 	/**
 	 * Optimize allocation of the VMs according to current utilization.
@@ -0,0 +1,289 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * VmAllocationPolicyBestFit is a VmAllocationPolicy that chooses, as the host for a VM, the host
+ * with the fewest free PEs that still fits the VM, like {@link VmAllocationPolicySimple} does. The
+ * hosts are kept ordered by their number of free PEs (ties by their position in the host list), so
+ * finding the host is O(log H) instead of a scan of all the hosts per try. If the chosen host
+ * refuses the VM (e.g. for lack of RAM or bandwidth), the next host in the order is tried.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class VmAllocationPolicyBestFit extends VmAllocationPolicy {
+
+	/** The vm table. */
+	private VmTable<Host> vmTable;
+
+	/** The used pes. */
+	private VmTable<Integer> usedPes;
+
+	/** The number of free PEs of each host, by position in the host list. */
+	private final int[] freePes;
+
+	/** The positions of the hosts in the host list. */
+	private final Map<Host, Integer> hostPositions;
+
+	/** The positions of the hosts, grouped by number of free PEs. */
+	private final TreeMap<Integer, TreeSet<Integer>> hostsByFreePes;
+
+	/**
+	 * Creates the new VmAllocationPolicyBestFit object.
+	 *
+	 * @param list the list
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyBestFit(List<? extends Host> list) {
+		super(list);
+		freePes = new int[list.size()];
+		hostPositions = new HashMap<Host, Integer>();
+		hostsByFreePes = new TreeMap<Integer, TreeSet<Integer>>();
+		int position = 0;
+		for (Host host : getHostList()) {
+			hostPositions.put(host, position);
+			freePes[position] = host.getNumberOfPes();
+			addToIndex(position);
+			position++;
+		}
+		setVmTable(new VmTable<Host>());
+		setUsedPes(new VmTable<Integer>());
+	}
+
+	/**
+	 * Allocates a host for a given VM.
+	 *
+	 * @param vm VM specification
+	 * @return $true if the host could be allocated; $false otherwise
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public boolean allocateHostForVm(Vm vm) {
+		if (getVmTable().containsKey(vm)) { // this vm was already created
+			return false;
+		}
+		int requiredPes = vm.getNumberOfPes();
+		for (TreeSet<Integer> positions : hostsByFreePes.tailMap(requiredPes).values()) {
+			for (Integer position : positions) {
+				Host host = getHostList().get(position);
+				if (host.vmCreate(vm)) {
+					allocated(vm, host, position, requiredPes);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Allocates hosts for a list of VMs. The VMs are placed in decreasing order of their number of
+	 * PEs (best-fit decreasing), which leaves fewer unusable fragments than placing them in list
+	 * order; VMs with the same number of PEs keep their relative order.
+	 *
+	 * @param vmList the vm list
+	 * @return the number of VMs that got a host; the others can be found through
+	 *         {@link #getHost(Vm)} returning <tt>null</tt>
+	 */
+	@Override
+	public int allocateHostsForVms(List<? extends Vm> vmList) {
+		List<Vm> sorted = new ArrayList<Vm>(vmList);
+		Collections.sort(sorted, new Comparator<Vm>() {
+
+			@Override
+			public int compare(Vm vm1, Vm vm2) {
+				return vm2.getNumberOfPes() - vm1.getNumberOfPes();
+			}
+		});
+		int allocated = 0;
+		for (Vm vm : sorted) {
+			if (allocateHostForVm(vm)) {
+				allocated++;
+			}
+		}
+		return allocated;
+	}
+
+	/**
+	 * Releases the host used by a VM.
+	 *
+	 * @param vm the vm
+	 * @pre $none
+	 * @post none
+	 */
+	@Override
+	public void deallocateHostForVm(Vm vm) {
+		Host host = getVmTable().remove(vm);
+		Integer pes = getUsedPes().remove(vm);
+		if (host != null) {
+			int position = hostPositions.get(host);
+			host.vmDestroy(vm);
+			removeFromIndex(position);
+			freePes[position] += pes;
+			addToIndex(position);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.VmAllocationPolicy#allocateHostForVm(org.cloudbus.cloudsim.Vm,
+	 * org.cloudbus.cloudsim.Host)
+	 */
+	@Override
+	public boolean allocateHostForVm(Vm vm, Host host) {
+		Integer position = hostPositions.get(host);
+		if (position != null && host.vmCreate(vm)) { // if vm has been succesfully created in the host
+			allocated(vm, host, position, vm.getNumberOfPes());
+			Log.formatLine(
+					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
+					CloudSim.clock());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Records that a VM has been created in a host.
+	 *
+	 * @param vm the vm
+	 * @param host the host
+	 * @param position the position of the host in the host list
+	 * @param requiredPes the number of PEs of the vm
+	 */
+	private void allocated(Vm vm, Host host, int position, int requiredPes) {
+		getVmTable().put(vm, host);
+		getUsedPes().put(vm, requiredPes);
+		removeFromIndex(position);
+		freePes[position] -= requiredPes;
+		addToIndex(position);
+	}
+
+	/**
+	 * Adds a host to the free PE index, under its current number of free PEs.
+	 *
+	 * @param position the position of the host in the host list
+	 */
+	private void addToIndex(int position) {
+		TreeSet<Integer> positions = hostsByFreePes.get(freePes[position]);
+		if (positions == null) {
+			positions = new TreeSet<Integer>();
+			hostsByFreePes.put(freePes[position], positions);
+		}
+		positions.add(position);
+	}
+
+	/**
+	 * Removes a host from the free PE index.
+	 *
+	 * @param position the position of the host in the host list
+	 */
+	private void removeFromIndex(int position) {
+		TreeSet<Integer> positions = hostsByFreePes.get(freePes[position]);
+		positions.remove(position);
+		if (positions.isEmpty()) {
+			hostsByFreePes.remove(freePes[position]);
+		}
+	}
+
+	/**
+	 * Gets the number of free PEs of a host, as seen by this policy.
+	 *
+	 * @param host the host
+	 * @return the number of free PEs, or -1 if the host is not managed by this policy
+	 */
+	public int getFreePes(Host host) {
+		Integer position = hostPositions.get(host);
+		return position == null ? -1 : freePes[position];
+	}
+
+	/**
+	 * Gets the host that is executing the given VM belonging to the given user.
+	 *
+	 * @param vm the vm
+	 * @return the Host with the given vmID and userID; $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Host getHost(Vm vm) {
+		return getVmTable().get(vm);
+	}
+
+	/**
+	 * Gets the host that is executing the given VM belonging to the given user.
+	 *
+	 * @param vmId the vm id
+	 * @param userId the user id
+	 * @return the Host with the given vmID and userID; $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Host getHost(int vmId, int userId) {
+		return getVmTable().get(vmId, userId);
+	}
+
+	/**
+	 * Gets the vm table.
+	 *
+	 * @return the vm table
+	 */
+	public VmTable<Host> getVmTable() {
+		return vmTable;
+	}
+
+	/**
+	 * Sets the vm table.
+	 *
+	 * @param vmTable the vm table
+	 */
+	protected void setVmTable(VmTable<Host> vmTable) {
+		this.vmTable = vmTable;
+	}
+
+	/**
+	 * Gets the used pes.
+	 *
+	 * @return the used pes
+	 */
+	protected VmTable<Integer> getUsedPes() {
+		return usedPes;
+	}
+
+	/**
+	 * Sets the used pes.
+	 *
+	 * @param usedPes the used pes
+	 */
+	protected void setUsedPes(VmTable<Integer> usedPes) {
+		this.usedPes = usedPes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cloudsim.VmAllocationPolicy#optimizeAllocation(double, cloudsim.VmList, double)
+	 */
+	@Override
+	public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+		return null;
+	}
+
+}
@@ -9,7 +9,6 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,10 +25,10 @@ import org.cloudbus.cloudsim.core.CloudSim;
 public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
 	/** The vm table. */
-	private Map<String, Host> vmTable;
+	private VmTable<Host> vmTable;
 
 	/** The used pes. */
-	private Map<String, Integer> usedPes;
+	private VmTable<Integer> usedPes;
 
 	/** The free pes. */
 	private List<Integer> freePes;
@@ -50,8 +49,8 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
 		}
 
-		setVmTable(new HashMap<String, Host>());
-		setUsedPes(new HashMap<String, Integer>());
+		setVmTable(new VmTable<Host>());
+		setUsedPes(new VmTable<Integer>());
 	}
 
 	/**
@@ -72,7 +71,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 			freePesTmp.add(freePes);
 		}
 
-		if (!getVmTable().containsKey(vm.getUid())) { // if this vm was not created
+		if (!getVmTable().containsKey(vm)) { // if this vm was not created
 			do {// we still trying until we find a host or until we try all of them
 //----------------by seagull修改，原来是错的！				
 				//int moreFree = 
@@ -96,8 +95,8 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 				result = host.vmCreate(vm);
 
 				if (result) { // if vm were succesfully created in the host
-					getVmTable().put(vm.getUid(), host);
-					getUsedPes().put(vm.getUid(), requiredPes);
+					getVmTable().put(vm, host);
+					getUsedPes().put(vm, requiredPes);
 					getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 					result = true;
 					break;
@@ -122,10 +121,10 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public void deallocateHostForVm(Vm vm) {
-		Host host = getVmTable().remove(vm.getUid());
-		int idx = getHostList().indexOf(host);
-		int pes = getUsedPes().remove(vm.getUid());
+		Host host = getVmTable().remove(vm);
+		Integer pes = getUsedPes().remove(vm);
 		if (host != null) {
+			int idx = getHostList().indexOf(host);
 			host.vmDestroy(vm);
 			getFreePes().set(idx, getFreePes().get(idx) + pes);
 		}
@@ -141,7 +140,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public Host getHost(Vm vm) {
-		return getVmTable().get(vm.getUid());
+		return getVmTable().get(vm);
 	}
 
 	/**
@@ -155,7 +154,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return getVmTable().get(vmId, userId);
 	}
 
 	/**
@@ -163,7 +162,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @return the vm table
 	 */
-	public Map<String, Host> getVmTable() {
+	public VmTable<Host> getVmTable() {
 		return vmTable;
 	}
 
@@ -172,7 +171,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @param vmTable the vm table
 	 */
-	protected void setVmTable(Map<String, Host> vmTable) {
+	protected void setVmTable(VmTable<Host> vmTable) {
 		this.vmTable = vmTable;
 	}
 
@@ -181,7 +180,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @return the used pes
 	 */
-	protected Map<String, Integer> getUsedPes() {
+	protected VmTable<Integer> getUsedPes() {
 		return usedPes;
 	}
 
@@ -190,7 +189,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @param usedPes the used pes
 	 */
-	protected void setUsedPes(Map<String, Integer> usedPes) {
+	protected void setUsedPes(VmTable<Integer> usedPes) {
 		this.usedPes = usedPes;
 	}
 
@@ -230,11 +229,11 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	@Override
 	public boolean allocateHostForVm(Vm vm, Host host) {
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
-			getVmTable().put(vm.getUid(), host);
+			getVmTable().put(vm, host);
 
 			int requiredPes = vm.getNumberOfPes();
 			int idx = getHostList().indexOf(host);
-			getUsedPes().put(vm.getUid(), requiredPes);
+			getUsedPes().put(vm, requiredPes);
 			getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 
 			Log.formatLine(
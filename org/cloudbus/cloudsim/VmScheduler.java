@@ -8,9 +8,7 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
 
@@ -28,10 +26,10 @@ public abstract class VmScheduler {
 	private List<? extends Pe> peList;
 
 	/** The map of VMs to PEs. */
-	private Map<String, List<Pe>> peMap;
+	private VmTable<List<Pe>> peMap;
 
 	/** The MIPS that are currently allocated to the VMs. */
-	private Map<String, List<Double>> mipsMap;
+	private VmTable<List<Double>> mipsMap;
 
 	/** The total available mips. */
 	private double availableMips;
@@ -51,8 +49,8 @@ public abstract class VmScheduler {
 	 */
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
-		setPeMap(new HashMap<String, List<Pe>>());
-		setMipsMap(new HashMap<String, List<Double>>());
+		setPeMap(new VmTable<List<Pe>>());
+		setMipsMap(new VmTable<List<Double>>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 		setVmsMigratingIn(new ArrayList<String>());
 		setVmsMigratingOut(new ArrayList<String>());
@@ -92,6 +90,16 @@ public abstract class VmScheduler {
 		}
 	}
 
+	/**
+	 * Gets the number of PEs of the host that are free. By default these are the PEs whose status
+	 * is {@link Pe#FREE}; schedulers that give whole PEs to VMs count the PEs no VM holds.
+	 * 
+	 * @return the number of free PEs
+	 */
+	public int getNumberOfFreePes() {
+		return PeList.getNumberOfFreePes(getPeList());
+	}
+
 	/**
 	 * Gets the pes allocated for vm.
 	 * 
@@ -99,7 +107,7 @@ public abstract class VmScheduler {
 	 * @return the pes allocated for vm
 	 */
 	public List<Pe> getPesAllocatedForVM(Vm vm) {
-		return getPeMap().get(vm.getUid());
+		return getPeMap().get(vm);
 	}
 
 	/**
@@ -111,7 +119,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
-		return getMipsMap().get(vm.getUid());
+		return getMipsMap().get(vm);
 	}
 
 	/**
@@ -192,7 +200,7 @@ public abstract class VmScheduler {
 	 * 
 	 * @return the mips map
 	 */
-	protected Map<String, List<Double>> getMipsMap() {
+	protected VmTable<List<Double>> getMipsMap() {
 		return mipsMap;
 	}
 
@@ -201,7 +209,7 @@ public abstract class VmScheduler {
 	 * 
 	 * @param mipsMap the mips map
 	 */
-	protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+	protected void setMipsMap(VmTable<List<Double>> mipsMap) {
 		this.mipsMap = mipsMap;
 	}
 
@@ -264,7 +272,7 @@ public abstract class VmScheduler {
 	 * 
 	 * @return the pe map
 	 */
-	public Map<String, List<Pe>> getPeMap() {
+	public VmTable<List<Pe>> getPeMap() {
 		return peMap;
 	}
 
@@ -273,7 +281,7 @@ public abstract class VmScheduler {
 	 * 
 	 * @param peMap the pe map
 	 */
-	protected void setPeMap(Map<String, List<Pe>> peMap) {
+	protected void setPeMap(VmTable<List<Pe>> peMap) {
 		this.peMap = peMap;
 	}
 
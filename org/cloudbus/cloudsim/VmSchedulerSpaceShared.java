@@ -9,15 +9,14 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 
 /**
  * VmSchedulerSpaceShared is a VMM allocation policy that allocates one or more Pe to a VM, and
  * doesn't allow sharing of PEs. If there is no free PEs to the VM, allocation fails. Free PEs are
- * not allocated to VMs
+ * not allocated to VMs. The free PEs are kept as a bit set over the positions of the pe list with a
+ * free count, so allocating and releasing PEs costs O(words) and no list is searched or compacted.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -25,11 +24,20 @@ import java.util.Map;
  */
 public class VmSchedulerSpaceShared extends VmScheduler {
 
-	/** Map containing VM ID and a vector of PEs allocated to this VM. */
-	private Map<String, List<Pe>> peAllocationMap;
+	/** Table containing the PEs allocated to each VM. */
+	private VmTable<List<Pe>> peAllocationMap;
 
-	/** The free pes vector. */
-	private List<Pe> freePes;
+	/** Table containing the positions in the pe list of the PEs allocated to each VM. */
+	private VmTable<int[]> pePositionMap;
+
+	/** The PEs, by position. */
+	private final Pe[] pes;
+
+	/** The positions of the free PEs. */
+	private final BitSet freePes;
+
+	/** The number of free PEs. */
+	private int numberOfFreePes;
 
 	/**
 	 * Instantiates a new vm scheduler space shared.
@@ -38,9 +46,12 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	public VmSchedulerSpaceShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setPeAllocationMap(new HashMap<String, List<Pe>>());
-		setFreePes(new ArrayList<Pe>());
-		getFreePes().addAll(pelist);
+		setPeAllocationMap(new VmTable<List<Pe>>());
+		pePositionMap = new VmTable<int[]>();
+		pes = pelist.toArray(new Pe[pelist.size()]);
+		freePes = new BitSet(pes.length);
+		freePes.set(0, pes.length);
+		numberOfFreePes = pes.length;
 	}
 
 	/*
@@ -51,33 +62,40 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	@Override
 	public boolean allocatePesForVm(Vm vm, List<Double> mipsShare) {
 		// if there is no enough free PEs, fails
-		if (getFreePes().size() < mipsShare.size()) {
+		if (numberOfFreePes < mipsShare.size()) {
 			return false;
 		}
-//Log.printLine("step1---------分配vm中-----:"+vm.getId());
-//Log.printLine("空余pe列表"+getFreePes().);
-		List<Pe> selectedPes = new ArrayList<Pe>();
-		Iterator<Pe> peIterator = getFreePes().iterator();
-		Pe pe = peIterator.next();
+		int[] positions = new int[mipsShare.size()];
+		int selected = 0;
+		int position = freePes.nextSetBit(0);
 		double totalMips = 0;
 		for (Double mips : mipsShare) {
-			if (mips <= pe.getMips()) {
-				selectedPes.add(pe);
-				if (!peIterator.hasNext()) {
+			if (position < 0) {
+				break;
+			}
+			if (mips <= pes[position].getMips()) {
+				positions[selected++] = position;
+				position = freePes.nextSetBit(position + 1);
+				if (position < 0) {
 					break;
 				}
-				pe = peIterator.next();
 				totalMips += mips;
 			}
 		}
-		if (mipsShare.size() > selectedPes.size()) {
+		if (mipsShare.size() > selected) {
 			return false;
 		}
 
-		getFreePes().removeAll(selectedPes);
+		List<Pe> selectedPes = new ArrayList<Pe>(selected);
+		for (int i = 0; i < selected; i++) {
+			freePes.clear(positions[i]);
+			selectedPes.add(pes[positions[i]]);
+		}
+		numberOfFreePes -= selected;
 
-		getPeAllocationMap().put(vm.getUid(), selectedPes);
-		getMipsMap().put(vm.getUid(), mipsShare);
+		getPeAllocationMap().put(vm, selectedPes);
+		pePositionMap.put(vm, positions);
+		getMipsMap().put(vm, mipsShare);
 		setAvailableMips(getAvailableMips() - totalMips);
 		return true;
 	}
@@ -88,16 +106,32 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getFreePes().addAll(getPeAllocationMap().get(vm.getUid()));
-		getPeAllocationMap().remove(vm.getUid());
+		getPeAllocationMap().remove(vm);
+		int[] positions = pePositionMap.remove(vm);
+		if (positions != null) {
+			for (int position : positions) {
+				freePes.set(position);
+			}
+			numberOfFreePes += positions.length;
+		}
 
 		double totalMips = 0;
-		for (double mips : getMipsMap().get(vm.getUid())) {
+		for (double mips : getMipsMap().get(vm)) {
 			totalMips += mips;
 		}
 		setAvailableMips(getAvailableMips() + totalMips);
 
-		getMipsMap().remove(vm.getUid());
+		getMipsMap().remove(vm);
+	}
+
+	/**
+	 * Gets the number of PEs not allocated to any VM.
+	 * 
+	 * @return the number of free PEs
+	 */
+	@Override
+	public int getNumberOfFreePes() {
+		return numberOfFreePes;
 	}
 
 	/**
@@ -105,7 +139,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @param peAllocationMap the pe allocation map
 	 */
-	protected void setPeAllocationMap(Map<String, List<Pe>> peAllocationMap) {
+	protected void setPeAllocationMap(VmTable<List<Pe>> peAllocationMap) {
 		this.peAllocationMap = peAllocationMap;
 	}
 
@@ -114,26 +148,8 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @return the pe allocation map
 	 */
-	protected Map<String, List<Pe>> getPeAllocationMap() {
+	protected VmTable<List<Pe>> getPeAllocationMap() {
 		return peAllocationMap;
 	}
 
-	/**
-	 * Sets the free pes vector.
-	 * 
-	 * @param freePes the new free pes vector
-	 */
-	protected void setFreePes(List<Pe> freePes) {
-		this.freePes = freePes;
-	}
-
-	/**
-	 * Gets the free pes vector.
-	 * 
-	 * @return the free pes vector
-	 */
-	protected List<Pe> getFreePes() {
-		return freePes;
-	}
-
 }
@@ -8,11 +8,9 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
@@ -29,7 +27,7 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
 public class VmSchedulerTimeShared extends VmScheduler {
 
 	/** The mips map requested. */
-	private Map<String, List<Double>> mipsMapRequested;
+	private VmTable<List<Double>> mipsMapRequested;
 
 	/** The pes in use. */
 	private int pesInUse;
@@ -41,7 +39,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<String, List<Double>>());
+		setMipsMapRequested(new VmTable<List<Double>>());
 	}
 
 	/*
@@ -62,19 +60,20 @@ public class VmSchedulerTimeShared extends VmScheduler {
 				getVmsMigratingOut().remove(vm.getUid());
 			}
 		}
-		boolean result = allocatePesForVm(vm.getUid(), mipsShareRequested);
+		boolean result = allocateMipsShareForVm(vm, mipsShareRequested);
 		updatePeProvisioning();
 		return result;
 	}
 
 	/**
-	 * Allocate pes for vm.
+	 * Allocate the requested mips share for vm, without updating the PE provisioning.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param vm the vm
 	 * @param mipsShareRequested the mips share requested
 	 * @return true, if successful
 	 */
-	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocateMipsShareForVm(Vm vm, List<Double> mipsShareRequested) {
+		String vmUid = vm.getUid();
 		double totalRequestedMips = 0;
 		double peMips = getPeCapacity();
 		for (Double mips : mipsShareRequested) {
@@ -90,7 +89,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
+		getMipsMapRequested().put(vm, mipsShareRequested);
 		setPesInUse(getPesInUse() + mipsShareRequested.size());
 
 		if (getVmsMigratingIn().contains(vmUid)) {
@@ -110,7 +109,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			mipsShareAllocated.add(mipsRequested);
 		}
 
-		getMipsMap().put(vmUid, mipsShareAllocated);
+		getMipsMap().put(vm, mipsShareAllocated);
 		setAvailableMips(getAvailableMips() - totalRequestedMips);
 
 		return true;
@@ -130,26 +129,26 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		PeProvisioner peProvisioner = pe.getPeProvisioner();
 		double availableMips = peProvisioner.getAvailableMips();
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMap().entrySet()) {
-			String vmUid = entry.getKey();
-			getPeMap().put(vmUid, new LinkedList<Pe>());
+		for (Vm vm : getMipsMap().keyList()) {
+			List<Pe> vmPes = new LinkedList<Pe>();
+			getPeMap().put(vm, vmPes);
 
-			for (double mips : entry.getValue()) {
+			for (double mips : getMipsMap().get(vm)) {
 				while (mips >= 0.1) {
 					if (availableMips >= mips) {
-						peProvisioner.allocateMipsForVm(vmUid, mips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vm, mips);
+						vmPes.add(pe);
 						availableMips -= mips;
 						break;
 					} else {
-						peProvisioner.allocateMipsForVm(vmUid, availableMips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vm, availableMips);
+						vmPes.add(pe);
 						mips -= availableMips;
 						if (mips <= 0.1) {
 							break;
 						}
 						if (!peIterator.hasNext()) {
-							Log.printLine("There is no enough MIPS (" + mips + ") to accommodate VM " + vmUid);
+							Log.printLine("There is no enough MIPS (" + mips + ") to accommodate VM " + vm.getUid());
 							// System.exit(0);
 						}
 						pe = peIterator.next();
@@ -167,7 +166,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getMipsMapRequested().remove(vm.getUid());
+		getMipsMapRequested().remove(vm);
 		setPesInUse(0);
 		getMipsMap().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
@@ -176,8 +175,8 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			pe.getPeProvisioner().deallocateMipsForVm(vm);
 		}
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-			allocatePesForVm(entry.getKey(), entry.getValue());
+		for (Vm requestedVm : getMipsMapRequested().keyList()) {
+			allocateMipsShareForVm(requestedVm, getMipsMapRequested().get(requestedVm));
 		}
 
 		updatePeProvisioning();
@@ -230,7 +229,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected VmTable<List<Double>> getMipsMapRequested() {
 		return mipsMapRequested;
 	}
 
@@ -239,7 +238,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
-	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+	protected void setMipsMapRequested(VmTable<List<Double>> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
 
@@ -0,0 +1,335 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A table from VMs to values, keyed by the integer VM handle (see {@link Vm#getHandle()}). It
+ * replaces the maps keyed by the VM string uid: lookups neither build nor hash strings. The entries
+ * are kept in open-addressing arrays sized to the number of entries, so a table holding the few VMs
+ * of a host stays small even when many VMs exist. VMs can also be looked up by their id and user
+ * id, through a second array keyed by both ids.
+ *
+ * @param <T> the type of the values
+ * @since CloudSim Toolkit 3.0
+ */
+public class VmTable<T> {
+
+	/** The initial capacity, a power of two. */
+	private static final int INITIAL_CAPACITY = 8;
+
+	/** The keys; <tt>null</tt> marks a free slot. */
+	private Vm[] keys;
+
+	/** The values, in the slots of their keys. */
+	private Object[] values;
+
+	/** The VMs, in slots given by their id and user id. */
+	private Vm[] vmsById;
+
+	/** The number of entries. */
+	private int size;
+
+	/**
+	 * Creates a new empty table.
+	 */
+	public VmTable() {
+		keys = new Vm[INITIAL_CAPACITY];
+		values = new Object[INITIAL_CAPACITY];
+		vmsById = new Vm[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Gets the value of a VM.
+	 *
+	 * @param vm the vm
+	 * @return the value, or <tt>null</tt> if the VM has no entry
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(Vm vm) {
+		int slot = slotOf(vm);
+		return slot < 0 ? null : (T) values[slot];
+	}
+
+	/**
+	 * Gets the value of the VM with the given id and user id.
+	 *
+	 * @param vmId the vm id
+	 * @param userId the user id
+	 * @return the value, or <tt>null</tt> if there is no such VM in the table
+	 */
+	public T get(int vmId, int userId) {
+		Vm vm = getKey(vmId, userId);
+		return vm == null ? null : get(vm);
+	}
+
+	/**
+	 * Gets the VM with the given id and user id.
+	 *
+	 * @param vmId the vm id
+	 * @param userId the user id
+	 * @return the VM, or <tt>null</tt> if there is no such VM in the table
+	 */
+	public Vm getKey(int vmId, int userId) {
+		int mask = vmsById.length - 1;
+		for (int i = mix(vmId * 31 + userId) & mask;; i = (i + 1) & mask) {
+			Vm vm = vmsById[i];
+			if (vm == null) {
+				return null;
+			}
+			if (vm.getId() == vmId && vm.getUserId() == userId) {
+				return vm;
+			}
+		}
+	}
+
+	/**
+	 * Checks if a VM has an entry.
+	 *
+	 * @param vm the vm
+	 * @return true, if the VM has an entry
+	 */
+	public boolean containsKey(Vm vm) {
+		return slotOf(vm) >= 0;
+	}
+
+	/**
+	 * Sets the value of a VM.
+	 *
+	 * @param vm the vm
+	 * @param value the value
+	 * @return the previous value, or <tt>null</tt> if the VM had no entry
+	 */
+	@SuppressWarnings("unchecked")
+	public T put(Vm vm, T value) {
+		int slot = slotOf(vm);
+		if (slot >= 0) {
+			T previous = (T) values[slot];
+			values[slot] = value;
+			return previous;
+		}
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		insert(vm, value);
+		insertById(vm);
+		size++;
+		return null;
+	}
+
+	/**
+	 * Removes the entry of a VM.
+	 *
+	 * @param vm the vm
+	 * @return the removed value, or <tt>null</tt> if the VM had no entry
+	 */
+	@SuppressWarnings("unchecked")
+	public T remove(Vm vm) {
+		int slot = slotOf(vm);
+		if (slot < 0) {
+			return null;
+		}
+		T previous = (T) values[slot];
+		deleteSlot(slot);
+		deleteById(vm);
+		size--;
+		return previous;
+	}
+
+	/**
+	 * Removes all the entries.
+	 */
+	public void clear() {
+		if (size == 0) {
+			return;
+		}
+		keys = new Vm[INITIAL_CAPACITY];
+		values = new Object[INITIAL_CAPACITY];
+		vmsById = new Vm[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the table is empty.
+	 *
+	 * @return true, if empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the VMs having an entry, in no particular order.
+	 *
+	 * @return a new list with the VMs
+	 */
+	public List<Vm> keyList() {
+		List<Vm> list = new ArrayList<Vm>(size);
+		for (Vm vm : keys) {
+			if (vm != null) {
+				list.add(vm);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Gets the values, in the same order as {@link #keyList()}.
+	 *
+	 * @return a new list with the values
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> valueList() {
+		List<T> list = new ArrayList<T>(size);
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				list.add((T) values[i]);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Gets the slot of a VM.
+	 *
+	 * @param vm the vm
+	 * @return the slot, or -1 if the VM has no entry
+	 */
+	private int slotOf(Vm vm) {
+		int handle = vm.getHandle();
+		int mask = keys.length - 1;
+		for (int i = mix(handle) & mask;; i = (i + 1) & mask) {
+			Vm key = keys[i];
+			if (key == null) {
+				return -1;
+			}
+			if (key.getHandle() == handle) {
+				return i;
+			}
+		}
+	}
+
+	/**
+	 * Inserts an entry in a free slot, without checking the capacity.
+	 *
+	 * @param vm the vm
+	 * @param value the value
+	 */
+	private void insert(Vm vm, Object value) {
+		int mask = keys.length - 1;
+		int i = mix(vm.getHandle()) & mask;
+		while (keys[i] != null) {
+			i = (i + 1) & mask;
+		}
+		keys[i] = vm;
+		values[i] = value;
+	}
+
+	/**
+	 * Inserts a VM in the id index, without checking the capacity.
+	 *
+	 * @param vm the vm
+	 */
+	private void insertById(Vm vm) {
+		int mask = vmsById.length - 1;
+		int i = mix(vm.getId() * 31 + vm.getUserId()) & mask;
+		while (vmsById[i] != null) {
+			i = (i + 1) & mask;
+		}
+		vmsById[i] = vm;
+	}
+
+	/**
+	 * Empties a slot of the entry arrays and moves back the following entries of its probe
+	 * sequence, so that lookups need no tombstones.
+	 *
+	 * @param slot the slot
+	 */
+	private void deleteSlot(int slot) {
+		int mask = keys.length - 1;
+		int hole = slot;
+		for (int i = (slot + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+			int home = mix(keys[i].getHandle()) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = values[i];
+				hole = i;
+			}
+		}
+		keys[hole] = null;
+		values[hole] = null;
+	}
+
+	/**
+	 * Removes a VM from the id index.
+	 *
+	 * @param vm the vm
+	 */
+	private void deleteById(Vm vm) {
+		int mask = vmsById.length - 1;
+		int slot = mix(vm.getId() * 31 + vm.getUserId()) & mask;
+		while (vmsById[slot] != vm) {
+			if (vmsById[slot] == null) {
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		int hole = slot;
+		for (int i = (slot + 1) & mask; vmsById[i] != null; i = (i + 1) & mask) {
+			int home = mix(vmsById[i].getId() * 31 + vmsById[i].getUserId()) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				vmsById[hole] = vmsById[i];
+				hole = i;
+			}
+		}
+		vmsById[hole] = null;
+	}
+
+	/**
+	 * Rehashes the entries into arrays of the given capacity.
+	 *
+	 * @param capacity the new capacity, a power of two
+	 */
+	private void resize(int capacity) {
+		Vm[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new Vm[capacity];
+		values = new Object[capacity];
+		vmsById = new Vm[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				insert(oldKeys[i], oldValues[i]);
+				insertById(oldKeys[i]);
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of a key so that consecutive handles and ids do not cluster.
+	 *
+	 * @param key the key
+	 * @return the mixed key
+	 */
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -292,6 +292,15 @@ public class CloudSim {
 	/** The abrupt terminate. */
 	private static boolean abruptTerminate = false;
 
+	/** The number of events processed by the current (or last) run. */
+	private static long processedEvents = 0;
+
+	/** The wall clock time, in milliseconds, taken by the current (or last) run. */
+	private static long runWallClockTime = 0;
+
+	/** The simulation clock reached at the end of the last run. */
+	private static double lastRunClock = 0;
+
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
@@ -305,6 +314,9 @@ public class CloudSim {
 		waitPredicates = new HashMap<Integer, Predicate>();
 		clock = 0;
 		running = false;
+		processedEvents = 0;
+		runWallClockTime = 0;
+		lastRunClock = 0;
 	}
 
 	// The two standard predicates
@@ -449,7 +461,9 @@ public class CloudSim {
 		if (e == null) {
 			throw new IllegalArgumentException("Adding null entity.");
 		} else {
-			printMessage("Adding: " + e.getName());
+			if (Log.isEnabled(Log.DEBUG)) {
+				Log.printLine(Log.DEBUG, "Adding: " + e.getName());
+			}
 		}
 		e.startEntity();
 	}
@@ -708,6 +722,7 @@ public class CloudSim {
 			throw new IllegalArgumentException("Past event detected.");
 		}
 		clock = e.eventTime();
+		processedEvents++;
 
 		// Ok now process it
 		switch (e.getType()) {
@@ -828,6 +843,7 @@ public class CloudSim {
 	 * @return the double last clock value
 	 */
 	public static double run() {
+		long startWallClock = System.currentTimeMillis();
 		if (!running) {
 			runStart();
 		}
@@ -860,9 +876,12 @@ public class CloudSim {
 		}
 
 		double clock = clock();
+		runWallClockTime = System.currentTimeMillis() - startWallClock;
+		lastRunClock = clock;
 
 		finishSimulation();
 		runStop();
+		Log.flush();
 
 		return clock;
 	}
@@ -916,6 +935,47 @@ public class CloudSim {
 		Log.printLine(message);
 	}
 
+	/**
+	 * Gets the number of events processed by the current run, or by the last run once the
+	 * simulation has finished.
+	 * 
+	 * @return the number of processed events
+	 */
+	public static long getProcessedEvents() {
+		return processedEvents;
+	}
+
+	/**
+	 * Gets the wall clock time taken by the last run.
+	 * 
+	 * @return the wall clock time in milliseconds
+	 */
+	public static long getRunWallClockTime() {
+		return runWallClockTime;
+	}
+
+	/**
+	 * Gets the simulation clock reached at the end of the last run. Unlike {@link #clock()}, this
+	 * value is kept after {@link #finishSimulation()} resets the simulation state.
+	 * 
+	 * @return the last simulation clock
+	 */
+	public static double getLastRunClock() {
+		return lastRunClock;
+	}
+
+	/**
+	 * Gets the number of simulated events processed per wall clock second by the last run.
+	 * 
+	 * @return the events per second, or 0 if the run took no measurable time
+	 */
+	public static double getEventsPerSecond() {
+		if (runWallClockTime <= 0) {
+			return 0;
+		}
+		return processedEvents / (runWallClockTime / 1000.0);
+	}
+
 	/**
 	 * Checks if is paused.
 	 * 
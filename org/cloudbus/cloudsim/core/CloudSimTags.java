@@ -285,6 +285,12 @@ public class CloudSimTags {
 	
 	// provision required
 	public static final int DATACENTER_CLEAR = BASE + 55;
+
+	/**
+	 * Denotes the submission of a list of Cloudlets arriving at the same time, processed by the
+	 * Datacenter with a single update of its VMs for the whole list.
+	 */
+	public static final int CLOUDLET_LIST_SUBMIT = BASE + 56;
 	
 	/** Private Constructor */
 	private CloudSimTags() {
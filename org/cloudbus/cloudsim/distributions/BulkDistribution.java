@@ -0,0 +1,40 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.distributions;
+
+/**
+ * A random number generator that can draw many samples in one call and be split into independent
+ * streams, for generating large synthetic workloads on several threads. The generator of a
+ * distribution is not meant to be shared by threads: each thread should draw from its own
+ * {@link #split()} stream, which does not contend with the others.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public interface BulkDistribution extends ContinuousDistribution {
+
+	/**
+	 * Draws samples into an array. The samples are those that as many calls to {@link #sample()}
+	 * would return.
+	 *
+	 * @param out the array
+	 * @param off the position of the first sample in the array
+	 * @param len the number of samples
+	 */
+	void sample(double[] out, int off, int len);
+
+	/**
+	 * Creates a distribution with the same parameters drawing from a new, independent stream. The
+	 * stream is derived from the state of this distribution, so the streams split from a seeded
+	 * distribution are the same on every run.
+	 *
+	 * @return the new distribution
+	 */
+	BulkDistribution split();
+
+}
@@ -16,7 +16,7 @@ import java.util.Random;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public class ExponentialDistr implements ContinuousDistribution {
+public class ExponentialDistr implements BulkDistribution {
 
 	/** The num gen. */
 	private final Random numGen;
@@ -38,6 +38,20 @@ public class ExponentialDistr implements ContinuousDistribution {
 		this.mean = mean;
 	}
 
+	/**
+	 * Creates a new exponential number generator.
+	 * 
+	 * @param seed the random number generator to be used.
+	 * @param mean the mean for the distribution.
+	 */
+	public ExponentialDistr(Random seed, double mean) {
+		if (mean <= 0.0) {
+			throw new IllegalArgumentException("Mean must be greater than 0.0");
+		}
+		numGen = seed;
+		this.mean = mean;
+	}
+
 	/**
 	 * Creates a new exponential number generator.
 	 * 
@@ -61,4 +75,17 @@ public class ExponentialDistr implements ContinuousDistribution {
 		return -mean * Math.log(numGen.nextDouble());
 	}
 
+	@Override
+	public void sample(double[] out, int off, int len) {
+		final Random random = numGen;
+		for (int i = off; i < off + len; i++) {
+			out[i] = -mean * Math.log(random.nextDouble());
+		}
+	}
+
+	@Override
+	public ExponentialDistr split() {
+		return new ExponentialDistr(SplitRandom.split(numGen), mean);
+	}
+
 }
@@ -17,7 +17,7 @@ import java.util.Random;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public class GammaDistr implements ContinuousDistribution {
+public class GammaDistr implements BulkDistribution {
 
 	/** The num gen. */
 	private final Random numGen;
@@ -75,4 +75,21 @@ public class GammaDistr implements ContinuousDistribution {
 		return -beta * sum;
 	}
 
+	@Override
+	public void sample(double[] out, int off, int len) {
+		final Random random = numGen;
+		for (int i = off; i < off + len; i++) {
+			double sum = 0.0;
+			for (int j = 0; j < alpha; j++) {
+				sum += Math.log(random.nextDouble());
+			}
+			out[i] = -beta * sum;
+		}
+	}
+
+	@Override
+	public GammaDistr split() {
+		return new GammaDistr(SplitRandom.split(numGen), alpha, beta);
+	}
+
 }
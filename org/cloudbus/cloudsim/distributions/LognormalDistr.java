@@ -16,7 +16,7 @@ import java.util.Random;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public class LognormalDistr implements ContinuousDistribution {
+public class LognormalDistr implements BulkDistribution {
 
 	/** The num gen. */
 	private final Random numGen;
@@ -74,4 +74,19 @@ public class LognormalDistr implements ContinuousDistribution {
 		return Math.pow(Math.E, mean + dev * n);
 	}
 
+	@Override
+	public void sample(double[] out, int off, int len) {
+		final Random random = numGen;
+		for (int i = off; i < off + len; i++) {
+			double n = Math.sqrt(-2 * Math.log(random.nextDouble()))
+					* Math.sin(2 * Math.PI * random.nextDouble());
+			out[i] = Math.pow(Math.E, mean + dev * n);
+		}
+	}
+
+	@Override
+	public LognormalDistr split() {
+		return new LognormalDistr(SplitRandom.split(numGen), mean, dev);
+	}
+
 }
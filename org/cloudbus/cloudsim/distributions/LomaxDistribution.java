@@ -65,4 +65,17 @@ public class LomaxDistribution extends ParetoDistr implements ContinuousDistribu
 		return super.sample() - shift;
 	}
 
+	@Override
+	public void sample(double[] out, int off, int len) {
+		super.sample(out, off, len);
+		for (int i = off; i < off + len; i++) {
+			out[i] -= shift;
+		}
+	}
+
+	@Override
+	public LomaxDistribution split() {
+		return new LomaxDistribution(splitNumGen(), getShape(), getLocation(), shift);
+	}
+
 }
@@ -17,7 +17,7 @@ import java.util.Random;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public class ParetoDistr implements ContinuousDistribution {
+public class ParetoDistr implements BulkDistribution {
 
 	/** The num gen. */
 	private final Random numGen;
@@ -70,4 +70,44 @@ public class ParetoDistr implements ContinuousDistribution {
 		return location / Math.pow(numGen.nextDouble(), 1 / shape);
 	}
 
+	@Override
+	public void sample(double[] out, int off, int len) {
+		final Random random = numGen;
+		for (int i = off; i < off + len; i++) {
+			out[i] = location / Math.pow(random.nextDouble(), 1 / shape);
+		}
+	}
+
+	@Override
+	public ParetoDistr split() {
+		return new ParetoDistr(splitNumGen(), shape, location);
+	}
+
+	/**
+	 * Creates an independent stream from the random number generator, see {@link #split()}.
+	 * 
+	 * @return the new stream
+	 */
+	protected Random splitNumGen() {
+		return SplitRandom.split(numGen);
+	}
+
+	/**
+	 * Gets the shape.
+	 * 
+	 * @return the shape
+	 */
+	public double getShape() {
+		return shape;
+	}
+
+	/**
+	 * Gets the location.
+	 * 
+	 * @return the location
+	 */
+	public double getLocation() {
+		return location;
+	}
+
 }
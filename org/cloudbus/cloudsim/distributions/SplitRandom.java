@@ -0,0 +1,91 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.distributions;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link Random} drawing from a {@link SplittableRandom}, for the streams created by
+ * {@link BulkDistribution#split()}. Unlike {@link Random}, it does not update its state with an
+ * atomic compare-and-set on each draw, so it must only be used by one thread; and it can be split
+ * into independent streams without a shared generator.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+final class SplitRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The generator. */
+	private final SplittableRandom generator;
+
+	/**
+	 * Creates a random number generator.
+	 *
+	 * @param generator the generator drawn from
+	 */
+	private SplitRandom(SplittableRandom generator) {
+		this.generator = generator;
+	}
+
+	/**
+	 * Creates an independent stream from a random number generator. A {@link SplitRandom} is split;
+	 * any other {@link Random} seeds the new stream with its next <tt>long</tt>, so that the streams
+	 * split from a seeded distribution are the same on every run.
+	 *
+	 * @param parent the generator
+	 * @return the new stream
+	 */
+	static Random split(Random parent) {
+		if (parent instanceof SplitRandom) {
+			return new SplitRandom(((SplitRandom) parent).generator.split());
+		}
+		return new SplitRandom(new SplittableRandom(parent.nextLong()));
+	}
+
+	@Override
+	protected int next(int bits) {
+		return generator.nextInt() >>> (32 - bits);
+	}
+
+	@Override
+	public int nextInt() {
+		return generator.nextInt();
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		return generator.nextInt(bound);
+	}
+
+	@Override
+	public long nextLong() {
+		return generator.nextLong();
+	}
+
+	@Override
+	public double nextDouble() {
+		return generator.nextDouble();
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return generator.nextBoolean();
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		// the state of a SplittableRandom is set at creation only; Random's constructor calls this
+		if (generator != null) {
+			throw new UnsupportedOperationException("A split stream cannot be reseeded");
+		}
+	}
+
+}
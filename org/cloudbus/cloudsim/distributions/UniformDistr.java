@@ -16,7 +16,7 @@ import java.util.Random;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public class UniformDistr implements ContinuousDistribution {
+public class UniformDistr implements BulkDistribution {
 
 	/** The num gen. */
 	private final Random numGen;
@@ -56,6 +56,23 @@ public class UniformDistr implements ContinuousDistribution {
 		this.min = min;
 	}
 
+	/**
+	 * Creates new uniform distribution.
+	 * 
+	 * @param seed the random number generator
+	 * @param min minimum value
+	 * @param max maximum value
+	 */
+	public UniformDistr(Random seed, double min, double max) {
+		if (min >= max) {
+			throw new IllegalArgumentException("Maximum must be greater than the minimum.");
+		}
+
+		numGen = seed;
+		mag = max - min;
+		this.min = min;
+	}
+
 	/**
 	 * Generate a new random number.
 	 * 
@@ -66,6 +83,19 @@ public class UniformDistr implements ContinuousDistribution {
 		return (numGen.nextDouble() * (mag)) + min;
 	}
 
+	@Override
+	public void sample(double[] out, int off, int len) {
+		final Random random = numGen;
+		for (int i = off; i < off + len; i++) {
+			out[i] = (random.nextDouble() * (mag)) + min;
+		}
+	}
+
+	@Override
+	public UniformDistr split() {
+		return new UniformDistr(SplitRandom.split(numGen), min, min + mag);
+	}
+
 	/**
 	 * Generates a new random number based on the number generator and values provided as
 	 * parameters.
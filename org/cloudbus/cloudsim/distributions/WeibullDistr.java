@@ -17,7 +17,7 @@ import java.util.Random;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public class WeibullDistr implements ContinuousDistribution {
+public class WeibullDistr implements BulkDistribution {
 
 	/** The num gen. */
 	private final Random numGen;
@@ -70,4 +70,17 @@ public class WeibullDistr implements ContinuousDistribution {
 		return beta * Math.pow(-Math.log(numGen.nextDouble()), 1 / alpha);
 	}
 
+	@Override
+	public void sample(double[] out, int off, int len) {
+		final Random random = numGen;
+		for (int i = off; i < off + len; i++) {
+			out[i] = beta * Math.pow(-Math.log(random.nextDouble()), 1 / alpha);
+		}
+	}
+
+	@Override
+	public WeibullDistr split() {
+		return new WeibullDistr(SplitRandom.split(numGen), alpha, beta);
+	}
+
 }
@@ -13,11 +13,16 @@ import java.util.Random;
 
 /**
  * The Class ZipfDistr.
+ * <p>
+ * The cumulative probabilities of the ranks are computed once, and a sample is drawn by a binary
+ * search over them rather than by summing the harmonic series up to the drawn rank, which makes a
+ * draw O(log population) instead of O(rank). The samples are the same as those of the summation
+ * for the same seed. The table takes one <tt>double</tt> per member of the population.
  * 
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public class ZipfDistr implements ContinuousDistribution {
+public class ZipfDistr implements BulkDistribution {
 
 	/** The num gen. */
 	private final Random numGen;
@@ -28,6 +33,12 @@ public class ZipfDistr implements ContinuousDistribution {
 	/** The den. */
 	private double den;
 
+	/**
+	 * The cumulative probabilities: entry <tt>j</tt> is the sum of <tt>1 / k^shape</tt> for
+	 * <tt>k</tt> from 1 to <tt>j</tt>, divided by {@link #den}. It has at least 3 entries.
+	 */
+	private double[] cumulative;
+
 	/**
 	 * Instantiates a new zipf distr.
 	 * 
@@ -60,6 +71,19 @@ public class ZipfDistr implements ContinuousDistribution {
 		computeDen(shape, population);
 	}
 
+	/**
+	 * Instantiates a new zipf distr sharing the tables of another one.
+	 * 
+	 * @param seed the random number generator
+	 * @param other the distribution whose tables are shared
+	 */
+	private ZipfDistr(Random seed, ZipfDistr other) {
+		numGen = seed;
+		shape = other.shape;
+		den = other.den;
+		cumulative = other.cumulative;
+	}
+
 	/**
 	 * Generate a new random number.
 	 * 
@@ -67,18 +91,42 @@ public class ZipfDistr implements ContinuousDistribution {
 	 */
 	@Override
 	public double sample() {
-		double variate = numGen.nextDouble();
-		double num = 1;
-		double nextNum = 1 + 1 / Math.pow(2, shape);
-		double j = 3;
-
-		while (variate > nextNum / den) {
-			num = nextNum;
-			nextNum += 1 / Math.pow(j, shape);
-			j++;
+		return inverse(numGen.nextDouble());
+	}
+
+	@Override
+	public void sample(double[] out, int off, int len) {
+		final Random random = numGen;
+		for (int i = off; i < off + len; i++) {
+			out[i] = inverse(random.nextDouble());
 		}
+	}
 
-		return num / den;
+	@Override
+	public ZipfDistr split() {
+		return new ZipfDistr(SplitRandom.split(numGen), this);
+	}
+
+	/**
+	 * Gets the sample of a uniform variate: the cumulative probability of the rank before the first
+	 * rank from 2 whose cumulative probability reaches the variate.
+	 * 
+	 * @param variate the variate, in [0, 1)
+	 * @return the sample
+	 */
+	private double inverse(double variate) {
+		final double[] table = cumulative;
+		int low = 2;
+		int high = table.length - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (variate > table[middle]) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return table[low - 1];
 	}
 
 	/**
@@ -92,6 +140,17 @@ public class ZipfDistr implements ContinuousDistribution {
 		for (int j = 1; j <= population; j++) {
 			den += 1 / Math.pow(j, shape);
 		}
+		// the sums are computed in the same order as den, so that the last one is exactly 1
+		double[] sums = new double[Math.max(population, 2) + 1];
+		sums[1] = 1;
+		sums[2] = 1 + 1 / Math.pow(2, shape);
+		for (int j = 3; j < sums.length; j++) {
+			sums[j] = sums[j - 1] + 1 / Math.pow(j, shape);
+		}
+		cumulative = new double[sums.length];
+		for (int j = 1; j < sums.length; j++) {
+			cumulative[j] = sums[j] / den;
+		}
 	}
 
 }
@@ -12,10 +12,13 @@ import java.util.List;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.PeStatusIndex;
 import org.cloudbus.cloudsim.Vm;
 
 /**
- * PeList is a collection of operations on lists of PEs.
+ * PeList is a collection of operations on lists of PEs. The free and busy PEs of a list indexed by
+ * a {@link PeStatusIndex} (as the pe list of a host is) are looked up in the index instead of
+ * walking the list.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
@@ -120,6 +123,10 @@ public class PeList {
 	 * @post $none
 	 */
 	public static <T extends Pe> Pe getFreePe(List<Pe> peList) {
+		PeStatusIndex index = PeStatusIndex.get(peList);
+		if (index != null) {
+			return index.getFreePe();
+		}
 		for (Pe pe : peList) {
 			if (pe.getStatus() == Pe.FREE) {
 				return pe;
@@ -137,6 +144,10 @@ public class PeList {
 	 * @post $result >= 0
 	 */
 	public static <T extends Pe> int getNumberOfFreePes(List<Pe> peList) {
+		PeStatusIndex index = PeStatusIndex.get(peList);
+		if (index != null) {
+			return index.getNumberOfFreePes();
+		}
 		int cnt = 0;
 		for (Pe pe : peList) {
 			if (pe.getStatus() == Pe.FREE) {
@@ -175,6 +186,10 @@ public class PeList {
 	 * @post $result >= 0
 	 */
 	public static <T extends Pe> int getNumberOfBusyPes(List<Pe> peList) {
+		PeStatusIndex index = PeStatusIndex.get(peList);
+		if (index != null) {
+			return index.getNumberOfBusyPes();
+		}
 		int cnt = 0;
 		for (Pe pe : peList) {
 			if (pe.getStatus() == Pe.BUSY) {
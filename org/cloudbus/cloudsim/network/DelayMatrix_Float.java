@@ -0,0 +1,311 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The shortest delays between all the pairs of nodes of a {@link TopologicalGraph}. They are
+ * computed once, by a Dijkstra search from each node, the searches running in parallel, and stored
+ * in a flat row-major <tt>float</tt> array. A per-source search costs O(links log nodes), which on
+ * the sparse graphs of network topologies is much less than the O(nodes^2) per node of
+ * Floyd-Warshall.
+ * <p>
+ * When several links join the same pair of nodes, the last one added is used. The delay of a node
+ * to itself is 0, and the delay between nodes that are not connected is {@link Float#MAX_VALUE}.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class DelayMatrix_Float {
+
+	/** The number of nodes below which the searches run on the calling thread. */
+	private static final int PARALLEL_THRESHOLD = 64;
+
+	/** The number of nodes. */
+	private final int nodes;
+
+	/** The delays: the delay from node <tt>i</tt> to node <tt>j</tt> is at <tt>i * nodes + j</tt>. */
+	private final float[] delays;
+
+	/**
+	 * Computes the delays of a graph, using all the processors.
+	 *
+	 * @param graph the graph
+	 * @param directed <code>true</code> if a link only goes from its source to its destination
+	 */
+	public DelayMatrix_Float(TopologicalGraph graph, boolean directed) {
+		this(graph, directed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Computes the delays of a graph.
+	 *
+	 * @param graph the graph
+	 * @param directed <code>true</code> if a link only goes from its source to its destination
+	 * @param threads the number of threads running the searches
+	 */
+	public DelayMatrix_Float(TopologicalGraph graph, boolean directed, int threads) {
+		nodes = graph.getNumberOfNodes();
+		delays = new float[nodes * nodes];
+
+		// the delay of each directed pair, the last link of a pair replacing the previous ones
+		Map<Long, Float> pairs = new LinkedHashMap<Long, Float>();
+		Iterator<TopologicalLink> iter = graph.getLinkIterator();
+		while (iter.hasNext()) {
+			TopologicalLink link = iter.next();
+			int src = link.getSrcNodeID();
+			int dest = link.getDestNodeID();
+			if (src < 0 || src >= nodes || dest < 0 || dest >= nodes) {
+				throw new IllegalArgumentException("The link from " + src + " to " + dest
+						+ " is not between nodes of the graph");
+			}
+			pairs.put((long) src * nodes + dest, link.getLinkDelay());
+			if (!directed) {
+				pairs.put((long) dest * nodes + src, link.getLinkDelay());
+			}
+		}
+
+		// the links in compressed rows: the links from node i are at offsets[i] to offsets[i + 1]
+		final int[] offsets = new int[nodes + 1];
+		for (Long pair : pairs.keySet()) {
+			offsets[(int) (pair / nodes) + 1]++;
+		}
+		for (int i = 0; i < nodes; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		final int[] targets = new int[pairs.size()];
+		final float[] weights = new float[pairs.size()];
+		int[] next = Arrays.copyOf(offsets, nodes);
+		for (Map.Entry<Long, Float> pair : pairs.entrySet()) {
+			int src = (int) (pair.getKey() / nodes);
+			int position = next[src]++;
+			targets[position] = (int) (pair.getKey() % nodes);
+			weights[position] = pair.getValue();
+		}
+
+		if (threads <= 1 || nodes < PARALLEL_THRESHOLD) {
+			new Search(offsets, targets, weights).run(0, nodes);
+			return;
+		}
+		// a few blocks of sources per thread, so that the threads finish together
+		final int blockSize = Math.max(1, nodes / (threads * 4));
+		List<Callable<Void>> blocks = new ArrayList<Callable<Void>>();
+		for (int start = 0; start < nodes; start += blockSize) {
+			final int from = start;
+			final int to = Math.min(nodes, start + blockSize);
+			blocks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					new Search(offsets, targets, weights).run(from, to);
+					return null;
+				}
+			});
+		}
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			for (Future<Void> block : pool.invokeAll(blocks)) {
+				block.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while computing the delays", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to compute the delays", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Gets the shortest delay between two nodes.
+	 *
+	 * @param srcID the id of the source node
+	 * @param destID the id of the destination node
+	 * @return the delay, or {@link Float#MAX_VALUE} if the nodes are not connected
+	 * @throws ArrayIndexOutOfBoundsException if a node is not in the graph
+	 */
+	public float getDelay(int srcID, int destID) {
+		if (srcID < 0 || srcID >= nodes || destID < 0 || destID >= nodes) {
+			throw new ArrayIndexOutOfBoundsException("srcID or destID is higher than highest stored node-ID!");
+		}
+		return delays[srcID * nodes + destID];
+	}
+
+	/**
+	 * Gets the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getTotalNodeNum() {
+		return nodes;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("just a simple printout of the distance-aware-topology-class\n");
+		buffer.append("delay-matrix is:\n");
+		for (int row = 0; row < nodes; row++) {
+			buffer.append(row).append('\t');
+			for (int column = 0; column < nodes; column++) {
+				float delay = delays[row * nodes + column];
+				buffer.append(delay == Float.MAX_VALUE ? "-" : String.valueOf(delay)).append('\t');
+			}
+			buffer.append('\n');
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * The shortest path searches of one thread, with their own heap.
+	 */
+	private class Search {
+
+		/** The offsets of the links of each node. */
+		private final int[] offsets;
+
+		/** The destinations of the links. */
+		private final int[] targets;
+
+		/** The delays of the links. */
+		private final float[] weights;
+
+		/** The delays of the heap entries. */
+		private float[] heapKeys;
+
+		/** The nodes of the heap entries. */
+		private int[] heapNodes;
+
+		/** The number of heap entries. */
+		private int heapSize;
+
+		/**
+		 * Creates the searches.
+		 *
+		 * @param offsets the offsets of the links of each node
+		 * @param targets the destinations of the links
+		 * @param weights the delays of the links
+		 */
+		public Search(int[] offsets, int[] targets, float[] weights) {
+			this.offsets = offsets;
+			this.targets = targets;
+			this.weights = weights;
+			heapKeys = new float[16];
+			heapNodes = new int[16];
+		}
+
+		/**
+		 * Fills the rows of a range of sources.
+		 *
+		 * @param from the first source
+		 * @param to the source after the last one
+		 */
+		public void run(int from, int to) {
+			for (int source = from; source < to; source++) {
+				search(source);
+			}
+		}
+
+		/**
+		 * Fills the row of a source by a Dijkstra search. Nodes may be in the heap several times; the
+		 * stale entries are skipped.
+		 *
+		 * @param source the source
+		 */
+		private void search(int source) {
+			final int row = source * nodes;
+			Arrays.fill(delays, row, row + nodes, Float.MAX_VALUE);
+			delays[row + source] = 0;
+			heapSize = 0;
+			push(0, source);
+			while (heapSize > 0) {
+				float delay = heapKeys[0];
+				int node = heapNodes[0];
+				pop();
+				if (delay > delays[row + node]) {
+					continue;
+				}
+				for (int link = offsets[node]; link < offsets[node + 1]; link++) {
+					int target = targets[link];
+					float candidate = delay + weights[link];
+					if (candidate < delays[row + target]) {
+						delays[row + target] = candidate;
+						push(candidate, target);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Adds an entry to the heap.
+		 *
+		 * @param key the delay
+		 * @param node the node
+		 */
+		private void push(float key, int node) {
+			if (heapSize == heapKeys.length) {
+				heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+				heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+			}
+			int position = heapSize++;
+			while (position > 0) {
+				int parent = (position - 1) >>> 1;
+				if (heapKeys[parent] <= key) {
+					break;
+				}
+				heapKeys[position] = heapKeys[parent];
+				heapNodes[position] = heapNodes[parent];
+				position = parent;
+			}
+			heapKeys[position] = key;
+			heapNodes[position] = node;
+		}
+
+		/**
+		 * Removes the entry with the smallest delay from the heap.
+		 */
+		private void pop() {
+			heapSize--;
+			if (heapSize == 0) {
+				return;
+			}
+			float key = heapKeys[heapSize];
+			int node = heapNodes[heapSize];
+			int position = 0;
+			while (true) {
+				int child = 2 * position + 1;
+				if (child >= heapSize) {
+					break;
+				}
+				if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+					child++;
+				}
+				if (key <= heapKeys[child]) {
+					break;
+				}
+				heapKeys[position] = heapKeys[child];
+				heapNodes[position] = heapNodes[child];
+				position = child;
+			}
+			heapKeys[position] = key;
+			heapNodes[position] = node;
+		}
+	}
+
+}
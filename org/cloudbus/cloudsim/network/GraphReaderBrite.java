@@ -0,0 +1,96 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Reads a {@link TopologicalGraph} from a file in the BRITE format. Only the <tt>Nodes:</tt> and
+ * <tt>Edges:</tt> sections are read: the id and the coordinates of each node, and the source, the
+ * destination, the delay and the bandwidth of each edge.
+ *
+ * <pre>
+ * Nodes: ( count )
+ * id x y in-degree out-degree AS type
+ * Edges: ( count )
+ * id from to length delay bandwidth AS-from AS-to type direction
+ * </pre>
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class GraphReaderBrite implements GraphReaderIF {
+
+	/** Outside of the sections read. */
+	private static final int PARSE_NOTHING = 0;
+
+	/** In the <tt>Nodes:</tt> section. */
+	private static final int PARSE_NODES = 1;
+
+	/** In the <tt>Edges:</tt> section. */
+	private static final int PARSE_EDGES = 2;
+
+	@Override
+	public TopologicalGraph readGraphFile(String filename) throws IOException {
+		TopologicalGraph graph = new TopologicalGraph();
+		BufferedReader reader = new BufferedReader(new FileReader(filename));
+		try {
+			int state = PARSE_NOTHING;
+			int lineNumber = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				String trimmed = line.trim();
+				if (trimmed.startsWith("Nodes:")) {
+					state = PARSE_NODES;
+				} else if (trimmed.startsWith("Edges:")) {
+					state = PARSE_EDGES;
+				} else if (trimmed.length() == 0) {
+					// a blank line ends a section
+					state = PARSE_NOTHING;
+				} else if (state != PARSE_NOTHING) {
+					try {
+						parseLine(graph, trimmed.split("\\s+"), state);
+					} catch (NumberFormatException e) {
+						throw new IOException(filename + ":" + lineNumber + ": " + e.getMessage());
+					} catch (ArrayIndexOutOfBoundsException e) {
+						throw new IOException(filename + ":" + lineNumber + ": missing field");
+					}
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return graph;
+	}
+
+	/**
+	 * Adds the node or the link of a line to the graph.
+	 *
+	 * @param graph the graph
+	 * @param fields the fields of the line
+	 * @param state {@link #PARSE_NODES} or {@link #PARSE_EDGES}
+	 */
+	private void parseLine(TopologicalGraph graph, String[] fields, int state) {
+		if (state == PARSE_NODES) {
+			int nodeId = Integer.parseInt(fields[0]);
+			int x = (int) Double.parseDouble(fields[1]);
+			int y = (int) Double.parseDouble(fields[2]);
+			graph.addNode(new TopologicalNode(nodeId, x, y));
+		} else {
+			int from = Integer.parseInt(fields[1]);
+			int to = Integer.parseInt(fields[2]);
+			float delay = Float.parseFloat(fields[4]);
+			float bw = Float.parseFloat(fields[5]);
+			graph.addLink(new TopologicalLink(from, to, delay, bw));
+		}
+	}
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link TopologicalGraph} from a file.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public interface GraphReaderIF {
+
+	/**
+	 * Reads a graph from a file.
+	 *
+	 * @param filename the name of the file
+	 * @return the graph
+	 * @throws IOException if the file cannot be read or parsed
+	 */
+	TopologicalGraph readGraphFile(String filename) throws IOException;
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A network graph: a list of nodes and a list of links between them. The nodes are expected to be
+ * numbered from 0, as the matrices computed from the graph are indexed by node id.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class TopologicalGraph {
+
+	/** The links. */
+	private final List<TopologicalLink> linkList = new ArrayList<TopologicalLink>();
+
+	/** The nodes. */
+	private final List<TopologicalNode> nodeList = new ArrayList<TopologicalNode>();
+
+	/**
+	 * Adds a link.
+	 *
+	 * @param edge the link
+	 */
+	public void addLink(TopologicalLink edge) {
+		linkList.add(edge);
+	}
+
+	/**
+	 * Adds a node.
+	 *
+	 * @param node the node
+	 */
+	public void addNode(TopologicalNode node) {
+		nodeList.add(node);
+	}
+
+	/**
+	 * Gets the number of nodes.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getNumberOfNodes() {
+		return nodeList.size();
+	}
+
+	/**
+	 * Gets the number of links.
+	 *
+	 * @return the number of links
+	 */
+	public int getNumberOfLinks() {
+		return linkList.size();
+	}
+
+	/**
+	 * Gets an iterator over the links, in the order they were added.
+	 *
+	 * @return the iterator
+	 */
+	public Iterator<TopologicalLink> getLinkIterator() {
+		return linkList.iterator();
+	}
+
+	/**
+	 * Gets an iterator over the nodes, in the order they were added.
+	 *
+	 * @return the iterator
+	 */
+	public Iterator<TopologicalNode> getNodeIterator() {
+		return nodeList.iterator();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("topological-node-information:\n");
+		for (TopologicalNode node : nodeList) {
+			buffer.append(node.getNodeID()).append(" | x is: ").append(node.getCoordinateX())
+					.append(" y is: ").append(node.getCoordinateY()).append('\n');
+		}
+		buffer.append("\n\n node-link-information:\n");
+		for (TopologicalLink link : linkList) {
+			buffer.append("from: ").append(link.getSrcNodeID()).append(" to: ").append(link.getDestNodeID())
+					.append(" delay: ").append(link.getLinkDelay()).append('\n');
+		}
+		return buffer.toString();
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+/**
+ * A link of a {@link TopologicalGraph}, from a source node to a destination node, with a delay and
+ * a bandwidth.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class TopologicalLink {
+
+	/** The id of the source node. */
+	private final int srcNodeId;
+
+	/** The id of the destination node. */
+	private final int destNodeId;
+
+	/** The delay of the link. */
+	private final float linkDelay;
+
+	/** The bandwidth of the link. */
+	private final float linkBw;
+
+	/**
+	 * Creates a link.
+	 *
+	 * @param srcNode the id of the source node
+	 * @param destNode the id of the destination node
+	 * @param delay the delay of the link
+	 * @param bw the bandwidth of the link
+	 */
+	public TopologicalLink(int srcNode, int destNode, float delay, float bw) {
+		srcNodeId = srcNode;
+		destNodeId = destNode;
+		linkDelay = delay;
+		linkBw = bw;
+	}
+
+	/**
+	 * Gets the id of the source node.
+	 *
+	 * @return the id
+	 */
+	public int getSrcNodeID() {
+		return srcNodeId;
+	}
+
+	/**
+	 * Gets the id of the destination node.
+	 *
+	 * @return the id
+	 */
+	public int getDestNodeID() {
+		return destNodeId;
+	}
+
+	/**
+	 * Gets the delay of the link.
+	 *
+	 * @return the delay
+	 */
+	public float getLinkDelay() {
+		return linkDelay;
+	}
+
+	/**
+	 * Gets the bandwidth of the link.
+	 *
+	 * @return the bandwidth
+	 */
+	public float getLinkBw() {
+		return linkBw;
+	}
+
+}
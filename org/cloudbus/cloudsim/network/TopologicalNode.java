@@ -0,0 +1,101 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network;
+
+/**
+ * A node of a {@link TopologicalGraph}, with an id, a label and coordinates.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class TopologicalNode {
+
+	/** The id of the node. */
+	private final int nodeId;
+
+	/** The label of the node. */
+	private final String nodeName;
+
+	/** The x coordinate. */
+	private final int worldX;
+
+	/** The y coordinate. */
+	private final int worldY;
+
+	/**
+	 * Creates a node at the origin, labelled with its id.
+	 *
+	 * @param nodeId the id of the node
+	 */
+	public TopologicalNode(int nodeId) {
+		this(nodeId, String.valueOf(nodeId), 0, 0);
+	}
+
+	/**
+	 * Creates a node labelled with its id.
+	 *
+	 * @param nodeId the id of the node
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 */
+	public TopologicalNode(int nodeId, int x, int y) {
+		this(nodeId, String.valueOf(nodeId), x, y);
+	}
+
+	/**
+	 * Creates a node.
+	 *
+	 * @param nodeId the id of the node
+	 * @param nodeName the label of the node
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 */
+	public TopologicalNode(int nodeId, String nodeName, int x, int y) {
+		this.nodeId = nodeId;
+		this.nodeName = nodeName;
+		worldX = x;
+		worldY = y;
+	}
+
+	/**
+	 * Gets the id of the node.
+	 *
+	 * @return the id
+	 */
+	public int getNodeID() {
+		return nodeId;
+	}
+
+	/**
+	 * Gets the label of the node.
+	 *
+	 * @return the label
+	 */
+	public String getNodeLabel() {
+		return nodeName;
+	}
+
+	/**
+	 * Gets the x coordinate of the node.
+	 *
+	 * @return the x coordinate
+	 */
+	public int getCoordinateX() {
+		return worldX;
+	}
+
+	/**
+	 * Gets the y coordinate of the node.
+	 *
+	 * @return the y coordinate
+	 */
+	public int getCoordinateY() {
+		return worldY;
+	}
+
+}
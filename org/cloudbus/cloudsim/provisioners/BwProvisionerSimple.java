@@ -8,10 +8,8 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmTable;
 
 /**
  * BwProvisionerSimple is a class that implements a simple best effort allocation policy: if there
@@ -24,7 +22,7 @@ import org.cloudbus.cloudsim.Vm;
 public class BwProvisionerSimple extends BwProvisioner {
 
 	/** The bw table. */
-	private Map<String, Long> bwTable;
+	private VmTable<Long> bwTable;
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -33,7 +31,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<String, Long>());
+		setBwTable(new VmTable<Long>());
 	}
 
 	/*
@@ -46,7 +44,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() >= bw) {
 			setAvailableBw(getAvailableBw() - bw);
-			getBwTable().put(vm.getUid(), bw);
+			getBwTable().put(vm, bw);
 			vm.setCurrentAllocatedBw(getAllocatedBwForVm(vm));
 			return true;
 		}
@@ -61,8 +59,8 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	@Override
 	public long getAllocatedBwForVm(Vm vm) {
-		if (getBwTable().containsKey(vm.getUid())) {
-			return getBwTable().get(vm.getUid());
+		if (getBwTable().containsKey(vm)) {
+			return getBwTable().get(vm);
 		}
 		return 0;
 	}
@@ -73,8 +71,8 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	@Override
 	public void deallocateBwForVm(Vm vm) {
-		if (getBwTable().containsKey(vm.getUid())) {
-			long amountFreed = getBwTable().remove(vm.getUid());
+		if (getBwTable().containsKey(vm)) {
+			long amountFreed = getBwTable().remove(vm);
 			setAvailableBw(getAvailableBw() + amountFreed);
 			vm.setCurrentAllocatedBw(0);
 		}
@@ -112,7 +110,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @return the bw table
 	 */
-	protected Map<String, Long> getBwTable() {
+	protected VmTable<Long> getBwTable() {
 		return bwTable;
 	}
 
@@ -121,7 +119,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @param bwTable the bw table
 	 */
-	protected void setBwTable(Map<String, Long> bwTable) {
+	protected void setBwTable(VmTable<Long> bwTable) {
 		this.bwTable = bwTable;
 	}
 
@@ -8,10 +8,8 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmTable;
 
 /**
  * RamProvisionerSimple is an extension of RamProvisioner which uses a best-effort policy to
@@ -24,7 +22,7 @@ import org.cloudbus.cloudsim.Vm;
 public class RamProvisionerSimple extends RamProvisioner {
 
 	/** The RAM table. */
-	private Map<String, Integer> ramTable;
+	private VmTable<Integer> ramTable;
 
 	/**
 	 * Instantiates a new ram provisioner simple.
@@ -33,7 +31,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	public RamProvisionerSimple(int availableRam) {
 		super(availableRam);
-		setRamTable(new HashMap<String, Integer>());
+		setRamTable(new VmTable<Integer>());
 	}
 
 	/*
@@ -52,7 +50,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 		if (getAvailableRam() >= ram) {
 			setAvailableRam(getAvailableRam() - ram);
-			getRamTable().put(vm.getUid(), ram);
+			getRamTable().put(vm, ram);
 			vm.setCurrentAllocatedRam(getAllocatedRamForVm(vm));
 			return true;
 		}
@@ -68,8 +66,8 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	@Override
 	public int getAllocatedRamForVm(Vm vm) {
-		if (getRamTable().containsKey(vm.getUid())) {
-			return getRamTable().get(vm.getUid());
+		if (getRamTable().containsKey(vm)) {
+			return getRamTable().get(vm);
 		}
 		return 0;
 	}
@@ -80,8 +78,8 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	@Override
 	public void deallocateRamForVm(Vm vm) {
-		if (getRamTable().containsKey(vm.getUid())) {
-			int amountFreed = getRamTable().remove(vm.getUid());
+		if (getRamTable().containsKey(vm)) {
+			int amountFreed = getRamTable().remove(vm);
 			setAvailableRam(getAvailableRam() + amountFreed);
 			vm.setCurrentAllocatedRam(0);
 		}
@@ -117,7 +115,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @return the ram table
 	 */
-	protected Map<String, Integer> getRamTable() {
+	protected VmTable<Integer> getRamTable() {
 		return ramTable;
 	}
 
@@ -126,7 +124,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @param ramTable the ram table
 	 */
-	protected void setRamTable(Map<String, Integer> ramTable) {
+	protected void setRamTable(VmTable<Integer> ramTable) {
 		this.ramTable = ramTable;
 	}
 
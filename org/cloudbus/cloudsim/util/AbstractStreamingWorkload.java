@@ -0,0 +1,61 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * A {@link StreamingWorkloadModel} whose {@link #generateWorkload()} reads a whole pass of
+ * {@link #openWorkload()} once and keeps the jobs. Subclasses call {@link #resetWorkload()} when a
+ * setting changes the jobs of the next passes.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public abstract class AbstractStreamingWorkload implements StreamingWorkloadModel {
+
+	/** The jobs, once {@link #generateWorkload()} has been called. */
+	private ArrayList<Cloudlet> jobs;
+
+	/**
+	 * Reads the jobs of a pass, the first time it is called.
+	 *
+	 * @return the jobs read before the end of the workload or the first read error
+	 */
+	@Override
+	public ArrayList<Cloudlet> generateWorkload() {
+		if (jobs == null) {
+			jobs = new ArrayList<Cloudlet>();
+			try {
+				final WorkloadIterator iterator = openWorkload();
+				try {
+					while (iterator.hasNext()) {
+						jobs.add(iterator.next());
+					}
+				} finally {
+					iterator.close();
+				}
+			} catch (final IOException e) {
+				Log.printLine(Log.WARNING, "The workload cannot be read: " + e.getMessage());
+			}
+		}
+		return jobs;
+	}
+
+	/**
+	 * Drops the jobs kept by {@link #generateWorkload()}, so that the next call reads them again.
+	 */
+	protected void resetWorkload() {
+		jobs = null;
+	}
+
+}
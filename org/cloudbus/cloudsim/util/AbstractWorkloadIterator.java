@@ -0,0 +1,95 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * A {@link WorkloadIterator} reading one job ahead of the caller. Subclasses read the next job
+ * from their source and close it; this class closes the source once the last job has been read,
+ * when the caller closes the iterator, or when the source fails. A read error ends the pass, as it
+ * ends {@link AbstractStreamingWorkload#generateWorkload()}, and is logged as a warning.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public abstract class AbstractWorkloadIterator implements WorkloadIterator {
+
+	/** The next job, read ahead by {@link #hasNext()}. */
+	private Cloudlet next;
+
+	/** The number of jobs returned so far. */
+	private int jobCount;
+
+	/** Whether the source is closed. */
+	private boolean closed;
+
+	/**
+	 * Reads the next job from the source.
+	 *
+	 * @param jobCount the number of jobs returned so far, e.g. the id of the next job
+	 * @return the job, or <tt>null</tt> if there is none left
+	 * @throws IOException if the source cannot be read
+	 */
+	protected abstract Cloudlet readNext(int jobCount) throws IOException;
+
+	/**
+	 * Closes the source. Called once.
+	 *
+	 * @throws IOException if the source cannot be closed
+	 */
+	protected abstract void closeSource() throws IOException;
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !closed) {
+			try {
+				next = readNext(jobCount);
+				if (next == null) {
+					close();
+				}
+			} catch (final IOException e) {
+				Log.printLine(Log.WARNING, "The workload cannot be read: " + e.getMessage());
+				try {
+					close();
+				} catch (final IOException ignored) {
+				}
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public Cloudlet next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Cloudlet job = next;
+		next = null;
+		jobCount++;
+		return job;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			closeSource();
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fits the coefficients of the two-term predictor <tt>u[k+1] = c1 u[k] + c2 u[k-1]</tt> used by
+ * {@link org.cloudbus.cloudsim.Vm#getAvaliablePEsARMA(double)} by least squares on utilization
+ * series, through their {@link NormalEquations}. A model can be fitted per series or pooled over
+ * several series (e.g. all the VMs of a class) by adding their equations. Fitted models can be
+ * saved to and loaded from a CSV file of <tt>key,c1,c2</tt> rows, so that later runs start from
+ * them.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class ArmaFitter {
+
+	/** The default coefficient of the last slot. */
+	public static final double DEFAULT_C1 = 0.667;
+
+	/** The default coefficient of the slot before the last one. */
+	public static final double DEFAULT_C2 = 0.318;
+
+	/**
+	 * The smallest determinant, relative to the scale of the normal equations, for which a fit is
+	 * accepted.
+	 */
+	private static final double MIN_RELATIVE_DETERMINANT = 1e-12;
+
+	/**
+	 * Instantiates a new fitter.
+	 */
+	private ArmaFitter() {
+	}
+
+	/**
+	 * Saves fitted models.
+	 *
+	 * @param models the coefficients by key
+	 * @param fileName the file name
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void save(Map<Integer, double[]> models, String fileName) throws IOException {
+		BufferedWriter writer = new BufferedWriter(new FileWriter(fileName));
+		try {
+			writer.write("key,c1,c2");
+			for (Map.Entry<Integer, double[]> entry : models.entrySet()) {
+				writer.newLine();
+				writer.write(entry.getKey() + "," + entry.getValue()[0] + "," + entry.getValue()[1]);
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Loads models saved by {@link #save(Map, String)}. Lines that cannot be parsed are skipped.
+	 *
+	 * @param fileName the file name
+	 * @return the coefficients by key
+	 * @throws IOException if the file cannot be read
+	 */
+	public static Map<Integer, double[]> load(String fileName) throws IOException {
+		Map<Integer, double[]> models = new TreeMap<Integer, double[]>();
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(",");
+				if (fields.length < 3) {
+					continue;
+				}
+				try {
+					models.put(Integer.parseInt(fields[0].trim()), new double[] {
+							Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim()) });
+				} catch (NumberFormatException e) {
+					// header or malformed line
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return models;
+	}
+
+	/**
+	 * The normal equations of the least-squares fit, as sums over the samples. The sums are
+	 * additive, so a fit can be kept up to date by adding the samples of the new slots only, and
+	 * pooled by adding the equations of several series.
+	 */
+	public static class NormalEquations {
+
+		/** The sum of the squared values of the last slot. */
+		private double saa;
+
+		/** The sum of the products of the values of the last two slots. */
+		private double sab;
+
+		/** The sum of the squared values of the slot before the last one. */
+		private double sbb;
+
+		/** The sum of the products of the values of the last slot and of the predicted slot. */
+		private double say;
+
+		/** The sum of the products of the values of the slot before the last one and of the predicted slot. */
+		private double sby;
+
+		/** The number of samples. */
+		private int samples;
+
+		/**
+		 * Adds a sample.
+		 *
+		 * @param a the utilization of the last slot
+		 * @param b the utilization of the slot before the last one
+		 * @param y the utilization of the predicted slot
+		 */
+		public void add(double a, double b, double y) {
+			saa += a * a;
+			sab += a * b;
+			sbb += b * b;
+			say += a * y;
+			sby += b * y;
+			samples++;
+		}
+
+		/**
+		 * Adds the samples of other equations.
+		 *
+		 * @param other the equations
+		 */
+		public void add(NormalEquations other) {
+			saa += other.saa;
+			sab += other.sab;
+			sbb += other.sbb;
+			say += other.say;
+			sby += other.sby;
+			samples += other.samples;
+		}
+
+		/**
+		 * Gets the number of samples added.
+		 *
+		 * @return the number of samples
+		 */
+		public int getSamples() {
+			return samples;
+		}
+
+		/**
+		 * Tells whether the samples determine the coefficients, i.e. the equations are not singular
+		 * or nearly so.
+		 *
+		 * @return <tt>true</tt> if {@link #solve()} gives a fit rather than the defaults
+		 */
+		public boolean isSolvable() {
+			double determinant = saa * sbb - sab * sab;
+			return determinant > MIN_RELATIVE_DETERMINANT * Math.max(saa * sbb, Double.MIN_NORMAL);
+		}
+
+		/**
+		 * Solves the equations.
+		 *
+		 * @return the coefficients <tt>{c1, c2}</tt>, or the defaults if the samples are too few or
+		 *         degenerate
+		 */
+		public double[] solve() {
+			if (!isSolvable()) {
+				return new double[] { DEFAULT_C1, DEFAULT_C2 };
+			}
+			double determinant = saa * sbb - sab * sab;
+			return new double[] { (say * sbb - sby * sab) / determinant,
+					(sby * saa - say * sab) / determinant };
+		}
+
+	}
+
+}
@@ -0,0 +1,346 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * Reads a slice of a binary trace written by {@link BinaryTraceWriter}. Only the index at the end
+ * of the file is read when the reader is created; a pass over the workload then seeks to the first
+ * block that may hold a row of the time window, reads the blocks up to the end of the window, and
+ * skips the blocks whose range of priorities does not meet the priority filter. Slicing a window
+ * of a long trace therefore reads the window and not the whole trace.
+ * <p>
+ * Each row becomes a cloudlet through an {@link InputRowMapper}, as the rows of the query of the
+ * <tt>input</tt> table, and the cloudlets are numbered from 0 in the order of the slice.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class BinaryTraceReader extends AbstractStreamingWorkload {
+
+	/** The file. */
+	private final File file;
+
+	/** The mapping of the rows to cloudlets. */
+	private InputRowMapper rowMapper;
+
+	/** The first times of the rows of each block. */
+	private final double[] firstTimes;
+
+	/** The last times of the rows of each block. */
+	private final double[] lastTimes;
+
+	/** The smallest priority of each block. */
+	private final int[] minPriorities;
+
+	/** The largest priority of each block. */
+	private final int[] maxPriorities;
+
+	/** The offset of each block, plus the offset of the index. */
+	private final long[] offsets;
+
+	/** The number of rows of the whole trace. */
+	private final long rowCount;
+
+	/** The first time of the window, included. */
+	private double windowStart = Double.NEGATIVE_INFINITY;
+
+	/** The last time of the window, excluded. */
+	private double windowEnd = Double.POSITIVE_INFINITY;
+
+	/** The smallest priority read. */
+	private int minPriority = Integer.MIN_VALUE;
+
+	/** The largest priority read. */
+	private int maxPriority = Integer.MAX_VALUE;
+
+	/** The number of blocks read by the passes so far. */
+	private int blocksRead;
+
+	/**
+	 * Opens a binary trace and reads its index.
+	 *
+	 * @param fileName the file name
+	 * @param peNormal the number of PEs the CPU requests are scaled by
+	 * @throws IOException if the file cannot be read or is not a binary trace
+	 */
+	public BinaryTraceReader(String fileName, int peNormal) throws IOException {
+		file = new File(fileName);
+		rowMapper = new InputRowMapper(peNormal);
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			long length = in.length();
+			if (length < BinaryTraceWriter.HEADER_SIZE + BinaryTraceWriter.FOOTER_SIZE
+					|| in.readInt() != BinaryTraceWriter.MAGIC) {
+				throw new IOException(fileName + " is not a binary trace");
+			}
+			int version = in.readInt();
+			if (version != BinaryTraceWriter.VERSION) {
+				throw new IOException(fileName + " has an unsupported version: " + version);
+			}
+			in.seek(length - BinaryTraceWriter.FOOTER_SIZE);
+			long indexOffset = in.readLong();
+			int blocks = in.readInt();
+			if (in.readInt() != BinaryTraceWriter.MAGIC
+					|| indexOffset + (long) blocks * BinaryTraceWriter.INDEX_ENTRY_SIZE
+							!= length - BinaryTraceWriter.FOOTER_SIZE) {
+				throw new IOException(fileName + " is truncated");
+			}
+			byte[] index = new byte[blocks * BinaryTraceWriter.INDEX_ENTRY_SIZE];
+			in.seek(indexOffset);
+			in.readFully(index);
+			DataInputStream entries = new DataInputStream(new ByteArrayInputStream(index));
+			firstTimes = new double[blocks];
+			lastTimes = new double[blocks];
+			minPriorities = new int[blocks];
+			maxPriorities = new int[blocks];
+			offsets = new long[blocks + 1];
+			long rows = 0;
+			for (int i = 0; i < blocks; i++) {
+				firstTimes[i] = entries.readDouble();
+				lastTimes[i] = entries.readDouble();
+				minPriorities[i] = entries.readInt();
+				maxPriorities[i] = entries.readInt();
+				offsets[i] = entries.readLong();
+				rows += entries.readInt();
+			}
+			offsets[blocks] = indexOffset;
+			rowCount = rows;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Restricts the next passes to the rows submitted in a time window.
+	 *
+	 * @param start the first time, included
+	 * @param end the last time, excluded
+	 */
+	public void setTimeWindow(double start, double end) {
+		windowStart = start;
+		windowEnd = end;
+		resetWorkload();
+	}
+
+	/**
+	 * Restricts the next passes to the rows with a priority in a range, e.g. <tt>[0, 1]</tt> for
+	 * the <tt>priority&lt;2</tt> rows.
+	 *
+	 * @param min the smallest priority, included
+	 * @param max the largest priority, included
+	 */
+	public void setPriorityRange(int min, int max) {
+		minPriority = min;
+		maxPriority = max;
+		resetWorkload();
+	}
+
+	/**
+	 * Sets the mapping of the rows to cloudlets of the next passes.
+	 *
+	 * @param rowMapper the mapping
+	 */
+	public void setRowMapper(InputRowMapper rowMapper) {
+		this.rowMapper = rowMapper;
+		resetWorkload();
+	}
+
+	/**
+	 * Gets the mapping of the rows to cloudlets.
+	 *
+	 * @return the mapping
+	 */
+	public InputRowMapper getRowMapper() {
+		return rowMapper;
+	}
+
+	/**
+	 * Gets the index of the first block that may hold a row submitted at or after a time.
+	 *
+	 * @param time the time
+	 * @return the index of the block, or the number of blocks if there is none
+	 */
+	private int firstBlock(double time) {
+		int low = 0;
+		int high = lastTimes.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (lastTimes[middle] < time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Tells whether a block may hold a row with a priority in a range, from its index entry.
+	 *
+	 * @param block the index of the block
+	 * @param min the smallest priority, included
+	 * @param max the largest priority, included
+	 * @return <code>true</code> if the block must be read
+	 */
+	private boolean hasPriority(int block, int min, int max) {
+		return maxPriorities[block] >= min && minPriorities[block] <= max;
+	}
+
+	@Override
+	public WorkloadIterator openWorkload() throws IOException {
+		return new SliceIterator();
+	}
+
+	/**
+	 * Gets the number of blocks of the trace.
+	 *
+	 * @return the number of blocks
+	 */
+	public int getBlockCount() {
+		return lastTimes.length;
+	}
+
+	/**
+	 * Gets the number of rows of the whole trace.
+	 *
+	 * @return the number of rows
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Gets the number of blocks read by the passes so far, to check how much of the trace a slice
+	 * needed.
+	 *
+	 * @return the number of blocks read
+	 */
+	public int getBlocksRead() {
+		return blocksRead;
+	}
+
+	/**
+	 * Gets the time of the first row of the trace.
+	 *
+	 * @return the time, or {@link Double#NaN} if the trace is empty
+	 */
+	public double getFirstTime() {
+		return firstTimes.length > 0 ? firstTimes[0] : Double.NaN;
+	}
+
+	/**
+	 * Gets the time of the last row of the trace.
+	 *
+	 * @return the time, or {@link Double#NaN} if the trace is empty
+	 */
+	public double getLastTime() {
+		return lastTimes.length > 0 ? lastTimes[lastTimes.length - 1] : Double.NaN;
+	}
+
+	/**
+	 * Iterates over the rows of the slice, reading one block at a time.
+	 */
+	private class SliceIterator extends AbstractWorkloadIterator {
+
+		/** The file. */
+		private final RandomAccessFile in;
+
+		/** The index of the next block to look at. */
+		private int block;
+
+		/** The rows of the current block not read yet; <code>null</code> between blocks. */
+		private DataInputStream rows;
+
+		/** The number of rows of the current block not read yet. */
+		private int rowsLeft;
+
+		/** The window start of the pass. */
+		private final double start = windowStart;
+
+		/** The window end of the pass. */
+		private final double end = windowEnd;
+
+		/** The smallest priority of the pass. */
+		private final int min = minPriority;
+
+		/** The largest priority of the pass. */
+		private final int max = maxPriority;
+
+		/** The mapping of the pass. */
+		private final InputRowMapper mapper = rowMapper;
+
+		/**
+		 * Opens the file and seeks to the first block of the window.
+		 *
+		 * @throws IOException if the file cannot be opened
+		 */
+		public SliceIterator() throws IOException {
+			in = new RandomAccessFile(file, "r");
+			block = firstBlock(start);
+		}
+
+		/**
+		 * Reads the next block that may hold a row of the slice.
+		 *
+		 * @return <code>false</code> if there is none
+		 * @throws IOException if the file cannot be read
+		 */
+		private boolean nextBlock() throws IOException {
+			while (block < lastTimes.length && firstTimes[block] < end) {
+				int current = block++;
+				if (!hasPriority(current, min, max)) {
+					continue;
+				}
+				byte[] data = new byte[(int) (offsets[current + 1] - offsets[current])];
+				in.seek(offsets[current]);
+				in.readFully(data);
+				blocksRead++;
+				rows = new DataInputStream(new ByteArrayInputStream(data));
+				rowsLeft = rows.readInt();
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		protected Cloudlet readNext(int jobCount) throws IOException {
+			while (rowsLeft > 0 || nextBlock()) {
+				rowsLeft--;
+				double time = rows.readDouble();
+				double cpuReq = rows.readDouble();
+				rows.readDouble(); // the disk request is not used
+				int priority = rows.readInt();
+				String jobId = rows.readBoolean() ? rows.readUTF() : null;
+				if (time >= end) {
+					// the rows are in time order, so the slice is over
+					return null;
+				}
+				if (time >= start && priority >= min && priority <= max) {
+					return mapper.createCloudlet(jobCount, time, cpuReq, priority, jobId);
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected void closeSource() throws IOException {
+			rows = null;
+			rowsLeft = 0;
+			in.close();
+		}
+	}
+
+}
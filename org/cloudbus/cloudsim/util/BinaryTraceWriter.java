@@ -0,0 +1,203 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the rows of the <tt>input</tt> table (time, CPU and disk requests, priority and job id) to
+ * a binary trace that {@link BinaryTraceReader} can slice by time and priority without reading the
+ * whole trace.
+ * <p>
+ * The rows must be written in increasing order of time. They are stored in blocks of a fixed number
+ * of rows, followed by a sparse index holding, for each block, its offset and the range of the
+ * times and priorities of its rows:
+ *
+ * <pre>
+ * header: int MAGIC, int VERSION, int rows per block
+ * block:  int rows, then per row: double time, double cpuReq, double diskReq, int priority,
+ *         boolean has job id, [UTF job id]
+ * index:  per block: double first time, double last time, int min priority, int max priority,
+ *         long offset, int rows
+ * footer: long index offset, int blocks, int MAGIC
+ * </pre>
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class BinaryTraceWriter implements Closeable {
+
+	/** The magic number starting and ending a binary trace. */
+	public static final int MAGIC = 0x43535452;
+
+	/** The version of the format. */
+	public static final int VERSION = 1;
+
+	/** The default number of rows per block. */
+	public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+	/** The size of the header, in bytes. */
+	static final int HEADER_SIZE = 12;
+
+	/** The size of the footer, in bytes. */
+	static final int FOOTER_SIZE = 16;
+
+	/** The size of an index entry, in bytes. */
+	static final int INDEX_ENTRY_SIZE = 36;
+
+	/** The output. */
+	private final DataOutputStream out;
+
+	/** The number of rows per block. */
+	private final int blockSize;
+
+	/** The rows of the current block. */
+	private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+
+	/** The output of the rows of the current block. */
+	private final DataOutputStream blockOut = new DataOutputStream(block);
+
+	/** The number of rows of the current block. */
+	private int blockRows;
+
+	/** The time of the first row of the current block. */
+	private double firstTime;
+
+	/** The time of the last row written. */
+	private double lastTime = Double.NEGATIVE_INFINITY;
+
+	/** The smallest priority of the current block. */
+	private int minPriority;
+
+	/** The largest priority of the current block. */
+	private int maxPriority;
+
+	/** The number of bytes written so far. */
+	private long offset;
+
+	/** The index entries of the blocks written so far. */
+	private final List<double[]> blockTimes = new ArrayList<double[]>();
+
+	/** The priority ranges, offsets and rows of the blocks written so far. */
+	private final List<long[]> blockEntries = new ArrayList<long[]>();
+
+	/**
+	 * Creates a binary trace.
+	 *
+	 * @param fileName the file name
+	 * @param blockSize the number of rows per block; smaller blocks make slices more precise and the
+	 *            index larger
+	 * @throws IOException if the file cannot be written
+	 */
+	public BinaryTraceWriter(String fileName, int blockSize) throws IOException {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("The block size must be > 0.");
+		}
+		this.blockSize = blockSize;
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(blockSize);
+		offset = HEADER_SIZE;
+	}
+
+	/**
+	 * Writes a row.
+	 *
+	 * @param time the submit time
+	 * @param cpuReq the CPU request, as a fraction of a VM
+	 * @param diskReq the disk request
+	 * @param priority the priority
+	 * @param jobId the job id, or <tt>null</tt>
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if the time is before the time of the previous row
+	 */
+	public void write(double time, double cpuReq, double diskReq, int priority, String jobId)
+			throws IOException {
+		if (time < lastTime) {
+			throw new IllegalArgumentException("The rows must be written in increasing order of time: "
+					+ time + " after " + lastTime);
+		}
+		if (blockRows == 0) {
+			firstTime = time;
+			minPriority = priority;
+			maxPriority = priority;
+		} else {
+			minPriority = Math.min(minPriority, priority);
+			maxPriority = Math.max(maxPriority, priority);
+		}
+		lastTime = time;
+		blockOut.writeDouble(time);
+		blockOut.writeDouble(cpuReq);
+		blockOut.writeDouble(diskReq);
+		blockOut.writeInt(priority);
+		blockOut.writeBoolean(jobId != null);
+		if (jobId != null) {
+			blockOut.writeUTF(jobId);
+		}
+		blockRows++;
+		if (blockRows == blockSize) {
+			flushBlock();
+		}
+	}
+
+	/**
+	 * Writes the current block and adds it to the index.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	private void flushBlock() throws IOException {
+		if (blockRows == 0) {
+			return;
+		}
+		blockOut.flush();
+		blockTimes.add(new double[] { firstTime, lastTime });
+		blockEntries.add(new long[] { minPriority, maxPriority, offset, blockRows });
+		out.writeInt(blockRows);
+		block.writeTo(out);
+		offset += 4 + block.size();
+		block.reset();
+		blockRows = 0;
+	}
+
+	/**
+	 * Writes the last block and the index, and closes the file.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBlock();
+			long indexOffset = offset;
+			for (int i = 0; i < blockTimes.size(); i++) {
+				double[] times = blockTimes.get(i);
+				long[] entry = blockEntries.get(i);
+				out.writeDouble(times[0]);
+				out.writeDouble(times[1]);
+				out.writeInt((int) entry[0]);
+				out.writeInt((int) entry[1]);
+				out.writeLong(entry[2]);
+				out.writeInt((int) entry[3]);
+			}
+			out.writeLong(indexOffset);
+			out.writeInt(blockTimes.size());
+			out.writeInt(MAGIC);
+		} finally {
+			out.close();
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A daily cycle, as followed by the usage of the production services and by the arrival rate of
+ * the batch jobs: a cosine of one day period around a mean, peaking at a given time of the day.
+ * It can generate a product usage series, with Gaussian noise, in the form read by
+ * {@link org.cloudbus.cloudsim.Vm#setProductUsage(Map)} from the <tt>product</tt> table.
+ *
+ * @since CloudSim Toolkit 3.0
+ *
+ * @see SyntheticWorkload#setDiurnalProfile(DiurnalProfile)
+ */
+public class DiurnalProfile {
+
+	/** The length of a day, in seconds. */
+	public static final double DAY = 86400;
+
+	/** The mean value. */
+	private final double mean;
+
+	/** The amplitude of the cycle around the mean. */
+	private final double amplitude;
+
+	/** The time of the day of the peak, in seconds. */
+	private final double peakTime;
+
+	/**
+	 * Creates a daily cycle.
+	 *
+	 * @param mean the mean value
+	 * @param amplitude the amplitude of the cycle around the mean, between 0 and the mean
+	 * @param peakTime the time of the day of the peak, in seconds
+	 */
+	public DiurnalProfile(double mean, double amplitude, double peakTime) {
+		if (mean <= 0 || amplitude < 0 || amplitude >= mean) {
+			throw new IllegalArgumentException("The amplitude must be >= 0 and below the mean, which must be > 0.");
+		}
+		this.mean = mean;
+		this.amplitude = amplitude;
+		this.peakTime = peakTime;
+	}
+
+	/**
+	 * Gets the value of the cycle at a time.
+	 *
+	 * @param time the time, in seconds
+	 * @return the value, between <tt>mean - amplitude</tt> and <tt>mean + amplitude</tt>
+	 */
+	public double getValue(double time) {
+		return mean + amplitude * Math.cos(2 * Math.PI * (time - peakTime) / DAY);
+	}
+
+	/**
+	 * Gets the value of the cycle at a time relative to its mean.
+	 *
+	 * @param time the time, in seconds
+	 * @return the value divided by the mean
+	 */
+	public double getFactor(double time) {
+		return getValue(time) / mean;
+	}
+
+	/**
+	 * Generates a usage series: the value of the cycle at the start of each slot, plus Gaussian
+	 * noise, clamped to <tt>[0, 1]</tt>.
+	 *
+	 * @param slots the number of slots
+	 * @param slotLength the length of a slot, in seconds, e.g.
+	 *            {@link org.cloudbus.cloudsim.Vm#PRODUCT_USAGE_INTERVAL}
+	 * @param noise the standard deviation of the noise
+	 * @param seed the seed of the noise
+	 * @return the usage by slot index
+	 */
+	public Map<Integer, Double> generateUsage(int slots, double slotLength, double noise, long seed) {
+		Random random = new Random(seed);
+		Map<Integer, Double> usage = new HashMap<Integer, Double>();
+		for (int slot = 0; slot < slots; slot++) {
+			double value = getValue(slot * slotLength) + noise * random.nextGaussian();
+			usage.put(slot, Math.min(1.0, Math.max(0.0, value)));
+		}
+		return usage;
+	}
+
+	/**
+	 * Gets the mean value.
+	 *
+	 * @return the mean
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * Gets the amplitude of the cycle.
+	 *
+	 * @return the amplitude
+	 */
+	public double getAmplitude() {
+		return amplitude;
+	}
+
+	/**
+	 * Gets the time of the day of the peak.
+	 *
+	 * @return the time, in seconds
+	 */
+	public double getPeakTime() {
+		return peakTime;
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+
+/**
+ * Creates the cloudlet of a row of the <tt>input</tt> table, whatever the row is read from: the
+ * database ({@link JdbcWorkload}), a binary trace ({@link BinaryTraceReader}), a CSV export
+ * ({@link InputTraceReader}) or a generator ({@link SyntheticWorkload}). As in the query of the
+ * table by <tt>PredictBasedTaskSchedle</tt>, the CPU request, a fraction of a VM, is scaled by the
+ * number of PEs of a VM, the cloudlet runs {@link #LENGTH_PER_PE} MI per PE, and its file and
+ * output sizes are 100.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class InputRowMapper {
+
+	/** The length of a cloudlet per PE, in MI. */
+	public static final int LENGTH_PER_PE = 100;
+
+	/** The file and output size of a cloudlet. */
+	public static final int FILE_SIZE = 100;
+
+	/** The number of PEs the CPU requests are scaled by. */
+	private final int peNormal;
+
+	/** The smallest number of PEs of a cloudlet. */
+	private int minPes;
+
+	/** The id of the user of the cloudlets, or -1 to leave it unset. */
+	private int userId = -1;
+
+	/** The utilization model of the cloudlets. */
+	private final UtilizationModel utilizationModel = new UtilizationModelFull();
+
+	/**
+	 * Creates a mapper.
+	 *
+	 * @param peNormal the number of PEs the CPU requests are scaled by
+	 */
+	public InputRowMapper(int peNormal) {
+		this.peNormal = peNormal;
+	}
+
+	/**
+	 * Gets the number of PEs the CPU requests are scaled by.
+	 *
+	 * @return the number of PEs
+	 */
+	public int getPeNormal() {
+		return peNormal;
+	}
+
+	/**
+	 * Sets the smallest number of PEs of a cloudlet. It defaults to 0, so a CPU request below one
+	 * PE gives a cloudlet with no PE, as in the query of the <tt>input</tt> table.
+	 *
+	 * @param minPes the number of PEs
+	 */
+	public void setMinPes(int minPes) {
+		this.minPes = minPes;
+	}
+
+	/**
+	 * Gets the smallest number of PEs of a cloudlet.
+	 *
+	 * @return the number of PEs
+	 */
+	public int getMinPes() {
+		return minPes;
+	}
+
+	/**
+	 * Sets the user of the cloudlets, e.g. the broker they are submitted to as a list. A broker
+	 * reading a workload sets it itself.
+	 *
+	 * @param userId the id of the user, or -1 to leave it unset
+	 */
+	public void setUserId(int userId) {
+		this.userId = userId;
+	}
+
+	/**
+	 * Gets the user of the cloudlets.
+	 *
+	 * @return the id of the user, or -1 if it is left unset
+	 */
+	public int getUserId() {
+		return userId;
+	}
+
+	/**
+	 * Gets the number of PEs of a CPU request.
+	 *
+	 * @param cpuReq the CPU request, as a fraction of a VM
+	 * @return the number of PEs
+	 */
+	public int getPes(double cpuReq) {
+		return Math.max(minPes, (int) (cpuReq * peNormal));
+	}
+
+	/**
+	 * Creates the cloudlet of a row.
+	 *
+	 * @param id the id of the cloudlet
+	 * @param time the submit time
+	 * @param cpuReq the CPU request, as a fraction of a VM
+	 * @param priority the priority, which becomes the class type
+	 * @param jobId the job id, or <tt>null</tt>
+	 * @return the cloudlet
+	 */
+	public Cloudlet createCloudlet(int id, double time, double cpuReq, int priority, String jobId) {
+		return createCloudlet(id, time, cpuReq, -1, priority, jobId);
+	}
+
+	/**
+	 * Creates the cloudlet of a row with a given length.
+	 *
+	 * @param id the id of the cloudlet
+	 * @param time the submit time
+	 * @param cpuReq the CPU request, as a fraction of a VM
+	 * @param length the length in MI, at least 1, or a negative value for {@link #LENGTH_PER_PE}
+	 *            MI per PE
+	 * @param priority the priority, which becomes the class type
+	 * @param jobId the job id, or <tt>null</tt>
+	 * @return the cloudlet
+	 */
+	public Cloudlet createCloudlet(int id, double time, double cpuReq, long length, int priority,
+			String jobId) {
+		int pes = getPes(cpuReq);
+		Cloudlet cloudlet = new Cloudlet(id, length < 0 ? (long) pes * LENGTH_PER_PE : Math.max(1, length),
+				pes, FILE_SIZE, FILE_SIZE, utilizationModel, utilizationModel, utilizationModel);
+		if (userId >= 0) {
+			cloudlet.setUserId(userId);
+		}
+		cloudlet.setSubmitTime(time);
+		cloudlet.setClassType(priority);
+		cloudlet.setJobId(jobId);
+		return cloudlet;
+	}
+
+}
@@ -0,0 +1,512 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * Reads a CSV export of the <tt>input</tt> table with <tt>time,cpuReq,priority[,jobID]</tt> rows.
+ * The rows are parsed from the bytes of the file into one primitive array per column, without
+ * creating a String per line or per numeric field; only the job ids become Strings. Lines that
+ * cannot be parsed, e.g. a header, are skipped. The bytes are expected to be in an ASCII
+ * compatible encoding.
+ * <p>
+ * The file can be read in file order, one chunk at a time, or in parallel: the chunks of the file
+ * are then parsed on the threads of a pool, and their rows are merged in submit time order with
+ * {@link TraceChunks}. Each row becomes a cloudlet through an {@link InputRowMapper}.
+ *
+ * @since CloudSim Toolkit 3.0
+ *
+ * @see WorkloadFileReader
+ */
+public class InputTraceReader {
+
+	/** The largest number of digits of a decimal parsed without {@link Double#parseDouble(String)}. */
+	private static final int MAX_FAST_DIGITS = 15;
+
+	/** The powers of ten that are exact as <tt>double</tt>. */
+	private static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	/** The file. */
+	private final File file;
+
+	/** The mapping of the rows to cloudlets. */
+	private final InputRowMapper rowMapper;
+
+	/**
+	 * Creates a reader.
+	 *
+	 * @param fileName the file name
+	 * @param rowMapper the mapping of the rows to cloudlets
+	 * @throws FileNotFoundException if the file does not exist
+	 */
+	public InputTraceReader(String fileName, InputRowMapper rowMapper) throws FileNotFoundException {
+		file = new File(fileName);
+		if (!file.exists()) {
+			throw new FileNotFoundException("Trace " + fileName + " does not exist");
+		}
+		this.rowMapper = rowMapper;
+	}
+
+	/**
+	 * Reads the rows of the whole file, in file order.
+	 *
+	 * @return the rows
+	 * @throws IOException if the file cannot be read
+	 */
+	public Rows readRows() throws IOException {
+		long[] bounds = TraceChunks.split(file, 1);
+		Rows rows = new Rows(16);
+		for (int chunk = 0; chunk + 1 < bounds.length; chunk++) {
+			rows.addAll(parseChunk(bounds[chunk], bounds[chunk + 1]));
+		}
+		return rows;
+	}
+
+	/**
+	 * Reads the first rows of the file as cloudlets, in file order, holding one chunk of the file
+	 * in memory at a time. The cloudlets are numbered from 0.
+	 *
+	 * @param limit the largest number of cloudlets
+	 * @return the cloudlets
+	 * @throws IOException if the file cannot be read
+	 */
+	public List<Cloudlet> readCloudlets(int limit) throws IOException {
+		long[] bounds = TraceChunks.split(file, 1);
+		List<Cloudlet> list = new ArrayList<Cloudlet>();
+		for (int chunk = 0; chunk + 1 < bounds.length && list.size() < limit; chunk++) {
+			Rows rows = parseChunk(bounds[chunk], bounds[chunk + 1]);
+			for (int i = 0; i < rows.size && list.size() < limit; i++) {
+				list.add(rowMapper.createCloudlet(list.size(), rows.times[i], rows.cpuReqs[i],
+						rows.priorities[i], rows.jobIds[i]));
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Reads the same cloudlets as {@link #readCloudlets(int)}, with the same ids, by parsing the
+	 * chunks of the file in parallel. The cloudlets are returned in submit time order; those with
+	 * the same submit time keep the order of the file, so both lists are equal for a trace sorted by
+	 * submit time.
+	 *
+	 * @param limit the largest number of cloudlets
+	 * @param pool the pool parsing the chunks
+	 * @return the cloudlets in submit time order
+	 * @throws IOException if the file cannot be read
+	 */
+	public List<Cloudlet> readCloudlets(final int limit, ForkJoinPool pool) throws IOException {
+		final long[] bounds = TraceChunks.split(file, pool.getParallelism());
+		final int chunks = bounds.length - 1;
+		List<Callable<Rows>> parses = new ArrayList<Callable<Rows>>(chunks);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			final int index = chunk;
+			parses.add(new Callable<Rows>() {
+
+				@Override
+				public Rows call() throws IOException {
+					return parseChunk(bounds[index], bounds[index + 1]);
+				}
+			});
+		}
+		final Rows[] rows = new Rows[chunks];
+		int chunk = 0;
+		for (Future<Rows> future : pool.invokeAll(parses)) {
+			rows[chunk++] = TraceChunks.getResult(future);
+		}
+
+		// ids follow the order of the file, and only the first rows up to the limit are kept
+		final double[][] submitTimes = new double[chunks][];
+		final int[][] orders = new int[chunks][];
+		List<Callable<Cloudlet[]>> creations = new ArrayList<Callable<Cloudlet[]>>(chunks);
+		int offset = 0;
+		for (chunk = 0; chunk < chunks; chunk++) {
+			final int index = chunk;
+			final int firstId = offset;
+			final int length = (int) Math.max(0, Math.min(rows[chunk].size, (long) limit - offset));
+			offset += length;
+			creations.add(new Callable<Cloudlet[]>() {
+
+				@Override
+				public Cloudlet[] call() {
+					Rows chunkRows = rows[index];
+					Cloudlet[] created = new Cloudlet[length];
+					for (int i = 0; i < length; i++) {
+						created[i] = rowMapper.createCloudlet(firstId + i, chunkRows.times[i],
+								chunkRows.cpuReqs[i], chunkRows.priorities[i], chunkRows.jobIds[i]);
+					}
+					submitTimes[index] = chunkRows.times;
+					orders[index] = TraceChunks.sortedOrder(chunkRows.times, length);
+					return created;
+				}
+			});
+		}
+		Cloudlet[][] created = new Cloudlet[chunks][];
+		chunk = 0;
+		for (Future<Cloudlet[]> future : pool.invokeAll(creations)) {
+			created[chunk++] = TraceChunks.getResult(future);
+		}
+
+		long[] merged = TraceChunks.merge(submitTimes, orders);
+		List<Cloudlet> list = new ArrayList<Cloudlet>(merged.length);
+		for (long row : merged) {
+			list.add(created[(int) (row >>> 32)][(int) row]);
+		}
+		return list;
+	}
+
+	/**
+	 * Parses a chunk of the file.
+	 *
+	 * @param from the first byte of the chunk
+	 * @param to the byte after the last one
+	 * @return the rows of the chunk
+	 * @throws IOException if the file cannot be read
+	 */
+	private Rows parseChunk(long from, long to) throws IOException {
+		byte[] data = TraceChunks.read(file, from, to);
+		return parse(data, 0, data.length);
+	}
+
+	/**
+	 * Parses the <tt>time,cpuReq,priority[,jobID]</tt> rows of bytes holding whole lines. Blanks
+	 * around the fields are ignored, a line with fewer than three fields or whose first three
+	 * fields are not numbers is skipped, and an empty job id is read as <tt>null</tt>.
+	 *
+	 * @param data the bytes
+	 * @param offset the position of the first byte
+	 * @param length the number of bytes
+	 * @return the rows
+	 */
+	public static Rows parse(byte[] data, int offset, int length) {
+		Rows rows = new Rows(Math.max(16, length / 32));
+		int end = offset + length;
+		int pos = offset;
+		// the fields of the current line, as [start, end) positions
+		int[] starts = new int[4];
+		int[] ends = new int[4];
+		while (pos < end) {
+			int count = 0;
+			int fieldStart = pos;
+			while (true) {
+				int b = pos < end ? data[pos] : '\n';
+				if (b == ',' || b == '\n' || b == '\r') {
+					if (count < 4) {
+						starts[count] = fieldStart;
+						ends[count] = pos;
+					}
+					count++;
+					pos++;
+					if (b != ',') {
+						break;
+					}
+					fieldStart = pos;
+				} else {
+					pos++;
+				}
+			}
+			if (count < 3) {
+				continue;
+			}
+			double time = parseDouble(data, starts[0], ends[0]);
+			double cpuReq = parseDouble(data, starts[1], ends[1]);
+			long priority = parseInt(data, starts[2], ends[2]);
+			if (Double.isNaN(time) || Double.isNaN(cpuReq) || priority == Long.MIN_VALUE) {
+				continue;
+			}
+			String jobId = count > 3 ? parseString(data, starts[3], ends[3]) : null;
+			rows.add(time, cpuReq, (int) priority, jobId);
+		}
+		return rows;
+	}
+
+	/**
+	 * Parses a decimal field. Plain decimals with few digits are computed from their digits, which
+	 * gives the same value as {@link Double#parseDouble(String)}; other numbers, e.g. with an
+	 * exponent, are handed to it.
+	 *
+	 * @param data the bytes
+	 * @param start the first byte of the field
+	 * @param end the byte after the field
+	 * @return the value, or {@link Double#NaN} if the field is not a number
+	 */
+	private static double parseDouble(byte[] data, int start, int end) {
+		while (start < end && (data[start] & 0xFF) <= ' ') {
+			start++;
+		}
+		while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+			end--;
+		}
+		int pos = start;
+		boolean negative = false;
+		if (pos < end && (data[pos] == '-' || data[pos] == '+')) {
+			negative = data[pos] == '-';
+			pos++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = -1;
+		boolean hasDigit = false;
+		for (; pos < end; pos++) {
+			int b = data[pos];
+			if (b >= '0' && b <= '9') {
+				hasDigit = true;
+				if (mantissa > 0 || b != '0') {
+					digits++;
+				}
+				mantissa = mantissa * 10 + (b - '0');
+				if (decimals >= 0) {
+					decimals++;
+				}
+				if (digits > MAX_FAST_DIGITS) {
+					break;
+				}
+			} else if (b == '.' && decimals < 0) {
+				decimals = 0;
+			} else {
+				break;
+			}
+		}
+		if (pos == end && hasDigit && decimals < POWERS_OF_TEN.length) {
+			// both the mantissa and the power of ten are exact, so the division is correctly rounded
+			double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+			return negative ? -value : value;
+		}
+		if (start == end) {
+			return Double.NaN;
+		}
+		try {
+			return Double.parseDouble(new String(data, start, end - start, StandardCharsets.ISO_8859_1));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Parses an integer field as {@link Integer#parseInt(String)} does.
+	 *
+	 * @param data the bytes
+	 * @param start the first byte of the field
+	 * @param end the byte after the field
+	 * @return the value, or {@link Long#MIN_VALUE} if the field is not an <tt>int</tt>
+	 */
+	private static long parseInt(byte[] data, int start, int end) {
+		while (start < end && (data[start] & 0xFF) <= ' ') {
+			start++;
+		}
+		while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+			end--;
+		}
+		int pos = start;
+		boolean negative = false;
+		if (pos < end && (data[pos] == '-' || data[pos] == '+')) {
+			negative = data[pos] == '-';
+			pos++;
+		}
+		if (pos == end) {
+			return Long.MIN_VALUE;
+		}
+		long value = 0;
+		for (; pos < end; pos++) {
+			int digit = data[pos] - '0';
+			if (digit < 0 || digit > 9) {
+				return Long.MIN_VALUE;
+			}
+			value = value * 10 + digit;
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				return Long.MIN_VALUE;
+			}
+		}
+		value = negative ? -value : value;
+		return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+	}
+
+	/**
+	 * Gets a text field without its surrounding blanks.
+	 *
+	 * @param data the bytes
+	 * @param start the first byte of the field
+	 * @param end the byte after the field
+	 * @return the text, or <tt>null</tt> if it is empty
+	 */
+	private static String parseString(byte[] data, int start, int end) {
+		while (start < end && (data[start] & 0xFF) <= ' ') {
+			start++;
+		}
+		while (end > start && (data[end - 1] & 0xFF) <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			return null;
+		}
+		char[] chars = new char[end - start];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (data[start + i] & 0xFF);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * The rows read from a trace, as one array per column.
+	 */
+	public static class Rows {
+
+		/** The submit times. */
+		private double[] times;
+
+		/** The CPU requests. */
+		private double[] cpuReqs;
+
+		/** The priorities. */
+		private int[] priorities;
+
+		/** The job ids, or <tt>null</tt>. */
+		private String[] jobIds;
+
+		/** The number of rows. */
+		private int size;
+
+		/**
+		 * Creates empty columns.
+		 *
+		 * @param capacity the initial capacity
+		 */
+		public Rows(int capacity) {
+			capacity = Math.max(1, capacity);
+			times = new double[capacity];
+			cpuReqs = new double[capacity];
+			priorities = new int[capacity];
+			jobIds = new String[capacity];
+		}
+
+		/**
+		 * Makes room for more rows.
+		 *
+		 * @param capacity the number of rows needed
+		 */
+		private void ensureCapacity(int capacity) {
+			if (capacity > times.length) {
+				capacity = Math.max(capacity, times.length * 2);
+				times = Arrays.copyOf(times, capacity);
+				cpuReqs = Arrays.copyOf(cpuReqs, capacity);
+				priorities = Arrays.copyOf(priorities, capacity);
+				jobIds = Arrays.copyOf(jobIds, capacity);
+			}
+		}
+
+		/**
+		 * Adds a row.
+		 *
+		 * @param time the submit time
+		 * @param cpuReq the CPU request
+		 * @param priority the priority
+		 * @param jobId the job id, or <tt>null</tt>
+		 */
+		public void add(double time, double cpuReq, int priority, String jobId) {
+			ensureCapacity(size + 1);
+			times[size] = time;
+			cpuReqs[size] = cpuReq;
+			priorities[size] = priority;
+			jobIds[size] = jobId;
+			size++;
+		}
+
+		/**
+		 * Adds the rows of other columns.
+		 *
+		 * @param other the rows
+		 */
+		public void addAll(Rows other) {
+			ensureCapacity(size + other.size);
+			System.arraycopy(other.times, 0, times, size, other.size);
+			System.arraycopy(other.cpuReqs, 0, cpuReqs, size, other.size);
+			System.arraycopy(other.priorities, 0, priorities, size, other.size);
+			System.arraycopy(other.jobIds, 0, jobIds, size, other.size);
+			size += other.size;
+		}
+
+		/**
+		 * Gets the number of rows.
+		 *
+		 * @return the number of rows
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Gets the submit times, e.g. to sort the rows with {@link TraceChunks#sortedOrder(double[], int)}.
+		 * The array may be longer than the number of rows.
+		 *
+		 * @return the submit times
+		 */
+		public double[] getTimes() {
+			return times;
+		}
+
+		/**
+		 * Gets the submit time of a row.
+		 *
+		 * @param row the index of the row
+		 * @return the submit time
+		 */
+		public double getTime(int row) {
+			return times[row];
+		}
+
+		/**
+		 * Gets the CPU request of a row.
+		 *
+		 * @param row the index of the row
+		 * @return the CPU request, as a fraction of a VM
+		 */
+		public double getCpuReq(int row) {
+			return cpuReqs[row];
+		}
+
+		/**
+		 * Gets the priority of a row.
+		 *
+		 * @param row the index of the row
+		 * @return the priority
+		 */
+		public int getPriority(int row) {
+			return priorities[row];
+		}
+
+		/**
+		 * Gets the job id of a row.
+		 *
+		 * @param row the index of the row
+		 * @return the job id, or <tt>null</tt>
+		 */
+		public String getJobId(int row) {
+			return jobIds[row];
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the rows of a query on the trace database one at a time. The query runs on a forward-only,
+ * read-only cursor with a bounded fetch size, so that the driver holds a batch of rows in memory
+ * rather than the whole result set, and the columns are read with their types instead of being
+ * parsed from strings.
+ * <p>
+ * With MySQL Connector/J, a positive fetch size is only honoured when the URL enables
+ * <tt>useCursorFetch</tt>, as {@link #DEFAULT_URL} does; otherwise the driver reads the whole result
+ * set whatever the fetch size.
+ *
+ * @since CloudSim Toolkit 3.0
+ *
+ * @see JdbcWorkload
+ */
+public class JdbcTraceSource implements Closeable {
+
+	/** The JDBC driver of the trace database. */
+	public static final String DRIVER = "com.mysql.jdbc.Driver";
+
+	/** The URL of the trace database. */
+	public static final String DEFAULT_URL = "jdbc:mysql://127.0.0.1:3306/predict?useCursorFetch=true";
+
+	/** The user of the trace database. */
+	public static final String DEFAULT_USER = "root";
+
+	/** The password of the trace database. */
+	public static final String DEFAULT_PASSWORD = "";
+
+	/** The default number of rows fetched at a time. */
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+
+	/** The connection. */
+	private Connection connection;
+
+	/** The statement. */
+	private PreparedStatement statement;
+
+	/** The result set. */
+	private ResultSet result;
+
+	/**
+	 * Runs a query on the trace database, loading {@link #DRIVER} first.
+	 *
+	 * @param sql the query
+	 * @param fetchSize the number of rows fetched at a time
+	 * @return the source
+	 * @throws IOException if the driver cannot be loaded or the query fails
+	 */
+	public static JdbcTraceSource open(String sql, int fetchSize) throws IOException {
+		try {
+			Class.forName(DRIVER);
+		} catch (ClassNotFoundException e) {
+			throw new IOException("The JDBC driver " + DRIVER + " cannot be found", e);
+		}
+		return new JdbcTraceSource(DEFAULT_URL, DEFAULT_USER, DEFAULT_PASSWORD, sql, fetchSize);
+	}
+
+	/**
+	 * Runs a query. The driver of the URL must have been loaded.
+	 *
+	 * @param url the URL of the database
+	 * @param user the user
+	 * @param password the password
+	 * @param sql the query
+	 * @param fetchSize the number of rows fetched at a time
+	 * @throws IOException if the query fails
+	 */
+	public JdbcTraceSource(String url, String user, String password, String sql, int fetchSize)
+			throws IOException {
+		try {
+			connection = DriverManager.getConnection(url, user, password);
+			statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(fetchSize);
+			result = statement.executeQuery();
+			result.setFetchDirection(ResultSet.FETCH_FORWARD);
+		} catch (SQLException e) {
+			try {
+				close();
+			} catch (IOException ignored) {
+			}
+			throw new IOException("The query " + sql + " failed", e);
+		}
+	}
+
+	/**
+	 * Gets the index of a column, to read it without looking its name up on each row.
+	 *
+	 * @param name the name of the column
+	 * @return the index of the column, from 1
+	 * @throws IOException if there is no such column
+	 */
+	public int getColumn(String name) throws IOException {
+		try {
+			return result.findColumn(name);
+		} catch (SQLException e) {
+			throw new IOException("No column " + name, e);
+		}
+	}
+
+	/**
+	 * Moves to the next row.
+	 *
+	 * @return <code>false</code> if there is no row left
+	 * @throws IOException if the row cannot be fetched
+	 */
+	public boolean next() throws IOException {
+		try {
+			return result.next();
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Gets a column of the current row as a <tt>double</tt>.
+	 *
+	 * @param column the index of the column
+	 * @return the value, or 0 if it is NULL
+	 * @throws IOException if the column cannot be read
+	 */
+	public double getDouble(int column) throws IOException {
+		try {
+			return result.getDouble(column);
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Gets a column of the current row as an <tt>int</tt>.
+	 *
+	 * @param column the index of the column
+	 * @return the value, or 0 if it is NULL
+	 * @throws IOException if the column cannot be read
+	 */
+	public int getInt(int column) throws IOException {
+		try {
+			return result.getInt(column);
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Gets a column of the current row as a String.
+	 *
+	 * @param column the index of the column
+	 * @return the value, or <tt>null</tt> if it is NULL
+	 * @throws IOException if the column cannot be read
+	 */
+	public String getString(int column) throws IOException {
+		try {
+			return result.getString(column);
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Closes the result set, the statement and the connection.
+	 *
+	 * @throws IOException if they cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		SQLException error = null;
+		try {
+			if (result != null) {
+				result.close();
+			}
+		} catch (SQLException e) {
+			error = e;
+		}
+		try {
+			if (statement != null) {
+				statement.close();
+			}
+		} catch (SQLException e) {
+			error = e;
+		}
+		try {
+			if (connection != null) {
+				connection.close();
+			}
+		} catch (SQLException e) {
+			error = e;
+		}
+		result = null;
+		statement = null;
+		connection = null;
+		if (error != null) {
+			throw new IOException(error);
+		}
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * The jobs of a query on the <tt>input</tt> table of the trace database, with the columns
+ * <tt>time</tt>, <tt>cpuReq</tt>, <tt>priority</tt> and <tt>jobID</tt>. The rows are streamed from
+ * a {@link JdbcTraceSource}, so a pass holds one fetch of rows in memory, and the workload can be
+ * given to {@link org.cloudbus.cloudsim.DatacenterBroker#setWorkload(StreamingWorkloadModel)}; the
+ * query should then sort the rows by <tt>time</tt>.
+ * <p>
+ * Each row becomes a cloudlet through an {@link InputRowMapper}, and the cloudlets are numbered
+ * from 0 in the order of the query.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class JdbcWorkload extends AbstractStreamingWorkload {
+
+	/** The URL of the database, or <tt>null</tt> for {@link JdbcTraceSource#DEFAULT_URL}. */
+	private final String url;
+
+	/** The user. */
+	private final String user;
+
+	/** The password. */
+	private final String password;
+
+	/** The query. */
+	private final String sql;
+
+	/** The mapping of the rows to cloudlets. */
+	private InputRowMapper rowMapper;
+
+	/** The number of rows fetched at a time. */
+	private int fetchSize = JdbcTraceSource.DEFAULT_FETCH_SIZE;
+
+	/**
+	 * Creates a workload reading the default trace database.
+	 *
+	 * @param sql the query, e.g. <tt>select * from input where priority&lt;2</tt>
+	 * @param peNormal the number of PEs the CPU requests are scaled by
+	 */
+	public JdbcWorkload(String sql, int peNormal) {
+		this(null, null, null, sql, peNormal);
+	}
+
+	/**
+	 * Creates a workload reading a database whose driver has been loaded.
+	 *
+	 * @param url the URL of the database
+	 * @param user the user
+	 * @param password the password
+	 * @param sql the query
+	 * @param peNormal the number of PEs the CPU requests are scaled by
+	 */
+	public JdbcWorkload(String url, String user, String password, String sql, int peNormal) {
+		this.url = url;
+		this.user = user;
+		this.password = password;
+		this.sql = sql;
+		rowMapper = new InputRowMapper(peNormal);
+	}
+
+	/**
+	 * Sets the mapping of the rows to cloudlets of the next passes.
+	 *
+	 * @param rowMapper the mapping
+	 */
+	public void setRowMapper(InputRowMapper rowMapper) {
+		this.rowMapper = rowMapper;
+		resetWorkload();
+	}
+
+	/**
+	 * Gets the mapping of the rows to cloudlets.
+	 *
+	 * @return the mapping
+	 */
+	public InputRowMapper getRowMapper() {
+		return rowMapper;
+	}
+
+	/**
+	 * Sets the number of rows fetched at a time by the next passes.
+	 *
+	 * @param fetchSize the number of rows
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Gets the number of rows fetched at a time.
+	 *
+	 * @return the number of rows
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	@Override
+	public WorkloadIterator openWorkload() throws IOException {
+		return new RowIterator(url == null ? JdbcTraceSource.open(sql, fetchSize) : new JdbcTraceSource(
+				url, user, password, sql, fetchSize));
+	}
+
+	/**
+	 * Iterates over the rows of the query.
+	 */
+	private class RowIterator extends AbstractWorkloadIterator {
+
+		/** The rows. */
+		private final JdbcTraceSource source;
+
+		/** The mapping of the pass. */
+		private final InputRowMapper mapper = rowMapper;
+
+		/** The index of the <tt>time</tt> column. */
+		private final int timeColumn;
+
+		/** The index of the <tt>cpuReq</tt> column. */
+		private final int cpuColumn;
+
+		/** The index of the <tt>priority</tt> column. */
+		private final int priorityColumn;
+
+		/** The index of the <tt>jobID</tt> column. */
+		private final int jobIdColumn;
+
+		/**
+		 * Looks the columns up.
+		 *
+		 * @param source the rows
+		 * @throws IOException if a column is missing
+		 */
+		public RowIterator(JdbcTraceSource source) throws IOException {
+			this.source = source;
+			try {
+				timeColumn = source.getColumn("time");
+				cpuColumn = source.getColumn("cpuReq");
+				priorityColumn = source.getColumn("priority");
+				jobIdColumn = source.getColumn("jobID");
+			} catch (IOException e) {
+				source.close();
+				throw e;
+			}
+		}
+
+		@Override
+		protected Cloudlet readNext(int jobCount) throws IOException {
+			if (!source.next()) {
+				return null;
+			}
+			return mapper.createCloudlet(jobCount, source.getDouble(timeColumn), source.getDouble(cpuColumn),
+					source.getInt(priorityColumn), source.getString(jobIdColumn));
+		}
+
+		@Override
+		protected void closeSource() throws IOException {
+			source.close();
+		}
+	}
+
+}
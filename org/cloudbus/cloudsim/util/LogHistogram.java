@@ -0,0 +1,202 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+/**
+ * A fixed-memory histogram of non-negative long values with log-linear buckets, in the style of
+ * HdrHistogram. Values below <tt>2^precisionBits</tt> are counted exactly; above that, each power
+ * of two is split in <tt>2^(precisionBits-1)</tt> linear sub-buckets, so the relative error of a
+ * reported value is below <tt>2^-(precisionBits-1)</tt>. The memory used does not depend on the
+ * number of recorded values.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class LogHistogram {
+
+	/** The default precision, which gives a relative error below 1.6%. */
+	public static final int DEFAULT_PRECISION_BITS = 7;
+
+	/** The number of exact buckets, 2^precisionBits. */
+	private final int subBucketCount;
+
+	/** Half of the number of exact buckets, i.e. the number of sub-buckets per power of two. */
+	private final int subBucketHalfCount;
+
+	/** The log2 of subBucketHalfCount. */
+	private final int subBucketHalfCountBits;
+
+	/** The bucket counts. */
+	private final long[] counts;
+
+	/** The number of recorded values. */
+	private long totalCount;
+
+	/** The sum of recorded values. */
+	private double sum;
+
+	/** The minimum recorded value. */
+	private long min = Long.MAX_VALUE;
+
+	/** The maximum recorded value. */
+	private long max;
+
+	/**
+	 * Creates a new histogram with the default precision.
+	 */
+	public LogHistogram() {
+		this(DEFAULT_PRECISION_BITS);
+	}
+
+	/**
+	 * Creates a new histogram.
+	 *
+	 * @param precisionBits the log2 of the number of exact buckets, between 2 and 16
+	 */
+	public LogHistogram(int precisionBits) {
+		if (precisionBits < 2 || precisionBits > 16) {
+			throw new IllegalArgumentException("Precision bits must be between 2 and 16");
+		}
+		subBucketCount = 1 << precisionBits;
+		subBucketHalfCount = subBucketCount >> 1;
+		subBucketHalfCountBits = precisionBits - 1;
+		counts = new long[subBucketCount + (64 - precisionBits) * subBucketHalfCount];
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as 0.
+	 *
+	 * @param value the value
+	 */
+	public void recordValue(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts[indexOf(value)]++;
+		totalCount++;
+		sum += value;
+		if (value < min) {
+			min = value;
+		}
+		if (value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * Gets the bucket index of a value.
+	 *
+	 * @param value the value
+	 * @return the index
+	 */
+	private int indexOf(long value) {
+		if (value < subBucketCount) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - subBucketHalfCountBits;
+		int subIndex = (int) (value >>> shift) - subBucketHalfCount;
+		return subBucketCount + (shift - 1) * subBucketHalfCount + subIndex;
+	}
+
+	/**
+	 * Gets the lowest value counted in a bucket.
+	 *
+	 * @param index the index
+	 * @return the lowest value
+	 */
+	private long lowestValueAt(int index) {
+		if (index < subBucketCount) {
+			return index;
+		}
+		int k = index - subBucketCount;
+		int shift = (k >> subBucketHalfCountBits) + 1;
+		long subIndex = (k & (subBucketHalfCount - 1)) + subBucketHalfCount;
+		return subIndex << shift;
+	}
+
+	/**
+	 * Gets the value at the given percentile, i.e. the middle of the bucket that holds it.
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the value, or 0 if nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		long target = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * totalCount);
+		if (target < 1) {
+			target = 1;
+		}
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				long low = lowestValueAt(i);
+				long width = i < subBucketCount ? 1 : 1L << ((i - subBucketCount >> subBucketHalfCountBits) + 1);
+				return Math.min(max, Math.max(min, low + (width >> 1)));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Adds the counts of another histogram with the same precision to this one.
+	 *
+	 * @param other the other histogram
+	 */
+	public void add(LogHistogram other) {
+		if (other.counts.length != counts.length) {
+			throw new IllegalArgumentException("Histograms have different precisions");
+		}
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		totalCount += other.totalCount;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 *
+	 * @return the count
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Gets the mean of the recorded values.
+	 *
+	 * @return the mean, or 0 if nothing has been recorded
+	 */
+	public double getMean() {
+		return totalCount == 0 ? 0 : sum / totalCount;
+	}
+
+	/**
+	 * Gets the minimum recorded value.
+	 *
+	 * @return the minimum, or 0 if nothing has been recorded
+	 */
+	public long getMin() {
+		return totalCount == 0 ? 0 : min;
+	}
+
+	/**
+	 * Gets the maximum recorded value.
+	 *
+	 * @return the maximum
+	 */
+	public long getMax() {
+		return max;
+	}
+
+}
@@ -0,0 +1,520 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * Replays recorded VM utilization series through the predictors of {@link Vm} without running a
+ * simulation. For each slot <tt>k</tt> a predictor forecasts the utilization of slot <tt>k + 1</tt>
+ * from the series up to <tt>k</tt>; the forecast is compared with the recorded value. The
+ * predictors are re-implemented on primitive arrays in double precision:
+ * <ul>
+ * <li>{@link #ARMA}: <tt>c1 u[k] + c2 u[k-1]</tt>, as {@link Vm#getAvaliablePEsARMA(double)} with
+ * coefficients 0.667 and 0.318;
+ * <li>{@link #AR2}: <tt>(1 + Fi1) u[k] + (Fi2 - Fi1) u[k-1] - Fi2 u[k-2]</tt> with fixed
+ * coefficients;
+ * <li>{@link #AR2_FIT}: the same with <tt>Fi1</tt> and <tt>Fi2</tt> refitted on the series up to
+ * <tt>k</tt> at every slot, as {@link Vm#getAvaliablePEsPridictGratis(double)} does;
+ * <li>{@link #BATCH}: the batch usage of slot <tt>k</tt> plus the maximum product usage over a
+ * look-ahead, as {@link Vm#getAvaliablePEsPridictBatch(double)}.
+ * </ul>
+ * Utilizations are fractions of the PEs of a VM. A forecast over-commits when the PEs it leaves
+ * free exceed the PEs actually free in the next slot.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class PredictorEvaluator {
+
+	/** The ARMA predictor with two coefficients. */
+	public static final int ARMA = 0;
+
+	/** The AR(2) predictor with fixed coefficients. */
+	public static final int AR2 = 1;
+
+	/** The AR(2) predictor refitted at every slot. */
+	public static final int AR2_FIT = 2;
+
+	/** The product usage look-ahead predictor. */
+	public static final int BATCH = 3;
+
+	/** The first slot that is forecast, so that every predictor has the history it needs. */
+	private static final int FIRST_SLOT = 3;
+
+	/** The number of PEs of a VM. */
+	private final int pes;
+
+	/** The product usage by slot. */
+	private final double[] productUsage;
+
+	/** The window maxima of the product usage. */
+	private final RangeMaxTable productUsageMax;
+
+	/**
+	 * Creates a new evaluator.
+	 *
+	 * @param pes the number of PEs of a VM
+	 * @param productUsage the product usage by slot, or <tt>null</tt> for none
+	 */
+	public PredictorEvaluator(int pes, double[] productUsage) {
+		this.pes = pes;
+		this.productUsage = productUsage == null ? new double[0] : productUsage;
+		Map<Integer, Double> series = new LinkedHashMap<Integer, Double>();
+		for (int i = 0; i < this.productUsage.length; i++) {
+			series.put(i, this.productUsage[i]);
+		}
+		productUsageMax = new RangeMaxTable(series);
+	}
+
+	/**
+	 * Evaluates a predictor on the series of one VM.
+	 *
+	 * @param predictor the predictor
+	 * @param utilization the total utilization of the VM by slot, product usage included
+	 * @return the result
+	 */
+	public Result evaluate(Predictor predictor, double[] utilization) {
+		Result result = new Result();
+		Ar2Fit fit = predictor.getType() == AR2_FIT ? new Ar2Fit() : null;
+		if (fit != null) {
+			for (int k = 0; k < FIRST_SLOT && k < utilization.length; k++) {
+				fit.add(utilization[k]);
+			}
+		}
+		for (int k = FIRST_SLOT; k + 1 < utilization.length; k++) {
+			double forecast;
+			switch (predictor.getType()) {
+				case ARMA:
+					forecast = predictor.getFirst() * utilization[k] + predictor.getSecond()
+							* utilization[k - 1];
+					break;
+				case AR2:
+					forecast = ar2(utilization, k, predictor.getFirst(), predictor.getSecond());
+					break;
+				case AR2_FIT:
+					fit.add(utilization[k]);
+					forecast = ar2(utilization, k, fit.getFi1(), fit.getFi2());
+					break;
+				case BATCH:
+					int records = Math.max(1, predictor.getLookAhead() / Vm.PRODUCT_USAGE_INTERVAL);
+					double product = k < productUsage.length ? productUsage[k] : 0;
+					forecast = Math.max(0, utilization[k] - product) + productUsageMax.getMax(k, k + records);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown predictor type " + predictor.getType());
+			}
+			result.add(forecast, utilization[k + 1], pes);
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluates predictors on the series of many VMs, one task per predictor and VM.
+	 *
+	 * @param predictors the predictors
+	 * @param utilizations the utilization series, one per VM
+	 * @param threads the number of threads
+	 * @return the results summed over the VMs, by predictor, in the order of the predictors
+	 * @throws InterruptedException if interrupted while waiting for the tasks
+	 * @throws ExecutionException if a task failed
+	 */
+	public Map<Predictor, Result> evaluateAll(
+			List<Predictor> predictors,
+			List<double[]> utilizations,
+			int threads) throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		try {
+			Map<Predictor, List<Future<Result>>> futures = new LinkedHashMap<Predictor, List<Future<Result>>>();
+			for (final Predictor predictor : predictors) {
+				List<Future<Result>> list = new ArrayList<Future<Result>>();
+				for (final double[] utilization : utilizations) {
+					list.add(executor.submit(new Callable<Result>() {
+
+						@Override
+						public Result call() {
+							return evaluate(predictor, utilization);
+						}
+					}));
+				}
+				futures.put(predictor, list);
+			}
+			Map<Predictor, Result> results = new LinkedHashMap<Predictor, Result>();
+			for (Map.Entry<Predictor, List<Future<Result>>> entry : futures.entrySet()) {
+				Result total = new Result();
+				for (Future<Result> future : entry.getValue()) {
+					total.add(future.get());
+				}
+				results.put(entry.getKey(), total);
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes an AR(2) forecast.
+	 *
+	 * @param x the series
+	 * @param k the last known slot
+	 * @param fi1 the first coefficient
+	 * @param fi2 the second coefficient
+	 * @return the forecast of slot <tt>k + 1</tt>
+	 */
+	private static double ar2(double[] x, int k, double fi1, double fi2) {
+		return x[k] * (fi1 + 1) + x[k - 1] * (fi2 - fi1) - x[k - 2] * fi2;
+	}
+
+	/**
+	 * Converts a utilization to the number of PEs left free, as the VM predictors do.
+	 *
+	 * @param utilization the utilization
+	 * @param pes the number of PEs
+	 * @return the free PEs
+	 */
+	private static int freePes(double utilization, int pes) {
+		if (utilization >= 1) {
+			return 0;
+		}
+		return pes - (int) Math.ceil(Math.max(0, utilization) * pes);
+	}
+
+	/**
+	 * A predictor and its parameters.
+	 */
+	public static class Predictor {
+
+		/** The type. */
+		private final int type;
+
+		/** The first coefficient. */
+		private final double first;
+
+		/** The second coefficient. */
+		private final double second;
+
+		/** The look-ahead, in seconds. */
+		private final int lookAhead;
+
+		/**
+		 * Creates a new predictor.
+		 *
+		 * @param type the type
+		 * @param first the first coefficient
+		 * @param second the second coefficient
+		 * @param lookAhead the look-ahead, in seconds
+		 */
+		private Predictor(int type, double first, double second, int lookAhead) {
+			this.type = type;
+			this.first = first;
+			this.second = second;
+			this.lookAhead = lookAhead;
+		}
+
+		/**
+		 * Creates an ARMA predictor.
+		 *
+		 * @param c1 the coefficient of the last slot
+		 * @param c2 the coefficient of the slot before
+		 * @return the predictor
+		 */
+		public static Predictor arma(double c1, double c2) {
+			return new Predictor(ARMA, c1, c2, 0);
+		}
+
+		/**
+		 * Creates an AR(2) predictor with fixed coefficients.
+		 *
+		 * @param fi1 the first coefficient
+		 * @param fi2 the second coefficient
+		 * @return the predictor
+		 */
+		public static Predictor ar2(double fi1, double fi2) {
+			return new Predictor(AR2, fi1, fi2, 0);
+		}
+
+		/**
+		 * Creates an AR(2) predictor refitted at every slot.
+		 *
+		 * @return the predictor
+		 */
+		public static Predictor ar2Fit() {
+			return new Predictor(AR2_FIT, 0, 0, 0);
+		}
+
+		/**
+		 * Creates a product usage look-ahead predictor.
+		 *
+		 * @param lookAhead the look-ahead, in seconds
+		 * @return the predictor
+		 */
+		public static Predictor batch(int lookAhead) {
+			return new Predictor(BATCH, 0, 0, lookAhead);
+		}
+
+		/**
+		 * Gets the type.
+		 *
+		 * @return the type
+		 */
+		public int getType() {
+			return type;
+		}
+
+		/**
+		 * Gets the first coefficient.
+		 *
+		 * @return the first coefficient
+		 */
+		public double getFirst() {
+			return first;
+		}
+
+		/**
+		 * Gets the second coefficient.
+		 *
+		 * @return the second coefficient
+		 */
+		public double getSecond() {
+			return second;
+		}
+
+		/**
+		 * Gets the look-ahead.
+		 *
+		 * @return the look-ahead, in seconds
+		 */
+		public int getLookAhead() {
+			return lookAhead;
+		}
+
+		@Override
+		public String toString() {
+			switch (type) {
+				case ARMA:
+					return "arma(" + first + "," + second + ")";
+				case AR2:
+					return "ar2(" + first + "," + second + ")";
+				case AR2_FIT:
+					return "ar2fit";
+				default:
+					return "batch(" + lookAhead + "s)";
+			}
+		}
+
+	}
+
+	/**
+	 * The forecast error and over-commit counts of a predictor.
+	 */
+	public static class Result {
+
+		/** The number of forecasts. */
+		private long count;
+
+		/** The sum of the absolute errors. */
+		private double absoluteErrorSum;
+
+		/** The sum of the squared errors. */
+		private double squaredErrorSum;
+
+		/** The number of forecasts that over-committed. */
+		private long overCommits;
+
+		/** The number of PEs over-committed, summed over the forecasts. */
+		private long overCommittedPes;
+
+		/**
+		 * Records a forecast.
+		 *
+		 * @param forecast the forecast utilization
+		 * @param actual the actual utilization
+		 * @param pes the number of PEs of the VM
+		 */
+		private void add(double forecast, double actual, int pes) {
+			double clamped = Math.min(1, Math.max(0, forecast));
+			double error = clamped - actual;
+			count++;
+			absoluteErrorSum += Math.abs(error);
+			squaredErrorSum += error * error;
+			int excess = freePes(clamped, pes) - freePes(actual, pes);
+			if (excess > 0) {
+				overCommits++;
+				overCommittedPes += excess;
+			}
+		}
+
+		/**
+		 * Adds the counts of another result.
+		 *
+		 * @param other the other result
+		 */
+		public void add(Result other) {
+			count += other.count;
+			absoluteErrorSum += other.absoluteErrorSum;
+			squaredErrorSum += other.squaredErrorSum;
+			overCommits += other.overCommits;
+			overCommittedPes += other.overCommittedPes;
+		}
+
+		/**
+		 * Gets the number of forecasts.
+		 *
+		 * @return the count
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Gets the mean absolute error.
+		 *
+		 * @return the mean absolute error
+		 */
+		public double getMeanAbsoluteError() {
+			return count == 0 ? 0 : absoluteErrorSum / count;
+		}
+
+		/**
+		 * Gets the root mean squared error.
+		 *
+		 * @return the root mean squared error
+		 */
+		public double getRootMeanSquaredError() {
+			return count == 0 ? 0 : Math.sqrt(squaredErrorSum / count);
+		}
+
+		/**
+		 * Gets the fraction of forecasts that over-committed.
+		 *
+		 * @return the over-commit rate
+		 */
+		public double getOverCommitRate() {
+			return count == 0 ? 0 : (double) overCommits / count;
+		}
+
+		/**
+		 * Gets the mean number of PEs over-committed per over-committing forecast.
+		 *
+		 * @return the mean over-committed PEs
+		 */
+		public double getMeanOverCommittedPes() {
+			return overCommits == 0 ? 0 : (double) overCommittedPes / overCommits;
+		}
+
+	}
+
+	/**
+	 * The AR(2) coefficients fitted like Vm.updateFi, maintained incrementally from running sums so
+	 * that refitting after each slot costs O(1).
+	 */
+	private static class Ar2Fit {
+
+		/** The values, in order. */
+		private double[] values = new double[64];
+
+		/** The number of values. */
+		private int n;
+
+		/** The sum of the values. */
+		private double sum;
+
+		/** The sum of the squared values. */
+		private double squareSum;
+
+		/** The sum of the products of values one slot apart. */
+		private double lag1Sum;
+
+		/** The sum of the products of values two slots apart. */
+		private double lag2Sum;
+
+		/** The fitted first coefficient. */
+		private double fi1;
+
+		/** The fitted second coefficient. */
+		private double fi2;
+
+		/**
+		 * Adds a value and refits the coefficients.
+		 *
+		 * @param x the value
+		 */
+		private void add(double x) {
+			if (n == values.length) {
+				double[] grown = new double[n * 2];
+				System.arraycopy(values, 0, grown, 0, n);
+				values = grown;
+			}
+			if (n >= 1) {
+				lag1Sum += values[n - 1] * x;
+			}
+			if (n >= 2) {
+				lag2Sum += values[n - 2] * x;
+			}
+			values[n++] = x;
+			sum += x;
+			squareSum += x * x;
+			if (n >= 3) {
+				fit();
+			}
+		}
+
+		/**
+		 * Fits the coefficients. The estimates follow Vm.updateFi, including its choice of
+		 * <tt>r0</tt> and of the second denominator.
+		 */
+		private void fit() {
+			double u = sum / n;
+			double theta = (squareSum - n * u * u) / n;
+			double r0 = u + theta;
+			// sum over t < n - 1 of (x[t] - u)(x[t + 1] - u)
+			double r1 = (lag1Sum - u * (2 * sum - values[0] - values[n - 1]) + (n - 1) * u * u) / (n - 1);
+			// sum over t < n - 2 of (x[t] - u)(x[t + 2] - u)
+			double r2 = (lag2Sum - u * (2 * sum - values[0] - values[1] - values[n - 2] - values[n - 1])
+					+ (n - 2) * u * u) / (n - 2);
+
+			double up1 = r1 * r0 - r1 * r2;
+			double down1 = r0 * r0 - r1 * r1;
+			fi1 = down1 == 0.0 ? up1 : up1 / down1;
+			up1 = r0 * r2 - r1 * r1;
+			down1 = down1 - r1 * r1;
+			fi2 = down1 == 0.0 ? up1 : up1 / down1;
+		}
+
+		/**
+		 * Gets the fitted first coefficient.
+		 *
+		 * @return the coefficient
+		 */
+		private double getFi1() {
+			return fi1;
+		}
+
+		/**
+		 * Gets the fitted second coefficient.
+		 *
+		 * @return the coefficient
+		 */
+		private double getFi2() {
+			return fi2;
+		}
+
+	}
+
+}
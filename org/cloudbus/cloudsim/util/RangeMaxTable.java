@@ -0,0 +1,103 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Map;
+
+/**
+ * A sparse table answering maximum queries over a window of an immutable integer-keyed series in
+ * O(1). The series is stored densely from its smallest to its largest key; keys with no value, and
+ * keys outside the series, count as 0. The table takes O(n log n) memory for n keys, where level
+ * <tt>j</tt> holds the maximum of every run of <tt>2^j</tt> consecutive keys.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class RangeMaxTable {
+
+	/** The smallest key of the series. */
+	private final int firstKey;
+
+	/** The number of keys from the smallest to the largest. */
+	private final int length;
+
+	/** The maximum of each run of <tt>2^level</tt> keys, by level and first position. */
+	private final double[][] table;
+
+	/**
+	 * Creates a table over a series.
+	 *
+	 * @param series the values by key
+	 */
+	public RangeMaxTable(Map<Integer, Double> series) {
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (Integer key : series.keySet()) {
+			min = Math.min(min, key);
+			max = Math.max(max, key);
+		}
+		if (series.isEmpty()) {
+			firstKey = 0;
+			length = 0;
+			table = new double[0][];
+			return;
+		}
+		firstKey = min;
+		length = max - min + 1;
+		int levels = 32 - Integer.numberOfLeadingZeros(length);
+		table = new double[levels][];
+		table[0] = new double[length];
+		for (Map.Entry<Integer, Double> entry : series.entrySet()) {
+			table[0][entry.getKey() - firstKey] = entry.getValue();
+		}
+		for (int level = 1; level < levels; level++) {
+			int half = 1 << (level - 1);
+			double[] previous = table[level - 1];
+			double[] current = new double[length - (1 << level) + 1];
+			for (int i = 0; i < current.length; i++) {
+				current[i] = Math.max(previous[i], previous[i + half]);
+			}
+			table[level] = current;
+		}
+	}
+
+	/**
+	 * Gets the maximum of the values of a window of keys.
+	 *
+	 * @param fromKey the first key of the window
+	 * @param toKey the last key of the window, inclusive
+	 * @return the maximum, counting missing keys as 0; 0 if the window is empty
+	 */
+	public double getMax(int fromKey, int toKey) {
+		if (fromKey > toKey) {
+			return 0;
+		}
+		long from = Math.max((long) fromKey - firstKey, 0);
+		long to = Math.min((long) toKey - firstKey, length - 1);
+		if (from > to) {
+			return 0;
+		}
+		int level = 31 - Integer.numberOfLeadingZeros((int) (to - from + 1));
+		double max = Math.max(table[level][(int) from], table[level][(int) (to - (1 << level) + 1)]);
+		if (fromKey < firstKey || (long) toKey >= (long) firstKey + length) {
+			max = Math.max(max, 0);
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the value of a key.
+	 *
+	 * @param key the key
+	 * @return the value, or 0 if the key has no value
+	 */
+	public double get(int key) {
+		return getMax(key, key);
+	}
+
+}
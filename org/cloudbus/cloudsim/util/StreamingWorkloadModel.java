@@ -0,0 +1,65 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * A workload model whose jobs can be read one at a time, so that a workload does not have to fit
+ * in memory as a whole. {@link org.cloudbus.cloudsim.DatacenterBroker#setWorkload(StreamingWorkloadModel)}
+ * submits such a workload incrementally.
+ * 
+ * @since CloudSim Toolkit 3.0
+ * 
+ * @see WorkloadFileReader
+ */
+public interface StreamingWorkloadModel extends WorkloadModel {
+
+	/**
+	 * Opens a new pass over the jobs of the workload, in the order of its source. Each call starts
+	 * from the first job.
+	 * 
+	 * @return an iterator over the jobs
+	 * @throws IOException if the source cannot be opened
+	 */
+	WorkloadIterator openWorkload() throws IOException;
+
+	/**
+	 * Opens a new pass over the jobs of the workload as a sequential stream, in the order of its
+	 * source. The stream reads the jobs lazily; closing it closes the pass, which a caller stopping
+	 * before the last job must do, e.g. with a try-with-resources statement.
+	 * 
+	 * @return a stream of the jobs
+	 * @throws IOException if the source cannot be opened
+	 */
+	default Stream<Cloudlet> openStream() throws IOException {
+		final WorkloadIterator iterator = openWorkload();
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+				false).onClose(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					iterator.close();
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Splits a workload trace in the standard workload format into lines of whitespace separated
+ * integer fields, working on the bytes of a large buffer. The fields are parsed directly to
+ * <tt>long</tt> values, without creating a String per line or per field, which makes reading a
+ * trace several times faster than {@link String#split(String)} and {@link Integer#Integer(String)}
+ * on each line.
+ * <p>
+ * Lines end with <tt>\n</tt> or <tt>\r</tt> and fields are separated by other whitespace or control
+ * characters. Lines starting with the comment prefix and lines with no field are skipped. A field
+ * that is not an integer (e.g. <tt>1.5</tt>), or that does not fit in a <tt>long</tt>, is marked as
+ * not valid, so that the caller can skip the line if it needs the field.
+ * The bytes are expected to be in an ASCII compatible encoding.
+ *
+ * @since CloudSim Toolkit 3.0
+ *
+ * @see WorkloadFileReader
+ */
+public class SwfTokenizer {
+
+	/** The default size of the buffer, in bytes. */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+	/** The largest value to which a digit can be appended without overflowing a <tt>long</tt>. */
+	private static final long MAX_VALUE_BEFORE_DIGIT = Long.MAX_VALUE / 10;
+
+	/** The largest digit that can be appended to {@link #MAX_VALUE_BEFORE_DIGIT}. */
+	private static final int MAX_LAST_DIGIT = (int) (Long.MAX_VALUE % 10);
+
+	/** The stream the buffer is filled from; <code>null</code> if the buffer holds all the data. */
+	private final InputStream stream;
+
+	/** The bytes. */
+	private byte[] buffer;
+
+	/** The position of the next byte to read in the buffer. */
+	private int position;
+
+	/** The end of the bytes in the buffer. */
+	private int limit;
+
+	/** The end of the complete lines in the buffer. */
+	private int completeLimit;
+
+	/** The bytes of the comment prefix. */
+	private final byte[] comment;
+
+	/** The values of the fields of the current line, up to the maximum number of fields. */
+	private final long[] fields;
+
+	/** Whether each field of the current line is a valid integer. */
+	private final boolean[] valid;
+
+	/** The number of fields of the current line, including those past the maximum. */
+	private int fieldCount;
+
+	/** The position of the first byte of the current line in the data. */
+	private long lineStart;
+
+	/** The number of bytes of the data before the buffer. */
+	private long bufferStart;
+
+	/**
+	 * Creates a tokenizer reading from a stream.
+	 *
+	 * @param stream the stream
+	 * @param comment the comment prefix, e.g. ";"
+	 * @param maxField the number of fields stored per line
+	 * @param bufferSize the size of the buffer, in bytes
+	 */
+	public SwfTokenizer(InputStream stream, String comment, int maxField, int bufferSize) {
+		this.stream = stream;
+		buffer = new byte[bufferSize];
+		this.comment = comment.getBytes();
+		fields = new long[maxField];
+		valid = new boolean[maxField];
+	}
+
+	/**
+	 * Creates a tokenizer over bytes in memory, e.g. one chunk of a trace.
+	 *
+	 * @param data the bytes
+	 * @param offset the position of the first byte
+	 * @param length the number of bytes
+	 * @param comment the comment prefix, e.g. ";"
+	 * @param maxField the number of fields stored per line
+	 */
+	public SwfTokenizer(byte[] data, int offset, int length, String comment, int maxField) {
+		stream = null;
+		buffer = data;
+		position = offset;
+		limit = offset + length;
+		bufferStart = -offset;
+		this.comment = comment.getBytes();
+		fields = new long[maxField];
+		valid = new boolean[maxField];
+	}
+
+	/**
+	 * Makes sure that the buffer holds a complete line from the current position, reading more of
+	 * the stream if needed. The bytes before the current position are dropped to make room, and the
+	 * buffer grows if a line is longer than it.
+	 *
+	 * @return <code>false</code> if there is no byte left
+	 * @throws IOException if the stream cannot be read
+	 */
+	private boolean fill() throws IOException {
+		if (position < completeLimit) {
+			return true;
+		}
+		if (stream == null) {
+			completeLimit = limit;
+			return position < limit;
+		}
+		while (true) {
+			// keep the partial line at the start of the buffer and read more
+			final int kept = limit - position;
+			if (kept == buffer.length) {
+				final byte[] larger = new byte[buffer.length * 2];
+				System.arraycopy(buffer, position, larger, 0, kept);
+				buffer = larger;
+			} else if (position > 0) {
+				System.arraycopy(buffer, position, buffer, 0, kept);
+			}
+			bufferStart += position;
+			position = 0;
+			limit = kept;
+			int read;
+			do {
+				read = stream.read(buffer, limit, buffer.length - limit);
+			} while (read == 0);
+			if (read < 0) {
+				completeLimit = limit;
+				return limit > 0;
+			}
+			limit += read;
+			// the lines up to the last end of line are complete
+			for (int i = limit - 1; i >= kept; i--) {
+				if (buffer[i] == '\n' || buffer[i] == '\r') {
+					completeLimit = i + 1;
+					return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the next line with at least one field, skipping comment lines.
+	 *
+	 * @return the number of fields of the line, which may be more than the number stored; -1 at the
+	 *         end of the data
+	 * @throws IOException if the stream cannot be read
+	 */
+	public int nextLine() throws IOException {
+		while (true) {
+			if (!fill()) {
+				return -1;
+			}
+			final byte[] buf = buffer;
+			final int end = completeLimit;
+			int pos = position;
+			lineStart = bufferStart + pos;
+			if (isComment(buf, pos, end)) {
+				while (pos < end) {
+					final byte b = buf[pos++];
+					if (b == '\n' || b == '\r') {
+						break;
+					}
+				}
+				position = pos;
+				continue;
+			}
+			final long[] lineFields = fields;
+			final boolean[] lineValid = valid;
+			int count = 0;
+			while (pos < end) {
+				int b = buf[pos] & 0xFF;
+				if (b <= ' ') {
+					pos++;
+					if (b == '\n' || b == '\r') {
+						break;
+					}
+					continue;
+				}
+				boolean negative = false;
+				if (b == '-' || b == '+') {
+					negative = b == '-';
+					pos++;
+				}
+				final int digitsStart = pos;
+				boolean isValid = true;
+				long value = 0;
+				while (pos < end) {
+					final int digit = buf[pos] - '0';
+					if (digit < 0 || digit > 9) {
+						break;
+					}
+					if (value < MAX_VALUE_BEFORE_DIGIT || value == MAX_VALUE_BEFORE_DIGIT && digit <= MAX_LAST_DIGIT) {
+						value = value * 10 + digit;
+					} else {
+						isValid = false;
+					}
+					pos++;
+				}
+				if (pos == digitsStart) {
+					isValid = false;
+				}
+				// anything else up to the next separator makes the field invalid, e.g. "1.5"
+				while (pos < end && (buf[pos] & 0xFF) > ' ') {
+					isValid = false;
+					pos++;
+				}
+				if (count < lineFields.length) {
+					lineFields[count] = negative ? -value : value;
+					lineValid[count] = isValid;
+				}
+				count++;
+			}
+			position = pos;
+			fieldCount = count;
+			if (count > 0) {
+				return count;
+			}
+		}
+	}
+
+	/**
+	 * Tells whether a line starts with the comment prefix.
+	 *
+	 * @param buf the bytes
+	 * @param start the position of the first byte of the line
+	 * @param end the position of the end of the line
+	 * @return <code>true</code> if the line is a comment
+	 */
+	private boolean isComment(byte[] buf, int start, int end) {
+		if (comment.length == 0 || end - start < comment.length) {
+			return false;
+		}
+		for (int i = 0; i < comment.length; i++) {
+			if (buf[start + i] != comment[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets a field of the current line.
+	 *
+	 * @param index the index of the field, from 0
+	 * @return the value of the field
+	 */
+	public long getField(int index) {
+		return fields[index];
+	}
+
+	/**
+	 * Tells whether a field of the current line is a valid integer.
+	 *
+	 * @param index the index of the field, from 0
+	 * @return <code>true</code> if the field is valid
+	 */
+	public boolean isValid(int index) {
+		return valid[index];
+	}
+
+	/**
+	 * Tells whether a field of the current line is a valid integer that fits in an <tt>int</tt>.
+	 *
+	 * @param index the index of the field, from 0
+	 * @return <code>true</code> if the field is a valid <tt>int</tt>
+	 */
+	public boolean isValidInt(int index) {
+		return valid[index] && fields[index] >= Integer.MIN_VALUE && fields[index] <= Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Gets the position of the first byte of the current line, from the start of the data.
+	 *
+	 * @return the position
+	 */
+	public long getLineStart() {
+		return lineStart;
+	}
+
+	/**
+	 * Closes the stream, if any.
+	 *
+	 * @throws IOException if the stream cannot be closed
+	 */
+	public void close() throws IOException {
+		if (stream != null) {
+			stream.close();
+		}
+	}
+
+}
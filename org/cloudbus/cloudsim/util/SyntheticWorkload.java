@@ -0,0 +1,321 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.distributions.BulkDistribution;
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+import org.cloudbus.cloudsim.distributions.ExponentialDistr;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
+
+/**
+ * A synthetic workload, generated lazily from distributions: the jobs arrive with independent
+ * inter-arrival times, optionally modulated by a daily cycle, each job has a number of tasks with
+ * the same submit time and class type, and each task has a CPU request and a length. The class
+ * types are drawn from a fixed mix. Jobs are only generated as the broker reads them, so a
+ * workload many times larger than a production trace does not have to fit in memory.
+ * <p>
+ * Each pass over the workload creates its distributions from the seed again, so every pass, and
+ * every run with the same seed, generates the same jobs. The distributions are created by the
+ * <tt>create</tt> methods, which subclasses can override to use other distributions of the
+ * {@link org.cloudbus.cloudsim.distributions} package. By default, the inter-arrival times are
+ * exponential, the CPU requests uniform between 0 and 5% of a VM, and the length of a task is 100
+ * MI per PE. The tasks become cloudlets through an {@link InputRowMapper}, as the rows read from
+ * the <tt>input</tt> table.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class SyntheticWorkload extends AbstractStreamingWorkload {
+
+	/** The seed. */
+	private final long seed;
+
+	/** The number of jobs. */
+	private final int jobCount;
+
+	/** The mean inter-arrival time of the jobs, in seconds. */
+	private final double meanInterArrival;
+
+	/** The mapping of the tasks to cloudlets. */
+	private InputRowMapper rowMapper;
+
+	/** The cumulative weights of the class types, from class type 0. */
+	private double[] classWeights = { 0.7, 0.9, 1.0 };
+
+	/** The number of tasks per job. */
+	private int tasksPerJob = 1;
+
+	/** The daily cycle of the arrival rate, or <tt>null</tt> for a constant rate. */
+	private DiurnalProfile diurnalProfile;
+
+	/**
+	 * Creates a synthetic workload.
+	 *
+	 * @param seed the seed of the distributions
+	 * @param jobCount the number of jobs
+	 * @param meanInterArrival the mean inter-arrival time of the jobs, in seconds; dividing it by
+	 *            <tt>n</tt> multiplies the load by <tt>n</tt>
+	 * @param peNormal the number of PEs the CPU requests are scaled by
+	 */
+	public SyntheticWorkload(long seed, int jobCount, double meanInterArrival, int peNormal) {
+		if (meanInterArrival <= 0) {
+			throw new IllegalArgumentException("The mean inter-arrival time must be > 0.");
+		}
+		this.seed = seed;
+		this.jobCount = jobCount;
+		this.meanInterArrival = meanInterArrival;
+		rowMapper = new InputRowMapper(peNormal);
+	}
+
+	/**
+	 * Sets the mix of class types. The default mix is 70% class 0, 20% class 1 and 10% class 2.
+	 *
+	 * @param weights the weight of each class type, from class type 0; they need not sum to 1
+	 */
+	public void setClassWeights(double[] weights) {
+		double total = 0;
+		for (double weight : weights) {
+			if (weight < 0) {
+				throw new IllegalArgumentException("The weights must be >= 0.");
+			}
+			total += weight;
+		}
+		if (total <= 0) {
+			throw new IllegalArgumentException("At least one weight must be > 0.");
+		}
+		double[] cumulative = new double[weights.length];
+		double sum = 0;
+		for (int i = 0; i < weights.length; i++) {
+			sum += weights[i];
+			cumulative[i] = sum / total;
+		}
+		cumulative[weights.length - 1] = 1.0;
+		classWeights = cumulative;
+		resetWorkload();
+	}
+
+	/**
+	 * Sets the number of tasks of each job.
+	 *
+	 * @param tasksPerJob the number of tasks, default 1
+	 */
+	public void setTasksPerJob(int tasksPerJob) {
+		if (tasksPerJob < 1) {
+			throw new IllegalArgumentException("A job must have at least one task.");
+		}
+		this.tasksPerJob = tasksPerJob;
+		resetWorkload();
+	}
+
+	/**
+	 * Makes the arrival rate follow a daily cycle: the inter-arrival times are divided by the value
+	 * of the cycle relative to its mean, so the mean rate over a day is unchanged.
+	 *
+	 * @param diurnalProfile the cycle, or <tt>null</tt> for a constant rate
+	 */
+	public void setDiurnalProfile(DiurnalProfile diurnalProfile) {
+		this.diurnalProfile = diurnalProfile;
+		resetWorkload();
+	}
+
+	/**
+	 * Sets the mapping of the tasks to cloudlets of the next passes.
+	 *
+	 * @param rowMapper the mapping
+	 */
+	public void setRowMapper(InputRowMapper rowMapper) {
+		this.rowMapper = rowMapper;
+		resetWorkload();
+	}
+
+	/**
+	 * Gets the mapping of the tasks to cloudlets.
+	 *
+	 * @return the mapping
+	 */
+	public InputRowMapper getRowMapper() {
+		return rowMapper;
+	}
+
+	/**
+	 * Gets the number of jobs.
+	 *
+	 * @return the number of jobs
+	 */
+	public int getJobCount() {
+		return jobCount;
+	}
+
+	/**
+	 * Creates the distribution of the inter-arrival times of the jobs.
+	 *
+	 * @param seed the seed
+	 * @param mean the mean inter-arrival time, in seconds
+	 * @return the distribution
+	 */
+	protected ContinuousDistribution createInterArrival(long seed, double mean) {
+		return new ExponentialDistr(seed, mean);
+	}
+
+	/**
+	 * Creates the distribution of the CPU requests of the tasks, as fractions of a VM.
+	 *
+	 * @param seed the seed
+	 * @return the distribution
+	 */
+	protected ContinuousDistribution createCpuRequest(long seed) {
+		return new UniformDistr(0, 0.05, seed);
+	}
+
+	/**
+	 * Creates the distribution of the lengths of the tasks, in MI.
+	 *
+	 * @param seed the seed
+	 * @return the distribution, or <tt>null</tt> for 100 MI per PE
+	 */
+	protected ContinuousDistribution createLength(long seed) {
+		return null;
+	}
+
+	@Override
+	public WorkloadIterator openWorkload() throws IOException {
+		return new GeneratorIterator();
+	}
+
+	/**
+	 * Generates the tasks of the jobs one at a time.
+	 */
+	private class GeneratorIterator extends AbstractWorkloadIterator {
+
+		/** The inter-arrival times. */
+		private final SampleBuffer interArrival = SampleBuffer.of(createInterArrival(seed, meanInterArrival));
+
+		/** The CPU requests. */
+		private final SampleBuffer cpuRequest = SampleBuffer.of(createCpuRequest(seed + 1));
+
+		/** The lengths, or <tt>null</tt>. */
+		private final SampleBuffer length = SampleBuffer.of(createLength(seed + 2));
+
+		/** The class types. */
+		private final Random classes = new Random(seed + 3);
+
+		/** The mapping of the pass. */
+		private final InputRowMapper mapper = rowMapper;
+
+		/** The submit time of the current job. */
+		private double time;
+
+		/** The index of the current job. */
+		private int job = -1;
+
+		/** The class type of the current job. */
+		private int classType;
+
+		/** The number of tasks of the current job not generated yet. */
+		private int tasksLeft;
+
+		@Override
+		protected Cloudlet readNext(int taskCount) {
+			if (tasksLeft == 0 && job + 1 >= jobCount) {
+				return null;
+			}
+			if (tasksLeft == 0) {
+				job++;
+				double gap = interArrival.sample();
+				if (diurnalProfile != null) {
+					gap /= diurnalProfile.getFactor(time);
+				}
+				time += gap;
+				classType = nextClassType();
+				tasksLeft = tasksPerJob;
+			}
+			tasksLeft--;
+			long taskLength = length == null ? -1 : Math.round(length.sample());
+			return mapper.createCloudlet(taskCount, time, cpuRequest.sample(), taskLength, classType,
+					String.valueOf(job));
+		}
+
+		/**
+		 * Draws the class type of a job from the mix.
+		 *
+		 * @return the class type
+		 */
+		private int nextClassType() {
+			double p = classes.nextDouble();
+			int type = 0;
+			while (type < classWeights.length - 1 && p >= classWeights[type]) {
+				type++;
+			}
+			return type;
+		}
+
+		@Override
+		protected void closeSource() {
+		}
+	}
+
+	/**
+	 * Draws the samples of a distribution in batches when it supports it, see
+	 * {@link BulkDistribution}. The samples are the same as those drawn one at a time.
+	 */
+	private static class SampleBuffer {
+
+		/** The number of samples drawn at a time. */
+		private static final int SIZE = 1024;
+
+		/** The distribution. */
+		private final ContinuousDistribution distribution;
+
+		/** The samples drawn, or <tt>null</tt> if the distribution draws one at a time. */
+		private final double[] samples;
+
+		/** The position of the next sample. */
+		private int position = SIZE;
+
+		/**
+		 * Creates a buffer.
+		 *
+		 * @param distribution the distribution
+		 */
+		private SampleBuffer(ContinuousDistribution distribution) {
+			this.distribution = distribution;
+			samples = distribution instanceof BulkDistribution ? new double[SIZE] : null;
+		}
+
+		/**
+		 * Creates a buffer over a distribution.
+		 *
+		 * @param distribution the distribution, or <tt>null</tt>
+		 * @return the buffer, or <tt>null</tt> if the distribution is <tt>null</tt>
+		 */
+		public static SampleBuffer of(ContinuousDistribution distribution) {
+			return distribution == null ? null : new SampleBuffer(distribution);
+		}
+
+		/**
+		 * Gets the next sample.
+		 *
+		 * @return the sample
+		 */
+		public double sample() {
+			if (samples == null) {
+				return distribution.sample();
+			}
+			if (position == SIZE) {
+				((BulkDistribution) distribution).sample(samples, 0, SIZE);
+				position = 0;
+			}
+			return samples[position++];
+		}
+	}
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Helpers for reading a plain-text trace in parallel: splitting the file into chunks that start
+ * and end at line boundaries, reading a chunk, getting the result of the task parsing it, and
+ * merging the records parsed from each chunk in submit time order.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class TraceChunks {
+
+	/** The largest size of a chunk, in bytes. */
+	public static final int MAX_CHUNK_SIZE = 1 << 26;
+
+	/**
+	 * Instantiates a new object.
+	 */
+	private TraceChunks() {
+	}
+
+	/**
+	 * Splits a file into chunks of whole lines, at least one per thread and no larger than
+	 * {@link #MAX_CHUNK_SIZE} unless a line is.
+	 *
+	 * @param file the file
+	 * @param threads the number of threads that will parse the chunks
+	 * @return the boundaries of the chunks: chunk <tt>i</tt> goes from byte <tt>[i]</tt> included
+	 *         to byte <tt>[i + 1]</tt> excluded
+	 * @throws IOException if the file cannot be read
+	 */
+	public static long[] split(File file, int threads) throws IOException {
+		long size = file.length();
+		int chunks = (int) Math.max(Math.max(1, threads) * 4L, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+		chunks = (int) Math.max(1, Math.min(chunks, size));
+		long[] bounds = new long[chunks + 1];
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			int count = 1;
+			for (int i = 1; i < chunks; i++) {
+				long start = Math.max(size * i / chunks, bounds[count - 1]);
+				long end = nextLineStart(in, start, size);
+				if (end > bounds[count - 1] && end < size) {
+					bounds[count++] = end;
+				}
+			}
+			bounds[count++] = size;
+			return Arrays.copyOf(bounds, count);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Finds the start of the first line that begins at or after a position.
+	 *
+	 * @param in the file
+	 * @param position the position
+	 * @param size the size of the file
+	 * @return the start of the line, or the size of the file if there is none
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long nextLineStart(RandomAccessFile in, long position, long size) throws IOException {
+		if (position == 0) {
+			return 0;
+		}
+		byte[] buffer = new byte[8192];
+		// the line begins at the position if the previous byte ends a line
+		long scan = position - 1;
+		while (scan < size) {
+			in.seek(scan);
+			int read = in.read(buffer, 0, (int) Math.min(buffer.length, size - scan));
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer[i] == '\n' || buffer[i] == '\r') {
+					return scan + i + 1;
+				}
+			}
+			scan += read;
+		}
+		return size;
+	}
+
+	/**
+	 * Reads a chunk of a file.
+	 *
+	 * @param file the file
+	 * @param from the first byte
+	 * @param to the byte after the last one
+	 * @return the bytes
+	 * @throws IOException if the file cannot be read
+	 */
+	public static byte[] read(File file, long from, long to) throws IOException {
+		byte[] data = new byte[(int) (to - from)];
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			in.seek(from);
+			in.readFully(data);
+		} catch (EOFException e) {
+			throw new IOException("The trace " + file + " changed while being read");
+		} finally {
+			in.close();
+		}
+		return data;
+	}
+
+	/**
+	 * Gets the result of a finished task reading a trace.
+	 *
+	 * @param future the future of the task
+	 * @return the result
+	 * @throws IOException if the task failed to read the trace
+	 */
+	public static <T> T getResult(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Gets the order of the records of a chunk by submit time, keeping the records with the same
+	 * submit time in their order in the chunk.
+	 *
+	 * @param submitTimes the submit times of the records
+	 * @param length the number of records
+	 * @return the indexes of the records in submit time order
+	 */
+	public static int[] sortedOrder(final double[] submitTimes, int length) {
+		int[] order = new int[length];
+		boolean sorted = true;
+		for (int i = 0; i < length; i++) {
+			order[i] = i;
+			if (i > 0 && submitTimes[i] < submitTimes[i - 1]) {
+				sorted = false;
+			}
+		}
+		if (sorted) {
+			return order;
+		}
+		int[] work = new int[length];
+		mergeSort(submitTimes, order, work, 0, length);
+		return order;
+	}
+
+	/**
+	 * Sorts a range of record indexes by submit time, keeping the order of equal records.
+	 *
+	 * @param submitTimes the submit times of the records
+	 * @param order the indexes
+	 * @param work a work array as long as the indexes
+	 * @param from the first position of the range
+	 * @param to the position after the range
+	 */
+	private static void mergeSort(double[] submitTimes, int[] order, int[] work, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(submitTimes, order, work, from, middle);
+		mergeSort(submitTimes, order, work, middle, to);
+		if (submitTimes[order[middle - 1]] <= submitTimes[order[middle]]) {
+			return;
+		}
+		System.arraycopy(order, from, work, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || left < middle && submitTimes[work[left]] <= submitTimes[work[right]]) {
+				order[i] = work[left++];
+			} else {
+				order[i] = work[right++];
+			}
+		}
+	}
+
+	/**
+	 * Merges the records of the chunks in submit time order. Records with the same submit time keep
+	 * the order of the file, so the result is the same as a stable sort of the whole file.
+	 *
+	 * @param submitTimes the submit times of the records of each chunk
+	 * @param orders the order of the records of each chunk by submit time, see
+	 *            {@link #sortedOrder(double[], int)}
+	 * @return the records in submit time order, each as <tt>chunk &lt;&lt; 32 | index</tt>
+	 */
+	public static long[] merge(final double[][] submitTimes, final int[][] orders) {
+		int total = 0;
+		for (int[] order : orders) {
+			total += order.length;
+		}
+		long[] merged = new long[total];
+		if (isOrdered(submitTimes, orders)) {
+			// the chunks follow each other in time, as in a trace sorted by submit time
+			int position = 0;
+			for (int chunk = 0; chunk < orders.length; chunk++) {
+				for (int index : orders[chunk]) {
+					merged[position++] = (long) chunk << 32 | index;
+				}
+			}
+			return merged;
+		}
+		final int[] cursors = new int[orders.length];
+		PriorityQueue<Integer> chunks = new PriorityQueue<Integer>(Math.max(1, orders.length),
+				new Comparator<Integer>() {
+
+					@Override
+					public int compare(Integer c1, Integer c2) {
+						int result = Double.compare(submitTimes[c1][orders[c1][cursors[c1]]],
+								submitTimes[c2][orders[c2][cursors[c2]]]);
+						return result != 0 ? result : c1.compareTo(c2);
+					}
+				});
+		for (int chunk = 0; chunk < orders.length; chunk++) {
+			if (orders[chunk].length > 0) {
+				chunks.add(chunk);
+			}
+		}
+		int position = 0;
+		while (!chunks.isEmpty()) {
+			int chunk = chunks.poll();
+			merged[position++] = (long) chunk << 32 | orders[chunk][cursors[chunk]];
+			cursors[chunk]++;
+			if (cursors[chunk] < orders[chunk].length) {
+				chunks.add(chunk);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Tells whether each chunk starts no earlier than the previous chunks end.
+	 *
+	 * @param submitTimes the submit times of the records of each chunk
+	 * @param orders the order of the records of each chunk by submit time
+	 * @return <code>true</code> if the chunks can be concatenated
+	 */
+	private static boolean isOrdered(double[][] submitTimes, int[][] orders) {
+		double last = Double.NEGATIVE_INFINITY;
+		for (int chunk = 0; chunk < orders.length; chunk++) {
+			int[] order = orders[chunk];
+			if (order.length == 0) {
+				continue;
+			}
+			if (submitTimes[chunk][order[0]] < last) {
+				return false;
+			}
+			last = submitTimes[chunk][order[order.length - 1]];
+		}
+		return true;
+	}
+
+}
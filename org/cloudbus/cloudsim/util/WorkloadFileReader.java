@@ -8,14 +8,20 @@
 
 package org.cloudbus.cloudsim.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -35,7 +41,8 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
  * class <tt>each with a unique 
  *      	 entity name</tt>.
  * <li>If size of the trace file is huge or contains lots of traces please increase the JVM heap
- * size accordingly by using <tt>java -Xmx</tt> option when running the simulation.
+ * size accordingly by using <tt>java -Xmx</tt> option when running the simulation, or read it one
+ * job at a time with {@link #openWorkload()}.
  * <li>The default job file size for sending to and receiving from a resource is
  * {@link gridsim.net.Link#DEFAULT_MTU}. However, you can specify the file size by using
  * {@link #setGridletFileSize(int)}.
@@ -59,16 +66,12 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
  * 
  * @see Workload
  */
-public class WorkloadFileReader implements WorkloadModel {
+public class WorkloadFileReader extends AbstractStreamingWorkload {
 
 	private final File file; // file name
 
 	private final int rating; // a PE rating
 
-	private ArrayList<Cloudlet> jobs = null; // a list for getting all the
-
-	// Gridlets
-
 	// using Standard Workload Format
 	private int JOB_NUM = 1 - 1; // job number
 
@@ -96,8 +99,6 @@ public class WorkloadFileReader implements WorkloadModel {
 	// comment
 	private static final int IRRELEVANT = -1; // irrelevant number
 
-	private String[] fieldArray = null; // a temp array storing all the fields
-
 	/**
 	 * Create a new {@link WorkloadFileReader} object.
 	 * 
@@ -130,32 +131,104 @@ public class WorkloadFileReader implements WorkloadModel {
 	}
 
 	/**
-	 * Reads job information from a given file.
+	 * Reads the jobs of the file in parallel. A plain text file is split into chunks of lines that
+	 * are parsed on the threads of a pool, and the jobs of the chunks are merged in submit time
+	 * order; jobs with the same submit time keep the order of the file. The jobs and their numbers
+	 * are the same as those of {@link #generateWorkload()}, which keeps the order of the file, so
+	 * both lists are equal for a trace sorted by submit time. A compressed file cannot be split and
+	 * is read by a single thread. The file is read again on each call.
 	 * 
-	 * @return the list of gridlets read from the file; <code>null</code> in case of failure.
+	 * @param pool the pool parsing the chunks
+	 * @return the jobs in submit time order
+	 * @throws IOException if the file cannot be read
 	 */
-	@Override
-	public ArrayList<Cloudlet> generateWorkload() {
-		if (jobs == null) {
-			jobs = new ArrayList<Cloudlet>();
+	public ArrayList<Cloudlet> generateWorkload(final ForkJoinPool pool) throws IOException {
+		if (file.getName().endsWith(".gz") || file.getName().endsWith(".zip")) {
+			final ArrayList<Cloudlet> list = new ArrayList<Cloudlet>();
+			final WorkloadIterator iterator = openWorkload();
+			while (iterator.hasNext()) {
+				list.add(iterator.next());
+			}
+			// a stable sort
+			Collections.sort(list, new Comparator<Cloudlet>() {
 
-			// create a temp array
-			fieldArray = new String[MAX_FIELD];
+				@Override
+				public int compare(final Cloudlet c1, final Cloudlet c2) {
+					return Double.compare(c1.getSubmitTime(), c2.getSubmitTime());
+				}
+			});
+			return list;
+		}
 
-			try {
-				if (file.getName().endsWith(".gz")) {
-					readGZIPFile(file);
-				} else if (file.getName().endsWith(".zip")) {
-					readZipFile(file);
-				} else {
-					readFile(file);
+		// parse the chunks into columns
+		final long[] bounds = TraceChunks.split(file, pool.getParallelism());
+		final int chunks = bounds.length - 1;
+		final List<Callable<JobColumns>> parses = new ArrayList<Callable<JobColumns>>(chunks);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			final int index = chunk;
+			parses.add(new Callable<JobColumns>() {
+
+				@Override
+				public JobColumns call() throws IOException {
+					return parseChunk(bounds[index], bounds[index + 1]);
 				}
-			} catch (final FileNotFoundException e) {
-			} catch (final IOException e) {
-			}
+			});
+		}
+		final JobColumns[] columns = new JobColumns[chunks];
+		int chunk = 0;
+		for (final Future<JobColumns> future : pool.invokeAll(parses)) {
+			columns[chunk++] = TraceChunks.getResult(future);
 		}
 
-		return jobs;
+		// create the jobs of each chunk, numbered after those of the previous chunks
+		final List<Callable<Cloudlet[]>> creations = new ArrayList<Callable<Cloudlet[]>>(chunks);
+		final double[][] submitTimes = new double[chunks][];
+		final int[][] orders = new int[chunks][];
+		int offset = 0;
+		for (chunk = 0; chunk < chunks; chunk++) {
+			final int index = chunk;
+			final int idOffset = offset;
+			offset += columns[chunk].size;
+			creations.add(new Callable<Cloudlet[]>() {
+
+				@Override
+				public Cloudlet[] call() {
+					final JobColumns jobs = columns[index];
+					final Cloudlet[] created = new Cloudlet[jobs.size];
+					for (int i = 0; i < jobs.size; i++) {
+						created[i] = createJob(jobs, i, idOffset);
+					}
+					submitTimes[index] = jobs.submitTimes;
+					orders[index] = TraceChunks.sortedOrder(jobs.submitTimes, jobs.size);
+					return created;
+				}
+			});
+		}
+		final Cloudlet[][] created = new Cloudlet[chunks][];
+		chunk = 0;
+		for (final Future<Cloudlet[]> future : pool.invokeAll(creations)) {
+			created[chunk++] = TraceChunks.getResult(future);
+		}
+
+		final long[] merged = TraceChunks.merge(submitTimes, orders);
+		final ArrayList<Cloudlet> list = new ArrayList<Cloudlet>(merged.length);
+		for (final long job : merged) {
+			list.add(created[(int) (job >>> 32)][(int) job]);
+		}
+		return list;
+	}
+
+	/**
+	 * Opens a new pass over the jobs of the file, reading the file only as far as the jobs returned
+	 * so far. Read errors after the file has been opened end the pass, as they end
+	 * {@link #generateWorkload()}.
+	 * 
+	 * @return an iterator over the jobs of the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	@Override
+	public WorkloadIterator openWorkload() throws IOException {
+		return new FileWorkloadIterator();
 	}
 
 	/**
@@ -249,29 +322,20 @@ public class WorkloadFileReader implements WorkloadModel {
 	// ------------------- PRIVATE METHODS -------------------
 
 	/**
-	 * Creates a Gridlet with the given information and adds to the list
+	 * Creates a Gridlet with the given information
 	 * 
 	 * @param id a Gridlet ID
 	 * @param submitTime Gridlet's submit time
 	 * @param runTime Gridlet's run time
 	 * @param numProc number of processors
-	 * @param reqRunTime user estimated run time
-	 * @param userID user id
-	 * @param groupID user's group id
+	 * @return the Gridlet
 	 * @pre id >= 0
 	 * @pre submitTime >= 0
 	 * @pre runTime >= 0
 	 * @pre numProc > 0
 	 * @post $none
 	 */
-	private void createJob(
-			final int id,
-			final long submitTime,
-			final int runTime,
-			final int numProc,
-			final int reqRunTime,
-			final int userID,
-			final int groupID) {
+	private Cloudlet createJob(final int id, final double submitTime, final int runTime, final int numProc) {
 		// create the cloudlet
 		final int len = runTime * rating;
 		UtilizationModel utilizationModel = new UtilizationModelFull();
@@ -284,212 +348,265 @@ public class WorkloadFileReader implements WorkloadModel {
 				utilizationModel,
 				utilizationModel,
 				utilizationModel);
-		jobs.add(wgl);
+		wgl.setSubmitTime(submitTime);
+		return wgl;
 	}
 
 	/**
-	 * Extracts relevant information from a given array
+	 * Creates the Gridlet of a job of a column set.
 	 * 
-	 * @param array an array of String
-	 * @param line a line number
-	 * @pre array != null
-	 * @pre line > 0
+	 * @param columns the jobs
+	 * @param index the index of the job
+	 * @param idOffset the number added to the job numbers, if they are not read from the file
+	 * @return the Gridlet
 	 */
-	private void extractField(final String[] array, final int line) {
-		try {
-			Integer obj = null;
-
-			// get the job number
-			int id = 0;
-			if (JOB_NUM == IRRELEVANT) {
-				id = jobs.size() + 1;
-			} else {
-				obj = new Integer(array[JOB_NUM].trim());
-				id = obj.intValue();
-			}
-
-			// get the submit time
-			final Long l = new Long(array[SUBMIT_TIME].trim());
-			final long submitTime = l.intValue();
+	private Cloudlet createJob(final JobColumns columns, final int index, final int idOffset) {
+		int id = columns.ids[index];
+		if (JOB_NUM == IRRELEVANT) {
+			id += idOffset;
+		}
+		return createJob(id, columns.submitTimes[index], columns.runTimes[index], columns.numProcs[index]);
+	}
 
-			// get the user estimated run time
-			obj = new Integer(array[REQ_RUN_TIME].trim());
-			final int reqRunTime = obj.intValue();
+	/**
+	 * Extracts relevant information from the fields of the current line of a tokenizer
+	 * 
+	 * @param tokenizer the tokenizer
+	 * @param jobCount the number of jobs read before this one
+	 * @param columns the jobs the job is added to
+	 * @return <code>false</code> if a needed field is not valid
+	 * @pre tokenizer != null
+	 */
+	private boolean extractField(final SwfTokenizer tokenizer, final int jobCount, final JobColumns columns) {
+		// get the job number
+		int id = 0;
+		if (JOB_NUM == IRRELEVANT) {
+			id = jobCount + 1;
+		} else if (tokenizer.isValidInt(JOB_NUM)) {
+			id = (int) tokenizer.getField(JOB_NUM);
+		} else {
+			return false;
+		}
 
-			// if the required run time field is ignored, then use
-			// the actual run time
-			obj = new Integer(array[RUN_TIME].trim());
-			int runTime = obj.intValue();
+		// get the submit time
+		if (!tokenizer.isValid(SUBMIT_TIME)) {
+			return false;
+		}
+		final long submitTime = (int) tokenizer.getField(SUBMIT_TIME);
 
-			final int userID = new Integer(array[USER_ID].trim()).intValue();
-			final int groupID = new Integer(array[GROUP_ID].trim()).intValue();
+		// get the user estimated run time
+		if (!tokenizer.isValidInt(REQ_RUN_TIME)) {
+			return false;
+		}
 
-			// according to the SWF manual, runtime of 0 is possible due
-			// to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
-			if (runTime <= 0) {
-				runTime = 1; // change to 1 second
-			}
+		// if the required run time field is ignored, then use
+		// the actual run time
+		if (!tokenizer.isValidInt(RUN_TIME) || !tokenizer.isValidInt(USER_ID)
+				|| !tokenizer.isValidInt(GROUP_ID)) {
+			return false;
+		}
+		int runTime = (int) tokenizer.getField(RUN_TIME);
 
-			// get the number of allocated processors
-			obj = new Integer(array[REQ_NUM_PROC].trim());
-			int numProc = obj.intValue();
+		// according to the SWF manual, runtime of 0 is possible due
+		// to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
+		if (runTime <= 0) {
+			runTime = 1; // change to 1 second
+		}
 
-			// if the required num of allocated processors field is ignored
-			// or zero, then use the actual field
-			if (numProc == IRRELEVANT || numProc == 0) {
-				obj = new Integer(array[NUM_PROC].trim());
-				numProc = obj.intValue();
-			}
+		// get the number of allocated processors
+		if (!tokenizer.isValidInt(REQ_NUM_PROC)) {
+			return false;
+		}
+		int numProc = (int) tokenizer.getField(REQ_NUM_PROC);
 
-			// finally, check if the num of PEs required is valid or not
-			if (numProc <= 0) {
-				numProc = 1;
+		// if the required num of allocated processors field is ignored
+		// or zero, then use the actual field
+		if (numProc == IRRELEVANT || numProc == 0) {
+			if (!tokenizer.isValidInt(NUM_PROC)) {
+				return false;
 			}
-			createJob(id, submitTime, runTime, numProc, reqRunTime, userID, groupID);
-		} catch (final Exception e) {
+			numProc = (int) tokenizer.getField(NUM_PROC);
+		}
 
+		// finally, check if the num of PEs required is valid or not
+		if (numProc <= 0) {
+			numProc = 1;
 		}
+		columns.add(id, submitTime, runTime, numProc);
+		return true;
 	}
 
 	/**
-	 * Breaks a line of string into many fields.
+	 * Parses a chunk of the file.
 	 * 
-	 * @param line a line of string
-	 * @param lineNum a line number
-	 * @pre line != null
-	 * @pre lineNum > 0
-	 * @post $none
+	 * @param from the first byte of the chunk
+	 * @param to the byte after the last one
+	 * @return the jobs of the chunk, numbered from 1 if the job numbers are not read from the file
+	 * @throws IOException if the file cannot be read
 	 */
-	private void parseValue(final String line, final int lineNum) {
-		// skip a comment line
-		if (line.startsWith(COMMENT)) {
-			return;
+	private JobColumns parseChunk(final long from, final long to) throws IOException {
+		final byte[] data = TraceChunks.read(file, from, to);
+		final SwfTokenizer tokenizer = new SwfTokenizer(data, 0, data.length, COMMENT, MAX_FIELD);
+		final JobColumns columns = new JobColumns(Math.max(16, data.length / 64));
+		int fieldCount;
+		while ((fieldCount = tokenizer.nextLine()) >= 0) {
+			if (fieldCount == MAX_FIELD) {
+				extractField(tokenizer, columns.size, columns);
+			}
 		}
+		return columns;
+	}
+
+	/**
+	 * The jobs read from a trace, as one array per field.
+	 */
+	private static class JobColumns {
 
-		final String[] sp = line.split("\\s+"); // split the fields based on a
-		// space
-		int len = 0; // length of a string
-		int index = 0; // the index of an array
+		/** The job numbers. */
+		private int[] ids;
 
-		// check for each field in the array
-		for (final String elem : sp) {
-			len = elem.length(); // get the length of a string
+		/** The submit times. */
+		private double[] submitTimes;
 
-			// if it is empty then ignore
-			if (len == 0) {
-				continue;
-			}
-			fieldArray[index] = elem;
-			index++;
+		/** The run times. */
+		private int[] runTimes;
+
+		/** The numbers of processors. */
+		private int[] numProcs;
+
+		/** The number of jobs. */
+		private int size;
+
+		/**
+		 * Creates empty columns.
+		 * 
+		 * @param capacity the initial capacity
+		 */
+		public JobColumns(final int capacity) {
+			ids = new int[capacity];
+			submitTimes = new double[capacity];
+			runTimes = new int[capacity];
+			numProcs = new int[capacity];
 		}
 
-		if (index == MAX_FIELD) {
-			extractField(fieldArray, lineNum);
+		/**
+		 * Adds a job.
+		 * 
+		 * @param id the job number
+		 * @param submitTime the submit time
+		 * @param runTime the run time
+		 * @param numProc the number of processors
+		 */
+		public void add(final int id, final double submitTime, final int runTime, final int numProc) {
+			if (size == ids.length) {
+				final int capacity = size * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				submitTimes = Arrays.copyOf(submitTimes, capacity);
+				runTimes = Arrays.copyOf(runTimes, capacity);
+				numProcs = Arrays.copyOf(numProcs, capacity);
+			}
+			ids[size] = id;
+			submitTimes[size] = submitTime;
+			runTimes[size] = runTime;
+			numProcs[size] = numProc;
+			size++;
 		}
 	}
 
 	/**
-	 * Reads a text file one line at the time
-	 * 
-	 * @param fl a file name
-	 * @return <code>true</code> if successful, <code>false</code> otherwise.
-	 * @throws IOException if the there was any error reading the file
-	 * @throws FileNotFoundException if the file was not found
+	 * Reads the jobs of the file one line at the time. A text or gzip file is read as a single
+	 * stream; the entries of a zip file are read one after the other.
 	 */
-	private boolean readFile(final File fl) throws IOException, FileNotFoundException {
-		boolean success = false;
-		BufferedReader reader = null;
-		try {
-			reader = new BufferedReader(new InputStreamReader(new FileInputStream(fl)));
-
-			// read one line at the time
-			int line = 1;
-			while (reader.ready()) {
-				parseValue(reader.readLine(), line);
-				line++;
-			}
-
-			reader.close();
-			success = true;
-		} finally {
-			if (reader != null) {
-				reader.close();
+	private class FileWorkloadIterator extends AbstractWorkloadIterator {
+
+		/** The zip file, if the file is a zip file. */
+		private ZipFile zipFile;
+
+		/** The entries of the zip file not read yet. */
+		private Enumeration<? extends ZipEntry> zipEntries;
+
+		/** The tokenizer of the current stream; <code>null</code> once all the streams are read. */
+		private SwfTokenizer tokenizer;
+
+		/** The job of the current line. */
+		private final JobColumns current = new JobColumns(1);
+
+		/**
+		 * Opens the file.
+		 * 
+		 * @throws IOException if the file cannot be opened
+		 */
+		public FileWorkloadIterator() throws IOException {
+			if (file.getName().endsWith(".gz")) {
+				tokenizer = createTokenizer(new GZIPInputStream(new FileInputStream(file), 1 << 16));
+			} else if (file.getName().endsWith(".zip")) {
+				// ZipFile offers an Enumeration of all the files in the file
+				zipFile = new ZipFile(file);
+				zipEntries = zipFile.entries();
+				nextZipEntry();
+			} else {
+				tokenizer = createTokenizer(new FileInputStream(file));
 			}
 		}
 
-		return success;
-	}
+		/**
+		 * Creates a tokenizer reading from a stream.
+		 * 
+		 * @param stream the stream
+		 * @return the tokenizer
+		 */
+		private SwfTokenizer createTokenizer(final InputStream stream) {
+			return new SwfTokenizer(stream, COMMENT, MAX_FIELD, SwfTokenizer.DEFAULT_BUFFER_SIZE);
+		}
 
-	/**
-	 * Reads a gzip file one line at the time
-	 * 
-	 * @param fl a gzip file name
-	 * @return <code>true</code> if successful; <code>false</code> otherwise.
-	 * @throws IOException if the there was any error reading the file
-	 * @throws FileNotFoundException if the file was not found
-	 */
-	private boolean readGZIPFile(final File fl) throws IOException, FileNotFoundException {
-		boolean success = false;
-		BufferedReader reader = null;
-		try {
-			reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(fl))));
-
-			// read one line at the time
-			int line = 1;
-			while (reader.ready()) {
-				parseValue(reader.readLine(), line);
-				line++;
+		/**
+		 * Opens the next entry of the zip file, or closes the zip file if there is none.
+		 * 
+		 * @throws IOException if the entry cannot be opened
+		 */
+		private void nextZipEntry() throws IOException {
+			if (zipEntries.hasMoreElements()) {
+				tokenizer = createTokenizer(zipFile.getInputStream(zipEntries.nextElement()));
+			} else {
+				tokenizer = null;
+				zipFile.close();
+				zipFile = null;
 			}
+		}
 
-			reader.close();
-			success = true;
-		} finally {
-			if (reader != null) {
-				reader.close();
+		@Override
+		protected Cloudlet readNext(final int jobCount) throws IOException {
+			while (tokenizer != null) {
+				final int fieldCount = tokenizer.nextLine();
+				if (fieldCount == MAX_FIELD) {
+					current.size = 0;
+					if (extractField(tokenizer, jobCount, current)) {
+						return createJob(current, 0, 0);
+					}
+				} else if (fieldCount < 0) {
+					tokenizer.close();
+					tokenizer = null;
+					if (zipFile != null) {
+						nextZipEntry();
+					}
+				}
 			}
+			return null;
 		}
 
-		return success;
-	}
-
-	/**
-	 * Reads a Zip file.
-	 * 
-	 * @param fl a zip file name
-	 * @return <code>true</code> if reading a file is successful; <code>false</code> otherwise.
-	 * @throws IOException if the there was any error reading the file
-	 */
-	private boolean readZipFile(final File fl) throws IOException {
-		boolean success = false;
-		ZipFile zipFile = null;
-		try {
-			BufferedReader reader = null;
-
-			// ZipFile offers an Enumeration of all the files in the file
-			zipFile = new ZipFile(fl);
-			final Enumeration<? extends ZipEntry> e = zipFile.entries();
-			while (e.hasMoreElements()) {
-				success = false; // reset the value again
-				final ZipEntry zipEntry = e.nextElement();
-
-				reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(zipEntry)));
-
-				// read one line at the time
-				int line = 1;
-				while (reader.ready()) {
-					parseValue(reader.readLine(), line);
-					line++;
+		@Override
+		protected void closeSource() throws IOException {
+			try {
+				if (tokenizer != null) {
+					tokenizer.close();
+				}
+			} finally {
+				tokenizer = null;
+				if (zipFile != null) {
+					zipFile.close();
+					zipFile = null;
 				}
-
-				reader.close();
-				success = true;
-			}
-		} finally {
-			if (zipFile != null) {
-				zipFile.close();
 			}
 		}
-
-		return success;
 	}
 }
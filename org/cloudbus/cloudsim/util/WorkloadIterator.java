@@ -0,0 +1,28 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * An iterator over the jobs of a workload that holds an open source, e.g. a trace file. It is
+ * closed automatically once the last job has been returned; a caller stopping earlier must close it.
+ * Removing jobs is not supported. {@link StreamingWorkloadModel#openStream()} gives the same pass as
+ * a stream.
+ * 
+ * @since CloudSim Toolkit 3.0
+ * 
+ * @see StreamingWorkloadModel
+ */
+public interface WorkloadIterator extends Iterator<Cloudlet>, Closeable {
+
+}
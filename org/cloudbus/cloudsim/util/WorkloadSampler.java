@@ -0,0 +1,211 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Cloudlet;
+
+/**
+ * Keeps one in <tt>k</tt> jobs of a workload, for exploratory runs that must be much faster than a
+ * run of the whole trace. The sample is stratified by class type: within each class type, the jobs
+ * are taken in the order of the trace and every <tt>k</tt>-th one is kept, starting at a seeded
+ * offset, so that each class keeps its share of the workload. The cloudlets of a job, i.e. with
+ * the same job id, are kept or dropped together, the job being counted in the class of its first
+ * cloudlet; a cloudlet without a job id is a job of its own. Only the decisions of the
+ * {@link #RECENT_JOBS} most recently seen jobs are remembered, so that a pass over a stream takes
+ * bounded memory; the cloudlets of a job are expected to be close to each other in the trace, and
+ * a job seen again after that many other jobs counts as a new job.
+ * <p>
+ * As the sample submits about <tt>1/k</tt> of the load, the capacity of the datacenter should be
+ * scaled down by the same factor, see {@link #scaleCapacity(int)}, to keep the utilization and the
+ * contention of the full run. The sample keeps the ids of the cloudlets.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class WorkloadSampler implements StreamingWorkloadModel {
+
+	/** The number of most recently seen jobs whose decisions are remembered. */
+	public static final int RECENT_JOBS = 4096;
+
+	/** The sampled workload, or <tt>null</tt> if the sampler is used on lists. */
+	private final StreamingWorkloadModel source;
+
+	/** One in <tt>factor</tt> jobs is kept. */
+	private final int factor;
+
+	/** The seed of the offsets of the strata. */
+	private final long seed;
+
+	/** The jobs of the sample, once {@link #generateWorkload()} has been called. */
+	private ArrayList<Cloudlet> jobs;
+
+	/**
+	 * Creates a sampler of a workload.
+	 *
+	 * @param source the workload
+	 * @param factor one in <tt>factor</tt> jobs is kept
+	 * @param seed the seed choosing which of the <tt>factor</tt> jobs is kept in each class
+	 */
+	public WorkloadSampler(StreamingWorkloadModel source, int factor, long seed) {
+		if (factor < 1) {
+			throw new IllegalArgumentException("The sampling factor must be >= 1.");
+		}
+		this.source = source;
+		this.factor = factor;
+		this.seed = seed;
+	}
+
+	/**
+	 * Creates a sampler of lists of cloudlets, see {@link #sample(List)}.
+	 *
+	 * @param factor one in <tt>factor</tt> jobs is kept
+	 * @param seed the seed choosing which of the <tt>factor</tt> jobs is kept in each class
+	 */
+	public WorkloadSampler(int factor, long seed) {
+		this(null, factor, seed);
+	}
+
+	/**
+	 * Gets the sampling factor.
+	 *
+	 * @return one in <tt>factor</tt> jobs is kept
+	 */
+	public int getFactor() {
+		return factor;
+	}
+
+	/**
+	 * Scales a capacity, e.g. a number of VMs or of PEs per VM, down by the sampling factor.
+	 *
+	 * @param capacity the capacity of the full run
+	 * @return the capacity of the sampled run, at least 1
+	 */
+	public int scaleCapacity(int capacity) {
+		return (int) Math.max(1, Math.round(capacity / (double) factor));
+	}
+
+	/**
+	 * Samples a list of cloudlets in the order of the list.
+	 *
+	 * @param cloudlets the cloudlets
+	 * @return the cloudlets kept
+	 */
+	public List<Cloudlet> sample(List<? extends Cloudlet> cloudlets) {
+		Selection selection = new Selection();
+		List<Cloudlet> kept = new ArrayList<Cloudlet>(cloudlets.size() / factor + 1);
+		for (Cloudlet cloudlet : cloudlets) {
+			if (selection.keep(cloudlet)) {
+				kept.add(cloudlet);
+			}
+		}
+		return kept;
+	}
+
+	@Override
+	public ArrayList<Cloudlet> generateWorkload() {
+		if (jobs == null) {
+			jobs = new ArrayList<Cloudlet>(sample(source.generateWorkload()));
+		}
+		return jobs;
+	}
+
+	@Override
+	public WorkloadIterator openWorkload() throws IOException {
+		final WorkloadIterator iterator = source.openWorkload();
+		final Selection selection = new Selection();
+		return new AbstractWorkloadIterator() {
+
+			@Override
+			protected Cloudlet readNext(int jobCount) {
+				while (iterator.hasNext()) {
+					Cloudlet cloudlet = iterator.next();
+					if (selection.keep(cloudlet)) {
+						return cloudlet;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			protected void closeSource() throws IOException {
+				iterator.close();
+			}
+		};
+	}
+
+	/**
+	 * The state of one pass of the sampler.
+	 */
+	private class Selection {
+
+		/** The number of jobs seen in each class type. */
+		private final Map<Integer, Integer> counts = new HashMap<Integer, Integer>();
+
+		/** The offset of the jobs kept in each class type. */
+		private final Map<Integer, Integer> offsets = new HashMap<Integer, Integer>();
+
+		/** Whether each of the most recently seen jobs is kept, by job id, least recent first. */
+		private final Map<String, Boolean> decisions = new LinkedHashMap<String, Boolean>(16, 0.75f,
+				true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > RECENT_JOBS;
+			}
+		};
+
+		/**
+		 * Tells whether a cloudlet is kept.
+		 *
+		 * @param cloudlet the cloudlet, in the order of the trace
+		 * @return <code>true</code> if the cloudlet is in the sample
+		 */
+		public boolean keep(Cloudlet cloudlet) {
+			String jobId = cloudlet.getJobId();
+			if (jobId != null) {
+				Boolean decision = decisions.get(jobId);
+				if (decision == null) {
+					decision = nextJob(cloudlet.getClassType());
+					decisions.put(jobId, decision);
+				}
+				return decision;
+			}
+			return nextJob(cloudlet.getClassType());
+		}
+
+		/**
+		 * Counts a new job of a class type.
+		 *
+		 * @param classType the class type
+		 * @return <code>true</code> if the job is kept
+		 */
+		private boolean nextJob(int classType) {
+			Integer count = counts.get(classType);
+			Integer offset = offsets.get(classType);
+			if (count == null) {
+				count = 0;
+				// each class gets its own offset, so that the classes are not sampled in step
+				offset = new Random(seed * 31 + classType).nextInt(factor);
+				offsets.put(classType, offset);
+			}
+			counts.put(classType, count + 1);
+			return count % factor == offset;
+		}
+	}
+
+}
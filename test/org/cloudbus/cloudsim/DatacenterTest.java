@@ -0,0 +1,130 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the transfer times predicted by {@link Datacenter} from the files of its storages.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class DatacenterTest {
+
+	private static final double DELTA = 1e-9;
+
+	private HarddriveStorage first;
+
+	private HarddriveStorage second;
+
+	private Datacenter datacenter;
+
+	private Cloudlet cloudlet;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<Host>();
+		hostList.add(new Host(0, new RamProvisionerSimple(1024), new BwProvisionerSimple(1000), 10000,
+				peList, new VmSchedulerSpaceShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics("x86", "Linux", "Xen",
+				hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+
+		first = new HarddriveStorage("first", 10000);
+		second = new HarddriveStorage("second", 10000);
+		List<Storage> storageList = new ArrayList<Storage>();
+		storageList.add(first);
+		storageList.add(second);
+		datacenter = new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				storageList, 0);
+
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		cloudlet = new Cloudlet(0, 1000, 1, 100, 100, utilizationModel, utilizationModel, utilizationModel);
+		cloudlet.addRequiredFile("data");
+	}
+
+	@Test
+	public void testFileAddedThroughDatacenter() throws Exception {
+		assertEquals(0.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+
+		datacenter.addFile(new File("data", 266));
+		assertEquals(2.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+	}
+
+	@Test
+	public void testFileAddedToStorage() throws Exception {
+		assertEquals(0.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+
+		second.addFile(new File("data", 266));
+		assertEquals(2.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+	}
+
+	@Test
+	public void testFileDeletedFromStorage() throws Exception {
+		first.addFile(new File("data", 266));
+		assertEquals(2.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+
+		first.deleteFile("data");
+		assertEquals(0.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+	}
+
+	@Test
+	public void testFileReplacedOnStorage() throws Exception {
+		first.addFile(new File("data", 266));
+		assertEquals(2.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+
+		first.deleteFile("data");
+		first.addFile(new File("data", 133));
+		assertEquals(1.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+	}
+
+	@Test
+	public void testFileRenamedOnStorage() throws Exception {
+		File file = new File("data", 266);
+		first.addFile(file);
+		assertEquals(2.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+
+		first.renameFile(file, "old-data");
+		assertEquals(0.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+	}
+
+	@Test
+	public void testFileAddedToEarlierStorage() throws Exception {
+		second.addFile(new File("data", 266));
+		assertEquals(2.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+
+		// the first storage of the list holding a file is the one it is read from
+		first.addFile(new File("data", 133));
+		assertEquals(1.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+	}
+
+	@Test
+	public void testTransferRateChanged() throws Exception {
+		first.addFile(new File("data", 266));
+		assertEquals(2.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+
+		first.setMaxTransferRate(266);
+		assertEquals(1.0, datacenter.predictFileTransferTime(cloudlet), DELTA);
+	}
+
+}
@@ -0,0 +1,364 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests {@link JdbcTraceSource} and {@link JdbcWorkload} against a stub JDBC driver serving an
+ * in-memory <tt>input</tt> table and recording how the rows are read.
+ *
+ * @since CloudSim Toolkit 3.0
+ */
+public class JdbcWorkloadTest {
+
+	private static final String URL = "jdbc:stub:input";
+
+	private static final String SQL = "select time, cpuReq, priority, jobID from input order by time";
+
+	private static final String[] COLUMNS = { "time", "cpuReq", "priority", "jobID" };
+
+	private static final Object[][] ROWS = {
+			{ 0.0, 0.25, 0, "job-1" },
+			{ 0.0, 0.5, 0, "job-1" },
+			{ 300.0, 0.1, 2, "job-2" },
+			{ 600.0, 0.05, 1, null } };
+
+	private static StubDriver driver;
+
+	@BeforeClass
+	public static void registerDriver() throws SQLException {
+		driver = new StubDriver();
+		DriverManager.registerDriver(driver);
+	}
+
+	@AfterClass
+	public static void deregisterDriver() throws SQLException {
+		DriverManager.deregisterDriver(driver);
+	}
+
+	@Before
+	public void setUp() {
+		driver.reset();
+	}
+
+	@Test
+	public void testForwardOnlyReadOnlyCursor() throws IOException {
+		JdbcTraceSource source = new JdbcTraceSource(URL, "user", "password", SQL, 250);
+		source.close();
+
+		assertEquals(SQL, driver.sql);
+		assertEquals(ResultSet.TYPE_FORWARD_ONLY, driver.resultSetType);
+		assertEquals(ResultSet.CONCUR_READ_ONLY, driver.resultSetConcurrency);
+		assertEquals(250, driver.fetchSize);
+		assertEquals(ResultSet.FETCH_FORWARD, driver.fetchDirection);
+	}
+
+	@Test
+	public void testFetchSizeOfWorkload() throws IOException {
+		JdbcWorkload workload = new JdbcWorkload(URL, "user", "password", SQL, 100);
+		assertEquals(JdbcTraceSource.DEFAULT_FETCH_SIZE, workload.getFetchSize());
+		workload.setFetchSize(64);
+		workload.openWorkload().close();
+
+		assertEquals(64, driver.fetchSize);
+	}
+
+	@Test
+	public void testRowMapping() {
+		JdbcWorkload workload = new JdbcWorkload(URL, "user", "password", SQL, 100);
+		List<Cloudlet> cloudlets = workload.generateWorkload();
+
+		assertEquals(ROWS.length, cloudlets.size());
+		assertCloudlet(cloudlets.get(0), 0, 25, 0.0, 0, "job-1");
+		assertCloudlet(cloudlets.get(1), 1, 50, 0.0, 0, "job-1");
+		assertCloudlet(cloudlets.get(2), 2, 10, 300.0, 2, "job-2");
+		assertCloudlet(cloudlets.get(3), 3, 5, 600.0, 1, null);
+		assertTrue(workload.generateWorkload() == cloudlets);
+	}
+
+	@Test
+	public void testTypedColumnReads() {
+		new JdbcWorkload(URL, "user", "password", SQL, 100).generateWorkload();
+
+		List<String> expected = new ArrayList<String>();
+		for (int row = 0; row < ROWS.length; row++) {
+			expected.addAll(Arrays.asList("getDouble:1", "getDouble:2", "getInt:3", "getString:4"));
+		}
+		assertEquals(expected, driver.reads);
+	}
+
+	@Test
+	public void testClosedWhenPassEnds() throws IOException {
+		WorkloadIterator iterator = new JdbcWorkload(URL, "user", "password", SQL, 100).openWorkload();
+		int count = 0;
+		while (iterator.hasNext()) {
+			iterator.next();
+			assertFalse(driver.isClosed());
+			count++;
+		}
+
+		assertEquals(ROWS.length, count);
+		assertTrue(driver.isClosed());
+		iterator.close();
+		assertTrue(driver.isClosed());
+	}
+
+	@Test
+	public void testClosedWhenStoppedEarly() throws IOException {
+		WorkloadIterator iterator = new JdbcWorkload(URL, "user", "password", SQL, 100).openWorkload();
+		iterator.next();
+		assertFalse(driver.isClosed());
+		iterator.close();
+
+		assertTrue(driver.isClosed());
+		assertFalse(iterator.hasNext());
+		assertEquals(1, driver.rowsRead);
+	}
+
+	@Test
+	public void testClosedWhenColumnMissing() throws IOException {
+		try {
+			new JdbcWorkload(URL, "user", "password", "select time from input", 100).openWorkload();
+		} catch (IOException expected) {
+			assertTrue(driver.isClosed());
+			return;
+		}
+		throw new AssertionError("The missing columns were not reported");
+	}
+
+	private static void assertCloudlet(Cloudlet cloudlet, int id, int pes, double time, int priority,
+			String jobId) {
+		assertEquals(id, cloudlet.getCloudletId());
+		assertEquals(pes, cloudlet.getNumberOfPes());
+		assertEquals(pes * 100L, cloudlet.getCloudletLength());
+		assertEquals(time, cloudlet.getSubmitTime(), 0);
+		assertEquals(priority, cloudlet.getClassType());
+		if (jobId == null) {
+			assertNull(cloudlet.getJobId());
+		} else {
+			assertEquals(jobId, cloudlet.getJobId());
+		}
+	}
+
+	/**
+	 * A driver for the <tt>jdbc:stub:</tt> URLs, serving {@link JdbcWorkloadTest#ROWS} to any
+	 * query. The connection, statement and result set are proxies recording the calls the tests
+	 * check.
+	 */
+	private static class StubDriver implements Driver {
+
+		String sql;
+
+		int resultSetType;
+
+		int resultSetConcurrency;
+
+		int fetchSize;
+
+		int fetchDirection;
+
+		/** The typed reads of the result set, as <tt>getter:column</tt>. */
+		final List<String> reads = new ArrayList<String>();
+
+		int rowsRead;
+
+		boolean connectionClosed;
+
+		boolean statementClosed;
+
+		boolean resultClosed;
+
+		void reset() {
+			sql = null;
+			resultSetType = 0;
+			resultSetConcurrency = 0;
+			fetchSize = 0;
+			fetchDirection = 0;
+			reads.clear();
+			rowsRead = 0;
+			connectionClosed = false;
+			statementClosed = false;
+			resultClosed = false;
+		}
+
+		boolean isClosed() {
+			return connectionClosed && statementClosed && resultClosed;
+		}
+
+		@Override
+		public Connection connect(String url, Properties info) {
+			if (!acceptsURL(url)) {
+				return null;
+			}
+			return proxy(Connection.class, new InvocationHandler() {
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if (name.equals("prepareStatement") && args.length == 3) {
+						sql = (String) args[0];
+						resultSetType = (Integer) args[1];
+						resultSetConcurrency = (Integer) args[2];
+						return statement();
+					}
+					if (name.equals("close")) {
+						connectionClosed = true;
+						return null;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+
+		private PreparedStatement statement() {
+			return proxy(PreparedStatement.class, new InvocationHandler() {
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if (name.equals("setFetchSize")) {
+						fetchSize = (Integer) args[0];
+						return null;
+					}
+					if (name.equals("executeQuery") && args == null) {
+						return resultSet(columns(sql));
+					}
+					if (name.equals("close")) {
+						statementClosed = true;
+						return null;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+
+		private ResultSet resultSet(final List<String> columns) {
+			return proxy(ResultSet.class, new InvocationHandler() {
+
+				private int row = -1;
+
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+					String name = method.getName();
+					if (name.equals("setFetchDirection")) {
+						fetchDirection = (Integer) args[0];
+						return null;
+					}
+					if (name.equals("findColumn")) {
+						int index = columns.indexOf(args[0]);
+						if (index < 0) {
+							throw new SQLException("No column " + args[0]);
+						}
+						return index + 1;
+					}
+					if (name.equals("next")) {
+						if (row + 1 >= ROWS.length) {
+							return false;
+						}
+						row++;
+						rowsRead++;
+						return true;
+					}
+					if (name.equals("close")) {
+						resultClosed = true;
+						return null;
+					}
+					if (args != null && args.length == 1 && args[0] instanceof Integer
+							&& name.startsWith("get")) {
+						int column = (Integer) args[0];
+						reads.add(name + ":" + column);
+						Object value = ROWS[row][Arrays.asList(COLUMNS).indexOf(columns.get(column - 1))];
+						if (name.equals("getDouble")) {
+							return ((Number) value).doubleValue();
+						}
+						if (name.equals("getInt")) {
+							return ((Number) value).intValue();
+						}
+						if (name.equals("getString")) {
+							return value == null ? null : value.toString();
+						}
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+
+		/**
+		 * Gets the columns selected by a query, among {@link JdbcWorkloadTest#COLUMNS}.
+		 */
+		private static List<String> columns(String sql) {
+			String selected = sql.substring("select ".length(), sql.indexOf(" from "));
+			return Arrays.asList(selected.split(", "));
+		}
+
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return type.cast(Proxy.newProxyInstance(StubDriver.class.getClassLoader(),
+					new Class<?>[] { type }, handler));
+		}
+
+		@Override
+		public boolean acceptsURL(String url) {
+			return url.startsWith("jdbc:stub:");
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		@Override
+		public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+			throw new SQLFeatureNotSupportedException();
+		}
+	}
+
+}